@@ -0,0 +1,157 @@
+package com.chrynan.glimpse;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the attributes bound by a generated binder in a {@link android.content.res.TypedArray}
+ * obtained for a larger, sorted, attribute array. A binder whose super class or delegates are bound
+ * by binders of the same package obtains a single TypedArray for the attributes of all of them, and
+ * passes it to those binders along with their own indexes, which are the positions of their
+ * attributes in the same array.
+ * <p>
+ * Instances are created once per binder class, when it's initialized.
+ */
+public final class AttributeIndexes {
+
+    private static final AttributeIndexes[] NO_DELEGATES = new AttributeIndexes[0];
+
+    private final int[] indexes;
+    private final int[] attributes;
+    private final AttributeIndexes parent;
+    private final AttributeIndexes[] delegates;
+
+    /**
+     * @param attributes         The sorted attribute array of the binder.
+     * @param obtainedAttributes The sorted attribute array the TypedArray is obtained for, which
+     *                           contains every attribute of the binder.
+     * @param parent             The indexes of the binder of the super class in the same array, if
+     *                           any.
+     */
+    public AttributeIndexes(@NonNull final int[] attributes, @NonNull final int[] obtainedAttributes, @Nullable final AttributeIndexes parent) {
+        this(attributes, obtainedAttributes, parent, NO_DELEGATES);
+    }
+
+    /**
+     * @param attributes         The sorted attribute array of the binder.
+     * @param obtainedAttributes The sorted attribute array the TypedArray is obtained for, which
+     *                           contains every attribute of the binder.
+     * @param parent             The indexes of the binder of the super class in the same array, if
+     *                           any.
+     * @param delegates          The indexes of the binders of the delegates in the same package, in
+     *                           the order of the delegate fields. An element is null if the binder
+     *                           of that delegate obtains its own TypedArray.
+     */
+    public AttributeIndexes(@NonNull final int[] attributes, @NonNull final int[] obtainedAttributes, @Nullable final AttributeIndexes parent,
+                            @NonNull final AttributeIndexes... delegates) {
+        this.indexes = new int[attributes.length];
+        this.attributes = new int[obtainedAttributes.length];
+        this.parent = parent;
+        this.delegates = delegates;
+
+        Arrays.fill(this.attributes, -1);
+
+        for (int i = 0; i < attributes.length; i++) {
+            final int index = Arrays.binarySearch(obtainedAttributes, attributes[i]);
+
+            if (index < 0) {
+                throw new IllegalArgumentException("The attribute " + Integer.toHexString(attributes[i]) + " isn't in the obtained attributes.");
+            }
+
+            this.indexes[i] = index;
+            this.attributes[index] = i;
+        }
+    }
+
+    /**
+     * Creates the sorted union of the provided attribute arrays.
+     *
+     * @param attributes      The sorted attribute array of a binder.
+     * @param otherAttributes The sorted attribute arrays of the binders of its super class and of its
+     *                        delegates. An array is null if that binder doesn't share its
+     *                        TypedArray.
+     * @return The union, or the first array if the others are null.
+     */
+    @NonNull
+    public static int[] merge(@NonNull final int[] attributes, @NonNull final int[]... otherAttributes) {
+        int[] merged = attributes;
+
+        for (final int[] other : otherAttributes) {
+            if (other != null) {
+                merged = mergeSorted(merged, other);
+            }
+        }
+
+        return merged;
+    }
+
+    private static int[] mergeSorted(final int[] attributes, final int[] otherAttributes) {
+        final int[] merged = new int[attributes.length + otherAttributes.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < attributes.length || j < otherAttributes.length) {
+            final int attribute;
+
+            if (j == otherAttributes.length || (i < attributes.length && attributes[i] < otherAttributes[j])) {
+                attribute = attributes[i++];
+            } else if (i == attributes.length || otherAttributes[j] < attributes[i]) {
+                attribute = otherAttributes[j++];
+            } else {
+                attribute = attributes[i++];
+                j++;
+            }
+
+            merged[size++] = attribute;
+        }
+
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Retrieves the index in the TypedArray of an attribute of the binder.
+     *
+     * @param attribute The index of the attribute in the attribute array of the binder.
+     * @return The index in the TypedArray.
+     */
+    public int getIndex(final int attribute) {
+        return indexes[attribute];
+    }
+
+    /**
+     * Retrieves the attribute of the binder at an index of the TypedArray.
+     *
+     * @param index The index in the TypedArray.
+     * @return The index of the attribute in the attribute array of the binder, or -1 if the binder
+     * doesn't bind it.
+     */
+    public int getAttribute(final int index) {
+        return attributes[index];
+    }
+
+    /**
+     * Retrieves the indexes of the binder of the super class in the same TypedArray.
+     *
+     * @return The parent indexes, or null if the binder of the super class obtains its own
+     * TypedArray.
+     */
+    @Nullable
+    public AttributeIndexes getParent() {
+        return parent;
+    }
+
+    /**
+     * Retrieves the indexes of the binder of a delegate in the same TypedArray.
+     *
+     * @param delegate The position of the delegate among the delegates in the same package.
+     * @return The delegate indexes, or null if the binder of the delegate obtains its own
+     * TypedArray.
+     */
+    @Nullable
+    public AttributeIndexes getDelegate(final int delegate) {
+        return delegates[delegate];
+    }
+}
@@ -0,0 +1,388 @@
+package com.chrynan.glimpse;
+
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.AnyRes;
+import android.support.annotation.NonNull;
+import android.util.TypedValue;
+
+import java.util.Arrays;
+
+/**
+ * A cache of the default resource values used by the generated binders, keyed by the resource id,
+ * the type of value and the {@link Configuration} the value was resolved under. Generated code
+ * retrieves the instance for the current configuration once per bind with
+ * {@link #get(Resources)} and reads every default through it, so each default resource is only
+ * resolved once per configuration. Once a value is cached, reading it doesn't allocate, except for
+ * arrays which are copied.
+ * <p>
+ * {@link Styleable#shared() Shared} Drawable and ColorStateList fields are resolved through this
+ * class as well, whether the value comes from the TypedArray or the default resource, so that
+ * instances share the cached constant state.
+ * <p>
+ * A few recently used configurations are kept. When the {@link Configuration} of the
+ * {@link Resources} changes, a new cache is used and the oldest one is dropped.
+ * {@link Glimpse#clearDefaultValueCache()} drops every cached value.
+ */
+public final class DefaultValues {
+
+    private static final int MAX_CONFIGURATIONS = 4;
+
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_COLOR = 1;
+    private static final int TYPE_DIMENSION = 2;
+    private static final int TYPE_DIMENSION_PIXEL_OFFSET = 3;
+    private static final int TYPE_DIMENSION_DP = 4;
+    private static final int TYPE_DIMENSION_SP = 5;
+    private static final int TYPE_INT = 6;
+    private static final int TYPE_FLOAT = 7;
+    private static final int TYPE_STRING = 8;
+    private static final int TYPE_TEXT = 9;
+    private static final int TYPE_TEXT_ARRAY = 10;
+    private static final int TYPE_COLOR_STATE_LIST = 11;
+    private static final int TYPE_DRAWABLE = 12;
+
+    private static final Object LOCK = new Object();
+
+    private static volatile DefaultValues[] instances = new DefaultValues[0];
+
+    private final Configuration configuration;
+
+    private volatile Table table = new Table(new long[0], new long[0], new Object[0]);
+
+    private DefaultValues(final Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Retrieves the {@link DefaultValues} for the current {@link Configuration} of the provided
+     * {@link Resources}.
+     *
+     * @param resources The {@link Resources} the default values are resolved with.
+     * @return The {@link DefaultValues} for the configuration.
+     */
+    @NonNull
+    public static DefaultValues get(@NonNull final Resources resources) {
+        final Configuration current = resources.getConfiguration();
+        final DefaultValues[] cached = instances;
+
+        for (final DefaultValues values : cached) {
+            if (values.configuration.equals(current)) {
+                return values;
+            }
+        }
+
+        synchronized (LOCK) {
+            for (final DefaultValues values : instances) {
+                if (values.configuration.equals(current)) {
+                    return values;
+                }
+            }
+
+            final DefaultValues values = new DefaultValues(new Configuration(current));
+            final DefaultValues[] updated = new DefaultValues[Math.min(instances.length + 1, MAX_CONFIGURATIONS)];
+
+            updated[0] = values;
+            System.arraycopy(instances, 0, updated, 1, updated.length - 1);
+
+            instances = updated;
+
+            return values;
+        }
+    }
+
+    /**
+     * Drops every cached default value.
+     */
+    static void clear() {
+        synchronized (LOCK) {
+            instances = new DefaultValues[0];
+        }
+    }
+
+    public boolean getBoolean(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_BOOLEAN, id));
+
+        if (index >= 0) {
+            return table.primitives[index] != 0;
+        }
+
+        final boolean value = resources.getBoolean(id);
+        put(key(TYPE_BOOLEAN, id), value ? 1 : 0, null);
+
+        return value;
+    }
+
+    public int getColor(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_COLOR, id));
+
+        if (index >= 0) {
+            return (int) table.primitives[index];
+        }
+
+        @SuppressWarnings("deprecation")
+        final int value = resources.getColor(id);
+        put(key(TYPE_COLOR, id), value, null);
+
+        return value;
+    }
+
+    public float getDimension(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_DIMENSION, id));
+
+        if (index >= 0) {
+            return Float.intBitsToFloat((int) table.primitives[index]);
+        }
+
+        final float value = resources.getDimension(id);
+        put(key(TYPE_DIMENSION, id), Float.floatToRawIntBits(value), null);
+
+        return value;
+    }
+
+    public int getDimensionPixelOffset(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_DIMENSION_PIXEL_OFFSET, id));
+
+        if (index >= 0) {
+            return (int) table.primitives[index];
+        }
+
+        final int value = resources.getDimensionPixelOffset(id);
+        put(key(TYPE_DIMENSION_PIXEL_OFFSET, id), value, null);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the dimension resource in density independent pixels.
+     */
+    public int getDimensionDp(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_DIMENSION_DP, id));
+
+        if (index >= 0) {
+            return (int) table.primitives[index];
+        }
+
+        final int value = TypedValues.getDimension(resources, id, TypedValue.COMPLEX_UNIT_DIP);
+        put(key(TYPE_DIMENSION_DP, id), value, null);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the dimension resource in scaled pixels.
+     */
+    public int getDimensionSp(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_DIMENSION_SP, id));
+
+        if (index >= 0) {
+            return (int) table.primitives[index];
+        }
+
+        final int value = TypedValues.getDimension(resources, id, TypedValue.COMPLEX_UNIT_SP);
+        put(key(TYPE_DIMENSION_SP, id), value, null);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the resource as an int based on the type of its value. See
+     * {@link TypedValues#getInt(android.content.res.TypedArray, int, int, Resources)}.
+     */
+    public int getInt(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_INT, id));
+
+        if (index >= 0) {
+            return (int) table.primitives[index];
+        }
+
+        final int value = TypedValues.getInt(resources, id);
+        put(key(TYPE_INT, id), value, null);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the resource as a float based on the type of its value. See
+     * {@link TypedValues#getFloat(android.content.res.TypedArray, int, float, Resources)}.
+     */
+    public float getFloat(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_FLOAT, id));
+
+        if (index >= 0) {
+            return Float.intBitsToFloat((int) table.primitives[index]);
+        }
+
+        final float value = TypedValues.getFloat(resources, id);
+        put(key(TYPE_FLOAT, id), Float.floatToRawIntBits(value), null);
+
+        return value;
+    }
+
+    public String getString(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_STRING, id));
+
+        if (index >= 0) {
+            return (String) table.objects[index];
+        }
+
+        final String value = resources.getString(id);
+        put(key(TYPE_STRING, id), 0, value);
+
+        return value;
+    }
+
+    public CharSequence getText(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_TEXT, id));
+
+        if (index >= 0) {
+            return (CharSequence) table.objects[index];
+        }
+
+        final CharSequence value = resources.getText(id);
+        put(key(TYPE_TEXT, id), 0, value);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the text array resource. A copy of the cached array is returned so that callers
+     * can't modify the cached one.
+     */
+    public CharSequence[] getTextArray(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_TEXT_ARRAY, id));
+
+        if (index >= 0) {
+            return ((CharSequence[]) table.objects[index]).clone();
+        }
+
+        final CharSequence[] value = resources.getTextArray(id);
+        put(key(TYPE_TEXT_ARRAY, id), 0, value.clone());
+
+        return value;
+    }
+
+    /**
+     * Retrieves the ColorStateList resource. ColorStateLists are immutable, so the cached instance
+     * is returned.
+     */
+    public ColorStateList getColorStateList(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_COLOR_STATE_LIST, id));
+
+        if (index >= 0) {
+            return (ColorStateList) table.objects[index];
+        }
+
+        @SuppressWarnings("deprecation")
+        final ColorStateList value = resources.getColorStateList(id);
+        put(key(TYPE_COLOR_STATE_LIST, id), 0, value);
+
+        return value;
+    }
+
+    /**
+     * Retrieves the ColorStateList at the provided index of the TypedArray, sharing it if the
+     * attribute references a resource.
+     */
+    public ColorStateList getColorStateList(@NonNull final Resources resources, @NonNull final TypedArray typedArray, final int index) {
+        final int id = typedArray.getResourceId(index, 0);
+
+        return id != 0 ? getColorStateList(resources, id) : typedArray.getColorStateList(index);
+    }
+
+    /**
+     * Retrieves a new Drawable created from the cached constant state of the Drawable resource.
+     * Drawables without a constant state are loaded from the Resources every time.
+     */
+    public Drawable getDrawable(@NonNull final Resources resources, @AnyRes final int id) {
+        final int index = table.indexOf(key(TYPE_DRAWABLE, id));
+
+        if (index >= 0) {
+            return ((Drawable.ConstantState) table.objects[index]).newDrawable(resources);
+        }
+
+        @SuppressWarnings("deprecation")
+        final Drawable value = resources.getDrawable(id);
+        final Drawable.ConstantState state = value != null ? value.getConstantState() : null;
+
+        if (state != null) {
+            put(key(TYPE_DRAWABLE, id), 0, state);
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrieves the Drawable at the provided index of the TypedArray, sharing its constant state if
+     * the attribute references a resource.
+     */
+    public Drawable getDrawable(@NonNull final Resources resources, @NonNull final TypedArray typedArray, final int index) {
+        final int id = typedArray.getResourceId(index, 0);
+
+        return id != 0 ? getDrawable(resources, id) : typedArray.getDrawable(index);
+    }
+
+    private static long key(final int type, final int id) {
+        return ((long) type << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a value by copying the table, so that readers never need a lock. Defaults are written
+     * once per resource and configuration, so copying is cheaper overall than locking every read.
+     */
+    private void put(final long key, final long primitive, final Object object) {
+        synchronized (this) {
+            final Table current = table;
+
+            int index = current.indexOf(key);
+
+            if (index >= 0) {
+                return;
+            }
+
+            index = -(index + 1);
+
+            final int size = current.keys.length;
+            final long[] keys = new long[size + 1];
+            final long[] primitives = new long[size + 1];
+            final Object[] objects = new Object[size + 1];
+
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            System.arraycopy(current.primitives, 0, primitives, 0, index);
+            System.arraycopy(current.objects, 0, objects, 0, index);
+
+            keys[index] = key;
+            primitives[index] = primitive;
+            objects[index] = object;
+
+            System.arraycopy(current.keys, index, keys, index + 1, size - index);
+            System.arraycopy(current.primitives, index, primitives, index + 1, size - index);
+            System.arraycopy(current.objects, index, objects, index + 1, size - index);
+
+            table = new Table(keys, primitives, objects);
+        }
+    }
+
+    /**
+     * An immutable, sorted table of cached values.
+     */
+    private static final class Table {
+
+        final long[] keys;
+        final long[] primitives;
+        final Object[] objects;
+
+        Table(final long[] keys, final long[] primitives, final Object[] objects) {
+            this.keys = keys;
+            this.primitives = primitives;
+            this.objects = objects;
+        }
+
+        int indexOf(final long key) {
+            return Arrays.binarySearch(keys, key);
+        }
+    }
+}
@@ -4,34 +4,54 @@ import android.content.Context;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.support.annotation.UiThread;
 import android.util.AttributeSet;
 import android.util.Log;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Created by ckeenan on 2/5/17. A class that is used to obtain styleable attributes for fields
- * annotated with the {@link Styleable} annotation by binding a class with a generated one.
+ * annotated with the {@link Styleable} annotation by binding a class with a generated one. The
+ * obtain methods are thread safe, so views may be inflated on background threads.
  */
 public class Glimpse {
 
     private static final String TAG = "Glimpse";
 
     private static final String ATTRIBUTE_CLASS_SUFFIX = "_ViewStyleableAttr";
+    private static final String INSTANCE_FIELD_NAME = "INSTANCE";
 
     private static final String ANDROID_CLASS_PREFIX = "android.";
     private static final String JAVA_CLASS_PREFIX = "java.";
 
-    private static final int PARAM_COUNT_WITH_EXTRAS = 5;
-    private static final int PARAM_COUNT_WITHOUT_EXTRAS = 3;
+    /**
+     * A sentinel cached for classes that have no generated binding, since a
+     * {@link ConcurrentHashMap} can't hold null values. Caching it avoids repeating the look up.
+     */
+    private static final StyleableBinder<Object> NO_BINDING = new StyleableBinder<Object>() {
+        @Override
+        public void bind(@NonNull final Object target, @NonNull final Context context, final AttributeSet attributeSet) {
+            // No-op
+        }
+
+        @Override
+        public void bind(@NonNull final Object target, @NonNull final Context context, final AttributeSet attributeSet, final int defStyle, final int defStyleRes) {
+            // No-op
+        }
+    };
 
-    private static final Map<Class<?>, Constructor<?>> BINDINGS = new HashMap<>();
+    private static final ConcurrentMap<Class<?>, StyleableBinder<?>> BINDINGS = new ConcurrentHashMap<>();
+    private static final List<GlimpseIndex> INDEXES = new CopyOnWriteArrayList<>();
 
-    private static boolean logDebug = false;
+    private static volatile boolean logDebug = false;
+    private static volatile GlimpseMetricsListener metricsListener = null;
+    private static volatile SnapshotCache snapshotCache = null;
 
     /**
      * States whether to show logs. Logs will be output to LogCat using the
@@ -44,6 +64,131 @@ public class Glimpse {
         logDebug = showDebug;
     }
 
+    /**
+     * Sets the {@link GlimpseMetricsListener} notified of binder look ups and bind latencies. When
+     * no listener is set, which is the default, the obtain methods don't take any measurements.
+     *
+     * @param listener The {@link GlimpseMetricsListener} to notify or null to stop measuring.
+     */
+    public static void setMetricsListener(@Nullable final GlimpseMetricsListener listener) {
+        metricsListener = listener;
+    }
+
+    /**
+     * Sets the maximum number of snapshots kept by the snapshot cache. Binders generated with the
+     * "glimpseSnapshots" processor option resolve the attribute values once per distinct theme,
+     * defStyle, defStyleRes and {@link AttributeSet} content, and later binds with the same values
+     * only copy the cached snapshot's fields. This benefits views that are created many times with
+     * identical attributes, such as list items. The cache is disabled by default.
+     *
+     * @param maxSize The maximum number of cached snapshots, or zero to disable the cache.
+     */
+    public static void setSnapshotCacheSize(final int maxSize) {
+        snapshotCache = maxSize > 0 ? new SnapshotCache(maxSize) : null;
+    }
+
+    /**
+     * Clears the snapshot cache. This should be called if a theme used by bound views is modified,
+     * since cached snapshots are keyed by the identity of the theme. Configuration changes don't
+     * need it, even in an Activity that handles them itself and keeps its theme, since snapshots
+     * are also keyed by the {@link android.content.res.Configuration} of the resources.
+     */
+    public static void clearSnapshotCache() {
+        final SnapshotCache cache = snapshotCache;
+
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Drops the cached default resource values. Defaults are cached per {@link
+     * android.content.res.Configuration} and a configuration change already switches to a new
+     * cache, so this is only needed if resources change without a configuration change, for
+     * example when loading new resources at runtime.
+     */
+    public static void clearDefaultValueCache() {
+        DefaultValues.clear();
+    }
+
+    /**
+     * Registers a generated {@link GlimpseIndex}. Binders found in a registered index are used
+     * directly, avoiding the reflective look up of the generated attribute binding classes. The
+     * index should be registered before the first call to one of the obtain methods, typically in
+     * {@link android.app.Application#onCreate()}.
+     *
+     * @param index The generated {@link GlimpseIndex} to register.
+     */
+    public static void addIndex(@NonNull final GlimpseIndex index) {
+        INDEXES.add(index);
+        // Previously cached results, including cached misses, may be superseded by the new index
+        BINDINGS.clear();
+    }
+
+    /**
+     * Resolves and initializes the {@link StyleableBinder}s of the provided classes on the provided
+     * {@link Executor}, so that the first call to one of the obtain methods for them, typically on
+     * the UI thread, doesn't pay for class loading and the binder look up. This is meant to be
+     * called from {@link android.app.Application#onCreate()}, after registering any
+     * {@link GlimpseIndex}.
+     *
+     * @param executor The {@link Executor} to preload on.
+     * @param listener The {@link GlimpsePreloadListener} notified of the time taken per class, or
+     *                 null.
+     * @param classes  The classes containing {@link Styleable} annotated fields to preload.
+     */
+    public static void preload(@NonNull final Executor executor, @Nullable final GlimpsePreloadListener listener,
+                               @NonNull final Class<?>... classes) {
+        final Class<?>[] targets = classes.clone();
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                preloadClasses(targets, listener);
+            }
+        });
+    }
+
+    /**
+     * Resolves and initializes the {@link StyleableBinder}s of every class contained in the
+     * registered {@link GlimpseIndex}es on the provided {@link Executor}. See
+     * {@link #preload(Executor, GlimpsePreloadListener, Class[])}.
+     *
+     * @param executor The {@link Executor} to preload on.
+     * @param listener The {@link GlimpsePreloadListener} notified of the time taken per class, or
+     *                 null.
+     */
+    public static void preloadAll(@NonNull final Executor executor, @Nullable final GlimpsePreloadListener listener) {
+        final Set<Class<?>> targets = new LinkedHashSet<>();
+
+        for (final GlimpseIndex index : INDEXES) {
+            targets.addAll(index.getTargetClasses());
+        }
+
+        preload(executor, listener, targets.toArray(new Class<?>[targets.size()]));
+    }
+
+    private static void preloadClasses(@NonNull final Class<?>[] classes, @Nullable final GlimpsePreloadListener listener) {
+        final long startTime = System.nanoTime();
+
+        for (final Class<?> clazz : classes) {
+            final long classStartTime = System.nanoTime();
+            final boolean hasBinder = getBinderForClass(clazz, metricsListener) != NO_BINDING;
+
+            if (listener != null) {
+                listener.onClassPreloaded(clazz, hasBinder, System.nanoTime() - classStartTime);
+            }
+
+            if (logDebug) {
+                Log.d(TAG, "Preloaded binder for class " + clazz.getName() + ". Found = " + hasBinder);
+            }
+        }
+
+        if (listener != null) {
+            listener.onPreloadFinished(classes.length, System.nanoTime() - startTime);
+        }
+    }
+
     /**
      * Obtain and set all the styleable attributes for the fields annotated with {@link Styleable}
      * within the provided target class using the provided parameters.
@@ -52,9 +197,19 @@ public class Glimpse {
      * @param context      The {@link Context} used to retrieve the styleable attributes.
      * @param attributeSet The {@link AttributeSet} containing the attribute values.
      */
-    @UiThread
     public static void obtain(@NonNull final Object target, @NonNull final Context context, final AttributeSet attributeSet) {
-        bindAttributes(target, context, attributeSet);
+        final GlimpseMetricsListener listener = metricsListener;
+
+        if (listener == null) {
+            bind(getBinderForTarget(target, null), target, context, attributeSet);
+        } else {
+            final StyleableBinder<Object> binder = getBinderForTarget(target, listener);
+            final long start = System.nanoTime();
+
+            bind(binder, target, context, attributeSet);
+
+            listener.onBind(target.getClass(), System.nanoTime() - start);
+        }
     }
 
     /**
@@ -67,119 +222,196 @@ public class Glimpse {
      * @param defStyle     This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyle parameter.
      * @param defStyleRes  This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyleRes parameter.
      */
-    @UiThread
     public static void obtain(@NonNull final Object target, @NonNull final Context context, final AttributeSet attributeSet,
                               final int defStyle, final int defStyleRes) {
-        bindAttributes(target, context, attributeSet, defStyle, defStyleRes);
+        final GlimpseMetricsListener listener = metricsListener;
+
+        if (listener == null) {
+            bind(getBinderForTarget(target, null), target, context, attributeSet, defStyle, defStyleRes);
+        } else {
+            final StyleableBinder<Object> binder = getBinderForTarget(target, listener);
+            final long start = System.nanoTime();
+
+            bind(binder, target, context, attributeSet, defStyle, defStyleRes);
+
+            listener.onBind(target.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void bind(@NonNull final StyleableBinder<Object> binder, @NonNull final Object target, @NonNull final Context context,
+                             final AttributeSet attributeSet) {
+        final SnapshotCache cache = snapshotCache;
+
+        if (cache != null && binder instanceof SnapshotBinder) {
+            // Context#obtainStyledAttributes(AttributeSet, int[]) is equivalent to using zero for defStyle and defStyleRes
+            cache.bind((SnapshotBinder<Object, Object>) binder, target, context, attributeSet, 0, 0);
+        } else {
+            binder.bind(target, context, attributeSet);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void bind(@NonNull final StyleableBinder<Object> binder, @NonNull final Object target, @NonNull final Context context,
+                             final AttributeSet attributeSet, final int defStyle, final int defStyleRes) {
+        final SnapshotCache cache = snapshotCache;
+
+        if (cache != null && binder instanceof SnapshotBinder) {
+            cache.bind((SnapshotBinder<Object, Object>) binder, target, context, attributeSet, defStyle, defStyleRes);
+        } else {
+            binder.bind(target, context, attributeSet, defStyle, defStyleRes);
+        }
     }
 
     /**
-     * Sets the values for the targetClass that are annotated with the {@link Styleable} annotation.
-     * It does this by getting an instance of the generated attribute binding class for the provided
-     * target class and invokes its constructor. The constructor of that class should have the logic
-     * to look up and set the values.
+     * Retrieves the {@link StyleableBinder} used to set the values of the target's fields that are
+     * annotated with the {@link Styleable} annotation. The binder should have the logic to look up
+     * and set the values. A cache hit doesn't allocate any objects.
      *
-     * @param target       The target object container {@link Styleable} fields.
-     * @param context      The {@link Context} used to obtain the
-     *                     {@link android.content.res.TypedArray}.
-     * @param attributeSet The {@link AttributeSet} containing the styleable attributes.
-     * @param extras       The int extras corresponding to the default style and the default style
-     *                     resource id, respectively. Only either zero or two extras are supported.
+     * @param target   The target object containing {@link Styleable} fields.
+     * @param listener The {@link GlimpseMetricsListener} to notify of the look up or null.
+     * @return The appropriate {@link StyleableBinder}, which is a no-op binder if the target's class
+     * has no generated binding.
      */
+    @NonNull
     @SuppressWarnings("unchecked")
-    @UiThread
-    private static <T> void bindAttributes(@NonNull final Object target, @NonNull final Context context, final AttributeSet attributeSet,
-                                           final int... extras) {
+    private static StyleableBinder<Object> getBinderForTarget(@NonNull final Object target, @Nullable final GlimpseMetricsListener listener) {
         if (logDebug) {
             Log.d(TAG, "Starting the process to retrieve and set styleable values for class: " + target.getClass().getName());
         }
 
-        final boolean hasExtras = extras.length == 2;
-        final Constructor<?> constructor = getConstructorForClass(target, hasExtras);
+        final StyleableBinder<Object> binder = (StyleableBinder<Object>) getBinderForClass(target.getClass(), listener);
 
-        if (constructor != null) {
-            try {
-                if (hasExtras) {
-                    constructor.newInstance((T) target, context, attributeSet, extras[0], extras[1]);
-                } else {
-                    constructor.newInstance((T) target, context, attributeSet);
-                }
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Error attempting to invoke the generated attribute binding class' constructor. Constructor might be private.", e);
-            } catch (InstantiationException e) {
-                throw new RuntimeException("Error attempting to invoke the generated attribute binding class' constructor. Class might be abstract.", e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException("Error attempting to invoke the generated attribute binding class' constructor. Constructor might have thrown an exception.", e);
+        if (binder == NO_BINDING && logDebug) {
+            Log.d(TAG, "Generated binding is null. It must not have been found.");
+        }
+
+        return binder;
+    }
+
+    /**
+     * Retrieves the appropriate {@link StyleableBinder} for the provided class. Reads are lock free.
+     * On a cache miss, the binder is resolved and cached for the class, including the case when
+     * there is no binding (cached as {@link #NO_BINDING}) and the case when the binding belongs to
+     * a super class. Concurrent misses for the same class may resolve the binder more than once
+     * but will all use the first cached result.
+     *
+     * @param clazz    The class of the target object.
+     * @param listener The {@link GlimpseMetricsListener} to notify of the look up or null.
+     * @return The appropriate {@link StyleableBinder} or {@link #NO_BINDING}.
+     */
+    @NonNull
+    @CheckResult
+    private static StyleableBinder<?> getBinderForClass(@NonNull final Class<?> clazz, @Nullable final GlimpseMetricsListener listener) {
+        final StyleableBinder<?> cachedBinder = BINDINGS.get(clazz);
+
+        if (cachedBinder != null) {
+            if (logDebug) {
+                Log.d(TAG, "Appropriate generated binding was found in the cache!");
+            }
+            if (listener != null) {
+                listener.onBinderCacheHit(clazz);
             }
-        } else if (logDebug) {
-            Log.d(TAG, "Generated class' constructor is null. It must not have been found.");
+            return cachedBinder;
         }
+
+        final long start = listener != null ? System.nanoTime() : 0;
+
+        StyleableBinder<?> binder = getIndexedBinderForClass(clazz);
+
+        if (binder == null) {
+            binder = getReflectiveBinderForClass(clazz);
+        }
+
+        final StyleableBinder<?> existingBinder = BINDINGS.putIfAbsent(clazz, binder);
+
+        if (listener != null) {
+            listener.onBinderResolved(clazz, System.nanoTime() - start);
+        }
+
+        return existingBinder != null ? existingBinder : binder;
     }
 
     /**
-     * Retrieves the appropriate constructor instance from the generated binding attribute class for
-     * the provided class. This method is heavily inspired (yet different) by the open source
-     * Butterknife library's "findBindingConstructorForClass" method within the "ButterKnife" class.
+     * Retrieves the {@link StyleableBinder} for the provided class, or its nearest super class, from
+     * the registered {@link GlimpseIndex} instances. This look up doesn't use reflection.
      *
-     * @param target    The target object that has a generated attribute binding class.
-     * @param hasExtras Whether the constructor with extra parameters should be used.
-     * @return The appropriate {@link Constructor} instance. This Constructor will be cached for
-     * faster retrieval access later.
+     * @param clazz The class of the target object.
+     * @return The appropriate {@link StyleableBinder} or null if none of the registered indexes
+     * contain a binder for the class or its super classes.
      */
     @Nullable
     @CheckResult
-    @UiThread
-    private static Constructor<?> getConstructorForClass(@NonNull final Object target, final boolean hasExtras) {
-        final Class<?> clazz = target.getClass();
-        final Constructor<?> cachedConstructor = BINDINGS.get(clazz);
+    private static StyleableBinder<?> getIndexedBinderForClass(@NonNull final Class<?> clazz) {
+        if (INDEXES.isEmpty()) {
+            return null;
+        }
+
+        StyleableBinder<?> binder = null;
 
-        if (cachedConstructor != null) {
-            final int paramCount = cachedConstructor.getParameterTypes().length;
+        for (Class<?> c = clazz; c != null && !isFrameworkClass(c.getName()) && binder == null; c = c.getSuperclass()) {
+            for (final GlimpseIndex index : INDEXES) {
+                binder = index.getBinder(c);
 
-            if (hasExtras && paramCount == PARAM_COUNT_WITH_EXTRAS || !hasExtras && paramCount == PARAM_COUNT_WITHOUT_EXTRAS) {
-                if (logDebug) {
-                    Log.d(TAG, "Appropriate generated class' constructor was found in the cache!");
+                if (binder != null) {
+                    break;
                 }
-                return cachedConstructor;
             }
         }
 
+        if (logDebug) {
+            Log.d(TAG, binder != null ? "Generated binder was found in an index." : "Generated binder was not found in any index. Falling back to reflection.");
+        }
+
+        return binder;
+    }
+
+    /**
+     * Retrieves the appropriate {@link StyleableBinder} from the generated binding attribute class
+     * for the provided class using reflection. This method is heavily inspired (yet different) by
+     * the open source Butterknife library's "findBindingConstructorForClass" method within the
+     * "ButterKnife" class.
+     *
+     * @param clazz The class of the target object.
+     * @return The appropriate {@link StyleableBinder} or {@link #NO_BINDING} if neither the class
+     * nor its super classes have a generated attribute binding class.
+     */
+    @NonNull
+    @CheckResult
+    private static StyleableBinder<?> getReflectiveBinderForClass(@NonNull final Class<?> clazz) {
         final String className = clazz.getName();
 
         // Since this method can call itself recursively, this condition prevents from going to far into a framework class
-        if (className.startsWith(ANDROID_CLASS_PREFIX) || className.startsWith(JAVA_CLASS_PREFIX)) {
+        if (isFrameworkClass(className)) {
             if (logDebug) {
                 Log.d(TAG, "Unable to find generated class. Framework class was reached.");
             }
-            return null;
+            return NO_BINDING;
         }
 
-        Constructor<?> constructor;
-
         try {
-            final Class<?> attributeClass = Class.forName(className + ATTRIBUTE_CLASS_SUFFIX);
-
-            if (hasExtras) {
-                constructor = attributeClass.getConstructor(clazz, Context.class, AttributeSet.class, int.class, int.class);
-            } else {
-                constructor = attributeClass.getConstructor(clazz, Context.class, AttributeSet.class);
-            }
+            final Class<?> attributeClass = Class.forName(className + ATTRIBUTE_CLASS_SUFFIX, true, clazz.getClassLoader());
+            final StyleableBinder<?> binder = (StyleableBinder<?>) attributeClass.getField(INSTANCE_FIELD_NAME).get(null);
 
             if (logDebug) {
-                Log.d(TAG, "Generated class and it's appropriate constructor were found and created! Adding to the cache.");
+                Log.d(TAG, "Generated class and it's binder instance were found! Adding to the cache.");
             }
+
+            return binder;
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new RuntimeException("Error retrieving attribute class binder instance for the class: " + className, e);
         } catch (ClassNotFoundException e) {
             if (logDebug) {
                 Log.d(TAG, "Generated class was not found for the provided target. Checking superclass.");
             }
             // Recursive call - if the class wasn't found, perhaps the super class had a binding class generated
-            constructor = getConstructorForClass(clazz.getSuperclass(), hasExtras);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException("Error retrieving attribute class constructor for the class: " + className, e);
-        }
+            final Class<?> superclass = clazz.getSuperclass();
 
-        BINDINGS.put(clazz, constructor);
+            return superclass != null ? getBinderForClass(superclass, null) : NO_BINDING;
+        }
+    }
 
-        return constructor;
+    private static boolean isFrameworkClass(@NonNull final String className) {
+        return className.startsWith(ANDROID_CLASS_PREFIX) || className.startsWith(JAVA_CLASS_PREFIX);
     }
 }
@@ -0,0 +1,36 @@
+package com.chrynan.glimpse;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * A lookup table from target classes to their {@link StyleableBinder}. An implementation of this
+ * interface is generated by the annotation processor when the "glimpseIndex" processor option is
+ * provided, and should be registered with {@link Glimpse#addIndex(GlimpseIndex)} before the first
+ * call to one of the {@link Glimpse} obtain methods. Registered indexes are consulted before
+ * falling back to a reflective look up of the generated attribute binding classes.
+ */
+public interface GlimpseIndex {
+
+    /**
+     * Retrieves the {@link StyleableBinder} for exactly the provided class. Super classes are not
+     * checked by implementations of this method.
+     *
+     * @param targetClass The class containing {@link Styleable} annotated fields.
+     * @return The {@link StyleableBinder} for the provided class or null if this index doesn't
+     * contain one.
+     */
+    @Nullable
+    StyleableBinder<?> getBinder(@NonNull Class<?> targetClass);
+
+    /**
+     * Retrieves every class this index has a {@link StyleableBinder} for. Used by
+     * {@link Glimpse#preloadAll(java.util.concurrent.Executor, GlimpsePreloadListener)}.
+     *
+     * @return An unmodifiable set of the classes contained in this index.
+     */
+    @NonNull
+    Set<Class<?>> getTargetClasses();
+}
@@ -0,0 +1,161 @@
+package com.chrynan.glimpse;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link GlimpseMetricsListener} that aggregates binding metrics with low overhead striped
+ * counters, so that it can be used in release builds. It records binder cache hits and misses, the
+ * cost of resolving each class' binder and, per target class, the number of binds and a
+ * {@link LatencyHistogram} of the bind latencies. Once the metrics of a class have been created,
+ * recording doesn't allocate.
+ * <p>
+ * Usage: {@code Glimpse.setMetricsListener(metrics = new GlimpseMetrics());} and later read the
+ * values from the metrics object, for instance when reporting an app start trace.
+ */
+public final class GlimpseMetrics implements GlimpseMetricsListener {
+
+    private static final int CACHE_HITS = 0;
+    private static final int CACHE_MISSES = 1;
+
+    private final StripedCounter cacheCounters = new StripedCounter(2);
+    private final ConcurrentMap<Class<?>, ClassMetrics> classMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void onBinderCacheHit(@NonNull final Class<?> targetClass) {
+        cacheCounters.increment(CACHE_HITS);
+    }
+
+    @Override
+    public void onBinderResolved(@NonNull final Class<?> targetClass, final long resolveNanos) {
+        cacheCounters.increment(CACHE_MISSES);
+        getOrCreateClassMetrics(targetClass).resolveNanos = resolveNanos;
+    }
+
+    @Override
+    public void onBind(@NonNull final Class<?> targetClass, final long bindNanos) {
+        getOrCreateClassMetrics(targetClass).bindLatency.record(bindNanos);
+    }
+
+    /**
+     * Retrieves the number of binder look ups that were served from the cache.
+     *
+     * @return The number of binder cache hits.
+     */
+    public long getCacheHitCount() {
+        return cacheCounters.sum(CACHE_HITS);
+    }
+
+    /**
+     * Retrieves the number of binder look ups that had to resolve the binder.
+     *
+     * @return The number of binder cache misses.
+     */
+    public long getCacheMissCount() {
+        return cacheCounters.sum(CACHE_MISSES);
+    }
+
+    /**
+     * Retrieves the ratio of binder look ups that were served from the cache.
+     *
+     * @return The binder cache hit ratio, from zero to one, or zero if there were no look ups.
+     */
+    public double getCacheHitRatio() {
+        final long hits = getCacheHitCount();
+        final long total = hits + getCacheMissCount();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Retrieves the metrics recorded for the provided target class.
+     *
+     * @param targetClass The class of the bound objects.
+     * @return The {@link ClassMetrics} of the class or null if no instance of it has been bound.
+     */
+    @Nullable
+    public ClassMetrics getClassMetrics(@NonNull final Class<?> targetClass) {
+        return classMetrics.get(targetClass);
+    }
+
+    /**
+     * Retrieves the metrics of every target class that has been bound.
+     *
+     * @return A copy of the map from target class to its {@link ClassMetrics}.
+     */
+    @NonNull
+    public Map<Class<?>, ClassMetrics> getAllClassMetrics() {
+        return new HashMap<>(classMetrics);
+    }
+
+    /**
+     * Clears all of the recorded metrics.
+     */
+    public void reset() {
+        cacheCounters.reset();
+        classMetrics.clear();
+    }
+
+    private ClassMetrics getOrCreateClassMetrics(final Class<?> targetClass) {
+        ClassMetrics metrics = classMetrics.get(targetClass);
+
+        if (metrics == null) {
+            final ClassMetrics newMetrics = new ClassMetrics();
+            metrics = classMetrics.putIfAbsent(targetClass, newMetrics);
+
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+
+        return metrics;
+    }
+
+    /**
+     * The metrics recorded for a single target class.
+     */
+    public static final class ClassMetrics {
+
+        private final LatencyHistogram bindLatency = new LatencyHistogram();
+
+        private volatile long resolveNanos = -1;
+
+        ClassMetrics() {
+            // Package-private constructor - instances are created by GlimpseMetrics.
+        }
+
+        /**
+         * Retrieves the number of times an instance of the class was bound.
+         *
+         * @return The bind count.
+         */
+        public long getBindCount() {
+            return bindLatency.getTotalCount();
+        }
+
+        /**
+         * Retrieves the histogram of the bind latencies of the class.
+         *
+         * @return The bind {@link LatencyHistogram}.
+         */
+        @NonNull
+        public LatencyHistogram getBindLatency() {
+            return bindLatency;
+        }
+
+        /**
+         * Retrieves the time it took to resolve the binder of the class the last time it wasn't
+         * cached, which is typically the first time an instance of the class was bound.
+         *
+         * @return The resolve time in nanoseconds or -1 if it wasn't recorded.
+         */
+        public long getResolveNanos() {
+            return resolveNanos;
+        }
+    }
+}
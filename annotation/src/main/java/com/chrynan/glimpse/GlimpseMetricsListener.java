@@ -0,0 +1,36 @@
+package com.chrynan.glimpse;
+
+import android.support.annotation.NonNull;
+
+/**
+ * A listener notified by the {@link Glimpse} runtime about binder look ups and binds. It is set
+ * with {@link Glimpse#setMetricsListener(GlimpseMetricsListener)}. The callbacks are invoked on the
+ * thread calling one of the obtain methods, on every call, so implementations should be cheap and
+ * thread safe. {@link GlimpseMetrics} is an implementation suitable for release builds.
+ */
+public interface GlimpseMetricsListener {
+
+    /**
+     * Invoked when the {@link StyleableBinder} for the target class was found in the cache.
+     *
+     * @param targetClass The class of the object being bound.
+     */
+    void onBinderCacheHit(@NonNull Class<?> targetClass);
+
+    /**
+     * Invoked when the {@link StyleableBinder} for the target class wasn't cached and had to be
+     * resolved, which is typically the first time an instance of the class is bound.
+     *
+     * @param targetClass    The class of the object being bound.
+     * @param resolveNanos   The time, in nanoseconds, it took to resolve the binder.
+     */
+    void onBinderResolved(@NonNull Class<?> targetClass, long resolveNanos);
+
+    /**
+     * Invoked after the styleable attributes of a target object have been bound.
+     *
+     * @param targetClass The class of the object that was bound.
+     * @param bindNanos   The time, in nanoseconds, the binder took to obtain and set the values.
+     */
+    void onBind(@NonNull Class<?> targetClass, long bindNanos);
+}
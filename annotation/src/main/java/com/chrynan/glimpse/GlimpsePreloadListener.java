@@ -0,0 +1,29 @@
+package com.chrynan.glimpse;
+
+import android.support.annotation.NonNull;
+
+/**
+ * A listener notified about the progress of {@link Glimpse#preload(java.util.concurrent.Executor,
+ * GlimpsePreloadListener, Class[])} and {@link
+ * Glimpse#preloadAll(java.util.concurrent.Executor, GlimpsePreloadListener)}. The callbacks are
+ * invoked on the thread of the provided executor.
+ */
+public interface GlimpsePreloadListener {
+
+    /**
+     * Invoked after the {@link StyleableBinder} for a class was resolved and initialized.
+     *
+     * @param targetClass The class that was preloaded.
+     * @param hasBinder   Whether a binder was found for the class or one of its super classes.
+     * @param nanos       The time, in nanoseconds, it took to resolve and initialize the binder.
+     */
+    void onClassPreloaded(@NonNull Class<?> targetClass, boolean hasBinder, long nanos);
+
+    /**
+     * Invoked once every class has been preloaded.
+     *
+     * @param classCount The number of classes that were preloaded.
+     * @param totalNanos The total time, in nanoseconds, preloading took.
+     */
+    void onPreloadFinished(int classCount, long totalNanos);
+}
@@ -0,0 +1,102 @@
+package com.chrynan.glimpse;
+
+/**
+ * A histogram of latencies with power of two nanosecond buckets. Bucket zero holds latencies below
+ * two nanoseconds and bucket "i" holds latencies from 2^i up to, but not including, 2^(i + 1)
+ * nanoseconds. The last bucket also holds every larger latency. Recording is lock free and doesn't
+ * allocate.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of buckets in the histogram. The last bucket starts at roughly 2.1 seconds.
+     */
+    public static final int BUCKET_COUNT = 32;
+
+    private final StripedCounter buckets = new StripedCounter(BUCKET_COUNT);
+
+    LatencyHistogram() {
+        // Package-private constructor - instances are created by GlimpseMetrics.
+    }
+
+    void record(final long nanos) {
+        buckets.increment(getBucket(nanos));
+    }
+
+    /**
+     * Retrieves the number of latencies recorded in the provided bucket.
+     *
+     * @param bucket The bucket index, from zero to {@link #BUCKET_COUNT} exclusive.
+     * @return The number of recorded latencies in the bucket.
+     */
+    public long getCount(final int bucket) {
+        return buckets.sum(bucket);
+    }
+
+    /**
+     * Retrieves the total number of latencies recorded in this histogram.
+     *
+     * @return The number of recorded latencies.
+     */
+    public long getTotalCount() {
+        long count = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.sum(i);
+        }
+
+        return count;
+    }
+
+    /**
+     * Retrieves the exclusive upper bound, in nanoseconds, of the provided bucket.
+     *
+     * @param bucket The bucket index, from zero to {@link #BUCKET_COUNT} exclusive.
+     * @return The upper bound of the bucket, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getBucketUpperBoundNanos(final int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << (bucket + 1);
+    }
+
+    /**
+     * Retrieves an upper bound estimate of the latency at the provided percentile. The value is the
+     * upper bound of the bucket containing the percentile.
+     *
+     * @param percentile The percentile, from zero to one hundred.
+     * @return The latency estimate in nanoseconds, or zero if nothing was recorded.
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.sum(i);
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long target = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+
+            if (seen >= target && counts[i] > 0) {
+                return getBucketUpperBoundNanos(i);
+            }
+        }
+
+        return getBucketUpperBoundNanos(BUCKET_COUNT - 1);
+    }
+
+    static int getBucket(final long nanos) {
+        if (nanos < 2) {
+            return 0;
+        }
+
+        return Math.min(63 - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1);
+    }
+}
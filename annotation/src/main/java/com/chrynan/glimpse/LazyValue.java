@@ -0,0 +1,260 @@
+package com.chrynan.glimpse;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.AnyRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The value of a {@link Styleable} field bound with {@link Styleable#lazy()}. Binding only captures
+ * the id of the resource the attribute references, and the resource is resolved the first time
+ * {@link #get()} is called, then memoized. Views holding resources that are rarely shown, such as
+ * error icons or empty state text, don't pay for loading them during inflation.
+ * <p>
+ * Drawables and ColorStateLists are resolved with the theme of the Context they were bound with,
+ * as {@link TypedArray#getDrawable(int)} and {@link TypedArray#getColorStateList(int)} would have
+ * resolved them, so that they can reference theme attributes. Attribute values that aren't
+ * references, such as a color used as a Drawable or a literal String, are resolved while binding,
+ * since they are read from the attributes anyway. Instances aren't
+ * thread safe: {@link #get()} should be called from a single thread, normally the UI thread.
+ *
+ * @param <T> The type of the value, which is {@link Drawable}, {@link ColorStateList},
+ *            CharSequence[] or String.
+ */
+public final class LazyValue<T> {
+
+    /**
+     * The kind of a {@link Drawable} value, loaded from the Resources with the theme.
+     */
+    public static final int DRAWABLE = 0;
+    /**
+     * The kind of a {@link Drawable} value, created from the constant state cached by
+     * {@link DefaultValues}. See {@link Styleable#shared()}.
+     */
+    public static final int SHARED_DRAWABLE = 1;
+    /**
+     * The kind of a {@link ColorStateList} value, loaded from the Resources with the theme.
+     */
+    public static final int COLOR_STATE_LIST = 2;
+    /**
+     * The kind of a {@link ColorStateList} value, cached by {@link DefaultValues}. See
+     * {@link Styleable#shared()}.
+     */
+    public static final int SHARED_COLOR_STATE_LIST = 3;
+    /**
+     * The kind of a CharSequence[] value.
+     */
+    public static final int TEXT_ARRAY = 4;
+    /**
+     * The kind of a String value.
+     */
+    public static final int STRING = 5;
+
+    private static final LazyValue<Object> EMPTY = new LazyValue<>(null, null, STRING, 0, null);
+
+    private final Resources resources;
+    private final Resources.Theme theme;
+    private final int kind;
+    @AnyRes
+    private final int resourceId;
+    private T value;
+    private boolean resolved;
+
+    private LazyValue(@Nullable final Resources resources, @Nullable final Resources.Theme theme, final int kind, @AnyRes final int resourceId,
+                      @Nullable final T value) {
+        this.resources = resources;
+        this.theme = theme;
+        this.kind = kind;
+        this.resourceId = resourceId;
+        this.value = value;
+        this.resolved = resourceId == 0;
+    }
+
+    /**
+     * Captures the attribute at the provided index of the TypedArray. Used by the generated binders.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param kind       The kind of the value, one of the constants of this class.
+     * @param defaultRes The resource used if the attribute isn't defined, or zero.
+     * @param resources  The {@link Resources} the value is resolved with.
+     * @param theme      The theme Drawables and ColorStateLists are resolved with.
+     * @return The captured value.
+     */
+    @NonNull
+    public static <T> LazyValue<T> get(@NonNull final TypedArray typedArray, final int index, final int kind, @AnyRes final int defaultRes,
+                                       @NonNull final Resources resources, @Nullable final Resources.Theme theme) {
+        final int id = typedArray.getResourceId(index, 0);
+
+        if (id != 0) {
+            return new LazyValue<>(resources, theme, kind, id, null);
+        } else if (typedArray.hasValue(index)) {
+            return new LazyValue<>(resources, theme, kind, 0, LazyValue.<T>getInlineValue(typedArray, index, kind));
+        }
+
+        return get(kind, defaultRes, resources, theme);
+    }
+
+    /**
+     * Captures the provided resource, which is the default value of the field. Used by the
+     * generated binders.
+     *
+     * @param kind       The kind of the value, one of the constants of this class.
+     * @param resourceId The resource or zero, for a null value.
+     * @param resources  The {@link Resources} the value is resolved with.
+     * @param theme      The theme Drawables and ColorStateLists are resolved with.
+     * @return The captured value.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public static <T> LazyValue<T> get(final int kind, @AnyRes final int resourceId, @NonNull final Resources resources,
+                                       @Nullable final Resources.Theme theme) {
+        return resourceId != 0 ? new LazyValue<T>(resources, theme, kind, resourceId, null) : (LazyValue<T>) EMPTY;
+    }
+
+    /**
+     * Retrieves the value, resolving the resource on the first call. Later calls return the same
+     * instance.
+     *
+     * @return The value or null if the attribute wasn't defined and there is no default value.
+     */
+    @Nullable
+    public T get() {
+        if (!resolved) {
+            value = resolve();
+            resolved = true;
+        }
+
+        return value;
+    }
+
+    /**
+     * Whether the value was already resolved, which is always the case for values that aren't
+     * references to a resource.
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * Retrieves the id of the resource the value is resolved from.
+     *
+     * @return The resource id or zero if the value isn't a reference to a resource.
+     */
+    @AnyRes
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    /**
+     * Whether the value can be stored in a snapshot. See {@link Snapshots#isShareable(LazyValue)}.
+     */
+    boolean isShareable() {
+        return resourceId != 0 || !(value instanceof Drawable) || ((Drawable) value).getConstantState() != null;
+    }
+
+    /**
+     * Creates a value for another target. References are resolved again by the copy, and resolved
+     * Drawables and arrays are copied.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    LazyValue<T> copy() {
+        if (resourceId != 0) {
+            return new LazyValue<>(resources, theme, kind, resourceId, null);
+        } else if (value instanceof Drawable) {
+            return new LazyValue<>(resources, theme, kind, 0, (T) Snapshots.copy((Drawable) value, resources));
+        } else if (value instanceof CharSequence[]) {
+            return new LazyValue<>(resources, theme, kind, 0, (T) Snapshots.copy((CharSequence[]) value));
+        }
+
+        // Null, ColorStateList and String values are immutable
+        return this;
+    }
+
+    @SuppressWarnings({"unchecked", "deprecation"})
+    private T resolve() {
+        switch (kind) {
+            case DRAWABLE:
+                return ThemedGetters.DRAWABLE != null && theme != null ? getThemed(ThemedGetters.DRAWABLE)
+                        : (T) resources.getDrawable(resourceId);
+            case SHARED_DRAWABLE:
+                return (T) DefaultValues.get(resources).getDrawable(resources, resourceId);
+            case COLOR_STATE_LIST:
+                return ThemedGetters.COLOR_STATE_LIST != null && theme != null ? getThemed(ThemedGetters.COLOR_STATE_LIST)
+                        : (T) resources.getColorStateList(resourceId);
+            case SHARED_COLOR_STATE_LIST:
+                return (T) DefaultValues.get(resources).getColorStateList(resources, resourceId);
+            case TEXT_ARRAY:
+                return (T) resources.getTextArray(resourceId);
+            case STRING:
+                return (T) resources.getString(resourceId);
+            default:
+                throw new IllegalStateException("Unknown kind of lazy value: " + kind);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getThemed(@NonNull final Method getter) {
+        try {
+            return (T) getter.invoke(resources, resourceId, theme);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                // Such as a Resources.NotFoundException
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getInlineValue(@NonNull final TypedArray typedArray, final int index, final int kind) {
+        switch (kind) {
+            case DRAWABLE:
+            case SHARED_DRAWABLE:
+                return (T) typedArray.getDrawable(index);
+            case COLOR_STATE_LIST:
+            case SHARED_COLOR_STATE_LIST:
+                return (T) typedArray.getColorStateList(index);
+            case TEXT_ARRAY:
+                return (T) typedArray.getTextArray(index);
+            case STRING:
+                return (T) typedArray.getString(index);
+            default:
+                throw new IllegalStateException("Unknown kind of lazy value: " + kind);
+        }
+    }
+
+    /**
+     * The Resources getters taking a theme, which are looked up the first time a value is
+     * resolved. They are only on API 21 for Drawables and API 23 for ColorStateLists, which is
+     * when TypedArray started resolving them with its theme too, so older platforms resolve
+     * without the theme, as the TypedArray would.
+     */
+    private static final class ThemedGetters {
+
+        static final Method DRAWABLE = getMethod("getDrawable");
+        static final Method COLOR_STATE_LIST = getMethod("getColorStateList");
+
+        private ThemedGetters() {
+            // Private constructor to prevent initialization of this object.
+        }
+
+        private static Method getMethod(final String name) {
+            try {
+                return Resources.class.getMethod(name, int.class, Resources.Theme.class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
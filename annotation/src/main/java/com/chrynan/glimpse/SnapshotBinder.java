@@ -0,0 +1,40 @@
+package com.chrynan.glimpse;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+
+/**
+ * A {@link StyleableBinder} that can resolve the styleable attribute values into a snapshot, which
+ * can then be applied to any number of targets. The {@link Glimpse} runtime caches snapshots when
+ * {@link Glimpse#setSnapshotCacheSize(int)} is enabled. The generated binders implement this
+ * interface when the "glimpseSnapshots" processor option is true.
+ *
+ * @param <T> The type of the target class containing {@link Styleable} annotated fields.
+ * @param <S> The type of the generated snapshot class.
+ */
+public interface SnapshotBinder<T, S> extends StyleableBinder<T> {
+
+    /**
+     * Resolves the styleable attribute values into a new snapshot. The snapshot must not be
+     * modified once it is returned.
+     *
+     * @param context      The {@link Context} used to retrieve the styleable attributes.
+     * @param attributeSet The {@link AttributeSet} containing the attribute values.
+     * @param defStyle     This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyle parameter.
+     * @param defStyleRes  This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyleRes parameter.
+     * @return The snapshot or null if the values can't be shared between targets.
+     */
+    @Nullable
+    S createSnapshot(@NonNull Context context, AttributeSet attributeSet, int defStyle, int defStyleRes);
+
+    /**
+     * Sets the values of the provided snapshot to the target's fields.
+     *
+     * @param target   The target object whose class contains fields annotated with {@link Styleable}.
+     * @param context  The {@link Context} of the target, used to create new Drawable instances.
+     * @param snapshot A snapshot previously returned by {@link #createSnapshot(Context, AttributeSet, int, int)}.
+     */
+    void applySnapshot(@NonNull T target, @NonNull Context context, @NonNull S snapshot);
+}
@@ -0,0 +1,240 @@
+package com.chrynan.glimpse;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.support.annotation.NonNull;
+import android.util.AttributeSet;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of the snapshots created by {@link SnapshotBinder}
+ * implementations. Snapshots are keyed by the binder, the identity of the {@link Resources.Theme},
+ * the {@link Configuration} of the resources, the defStyle and defStyleRes parameters and a
+ * fingerprint of the {@link AttributeSet}, which is every attribute name resource id and value.
+ * Targets bound with equal keys get the same values, so repeated binds only copy the snapshot's
+ * fields. The configuration is part of the key since an Activity that handles configuration
+ * changes itself keeps its theme across orientation, density or night mode changes.
+ * <p>
+ * Look ups use a per thread probe key, so a cache hit doesn't allocate except for the
+ * {@link AttributeSet} values that aren't plain strings. Themes are weakly referenced.
+ */
+final class SnapshotCache {
+
+    /**
+     * Cached for binders whose values couldn't be shared, so the snapshot isn't recreated.
+     */
+    private static final Object NOT_SHAREABLE = new Object();
+
+    private static final ThreadLocal<SnapshotKey> PROBE_KEY = new ThreadLocal<SnapshotKey>() {
+        @Override
+        protected SnapshotKey initialValue() {
+            return new SnapshotKey();
+        }
+    };
+
+    private final Map<SnapshotKey, Object> snapshots;
+
+    SnapshotCache(final int maxSize) {
+        this.snapshots = new LruMap(maxSize);
+    }
+
+    /**
+     * Binds the target by applying a cached snapshot, creating and caching it first if needed.
+     */
+    void bind(@NonNull final SnapshotBinder<Object, Object> binder, @NonNull final Object target, @NonNull final Context context,
+              final AttributeSet attributeSet, final int defStyle, final int defStyleRes) {
+        final SnapshotKey probe = PROBE_KEY.get();
+        probe.set(binder, context.getTheme(), context.getResources().getConfiguration(), attributeSet, defStyle, defStyleRes);
+
+        Object snapshot;
+
+        // The probe is cleared even if creating the snapshot throws, so that the thread doesn't keep
+        // the theme and the attribute set alive
+        try {
+            synchronized (snapshots) {
+                snapshot = snapshots.get(probe);
+            }
+
+            if (snapshot == null) {
+                snapshot = binder.createSnapshot(context, attributeSet, defStyle, defStyleRes);
+
+                if (snapshot == null) {
+                    snapshot = NOT_SHAREABLE;
+                }
+
+                final SnapshotKey key = probe.copy();
+
+                synchronized (snapshots) {
+                    snapshots.put(key, snapshot);
+                }
+            }
+        } finally {
+            probe.clear();
+        }
+
+        if (snapshot == NOT_SHAREABLE) {
+            binder.bind(target, context, attributeSet, defStyle, defStyleRes);
+        } else {
+            binder.applySnapshot(target, context, snapshot);
+        }
+    }
+
+    void clear() {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * A map evicting its least recently accessed entry once it holds more than its maximum size.
+     */
+    private static final class LruMap extends LinkedHashMap<SnapshotKey, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruMap(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<SnapshotKey, Object> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    /**
+     * A snapshot cache key. Probe keys hold the theme, configuration and attribute set being looked
+     * up, while stored keys hold a weak reference to the theme, a copy of the configuration and a
+     * copy of the attribute set's values.
+     */
+    private static final class SnapshotKey {
+
+        private Object binder;
+        private Resources.Theme theme;
+        private WeakReference<Resources.Theme> themeReference;
+        private Configuration configuration;
+        private AttributeSet attributeSet;
+        private int[] attributeNames;
+        private String[] attributeValues;
+        private int attributeCount;
+        private int styleAttribute;
+        private int defStyle;
+        private int defStyleRes;
+        private int hash;
+
+        void set(final Object binder, final Resources.Theme theme, final Configuration configuration, final AttributeSet attributeSet,
+                 final int defStyle, final int defStyleRes) {
+            this.binder = binder;
+            this.theme = theme;
+            this.configuration = configuration;
+            this.attributeSet = attributeSet;
+            this.attributeCount = attributeSet != null ? attributeSet.getAttributeCount() : -1;
+            this.styleAttribute = attributeSet != null ? attributeSet.getStyleAttribute() : 0;
+            this.defStyle = defStyle;
+            this.defStyleRes = defStyleRes;
+
+            int h = System.identityHashCode(binder);
+            h = 31 * h + System.identityHashCode(theme);
+            h = 31 * h + (configuration != null ? configuration.hashCode() : 0);
+            h = 31 * h + defStyle;
+            h = 31 * h + defStyleRes;
+            h = 31 * h + attributeCount;
+            h = 31 * h + styleAttribute;
+
+            for (int i = 0; i < attributeCount; i++) {
+                final String value = attributeSet.getAttributeValue(i);
+                h = 31 * h + attributeSet.getAttributeNameResource(i);
+                h = 31 * h + (value != null ? value.hashCode() : 0);
+            }
+
+            this.hash = h;
+        }
+
+        SnapshotKey copy() {
+            final SnapshotKey key = new SnapshotKey();
+            key.binder = binder;
+            key.themeReference = new WeakReference<>(theme);
+            // The configuration of the resources is updated in place, so the stored key keeps a copy
+            key.configuration = configuration != null ? new Configuration(configuration) : null;
+            key.attributeCount = attributeCount;
+            key.styleAttribute = styleAttribute;
+            key.defStyle = defStyle;
+            key.defStyleRes = defStyleRes;
+            key.hash = hash;
+
+            if (attributeCount > 0) {
+                key.attributeNames = new int[attributeCount];
+                key.attributeValues = new String[attributeCount];
+
+                for (int i = 0; i < attributeCount; i++) {
+                    key.attributeNames[i] = attributeSet.getAttributeNameResource(i);
+                    key.attributeValues[i] = attributeSet.getAttributeValue(i);
+                }
+            }
+
+            return key;
+        }
+
+        void clear() {
+            binder = null;
+            theme = null;
+            configuration = null;
+            attributeSet = null;
+        }
+
+        private Resources.Theme getTheme() {
+            return themeReference != null ? themeReference.get() : theme;
+        }
+
+        private int getAttributeNameResource(final int index) {
+            return attributeSet != null ? attributeSet.getAttributeNameResource(index) : attributeNames[index];
+        }
+
+        private String getAttributeValue(final int index) {
+            return attributeSet != null ? attributeSet.getAttributeValue(index) : attributeValues[index];
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof SnapshotKey)) {
+                return false;
+            }
+
+            final SnapshotKey other = (SnapshotKey) o;
+            final Resources.Theme theme = getTheme();
+
+            if (hash != other.hash || binder != other.binder || theme == null || theme != other.getTheme() || defStyle != other.defStyle
+                    || defStyleRes != other.defStyleRes || attributeCount != other.attributeCount || styleAttribute != other.styleAttribute
+                    || (configuration != null ? !configuration.equals(other.configuration) : other.configuration != null)) {
+                return false;
+            }
+
+            for (int i = 0; i < attributeCount; i++) {
+                final String value = getAttributeValue(i);
+
+                if (getAttributeNameResource(i) != other.getAttributeNameResource(i)
+                        || (value != null ? !value.equals(other.getAttributeValue(i)) : other.getAttributeValue(i) != null)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
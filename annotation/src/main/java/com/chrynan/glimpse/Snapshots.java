@@ -0,0 +1,75 @@
+package com.chrynan.glimpse;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Utility methods used by the generated {@link SnapshotBinder} implementations to share snapshot
+ * values between targets. Values that are mutable are copied when a snapshot is applied.
+ */
+public final class Snapshots {
+
+    private Snapshots() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    /**
+     * Determines whether the provided {@link Drawable} can be stored in a snapshot, which requires
+     * it to have a {@link Drawable.ConstantState} to create new instances from.
+     *
+     * @param drawable The {@link Drawable} to check.
+     * @return True if the drawable is null or has a constant state, false otherwise.
+     */
+    public static boolean isShareable(@Nullable final Drawable drawable) {
+        return drawable == null || drawable.getConstantState() != null;
+    }
+
+    /**
+     * Creates a new {@link Drawable} instance, sharing the constant state of the provided one.
+     *
+     * @param drawable  The snapshot {@link Drawable}, which must be shareable.
+     * @param resources The {@link Resources} of the target.
+     * @return The new {@link Drawable} instance or null if the provided drawable is null.
+     */
+    @Nullable
+    public static Drawable copy(@Nullable final Drawable drawable, @NonNull final Resources resources) {
+        //noinspection ConstantConditions
+        return drawable != null ? drawable.getConstantState().newDrawable(resources) : null;
+    }
+
+    /**
+     * Creates a copy of the provided array so that targets can't modify the snapshot's array.
+     *
+     * @param array The snapshot array.
+     * @return The copy of the array or null if the provided array is null.
+     */
+    @Nullable
+    public static CharSequence[] copy(@Nullable final CharSequence[] array) {
+        return array != null ? array.clone() : null;
+    }
+
+    /**
+     * Determines whether the provided {@link LazyValue} can be stored in a snapshot, which requires
+     * it to be a reference to a resource, or else to have a value that can be copied.
+     *
+     * @param value The {@link LazyValue} to check.
+     * @return True if the value is null or can be copied, false otherwise.
+     */
+    public static boolean isShareable(@Nullable final LazyValue<?> value) {
+        return value == null || value.isShareable();
+    }
+
+    /**
+     * Creates a copy of the provided {@link LazyValue}, which resolves its resource again on first
+     * access, so that targets don't share a Drawable or an array.
+     *
+     * @param value The snapshot {@link LazyValue}, which must be shareable.
+     * @return The copy of the value or null if the provided value is null.
+     */
+    @Nullable
+    public static <T> LazyValue<T> copy(@Nullable final LazyValue<T> value) {
+        return value != null ? value.copy() : null;
+    }
+}
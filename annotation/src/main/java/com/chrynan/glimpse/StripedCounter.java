@@ -0,0 +1,69 @@
+package com.chrynan.glimpse;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of counters that are updated concurrently with low contention. Each thread updates one of
+ * several stripes, chosen by its thread id, and reads sum the stripes. Each stripe is padded to its
+ * own cache line so that threads on different stripes don't contend on the same line.
+ */
+final class StripedCounter {
+
+    private static final int MAX_STRIPES = 8;
+    private static final int PADDING = 8;
+
+    static final int STRIPE_COUNT = stripeCount();
+
+    private final AtomicLongArray cells;
+    private final int stripeLength;
+
+    /**
+     * Creates a {@link StripedCounter} holding the provided number of independent counters.
+     *
+     * @param counterCount The number of counters, indexed from zero.
+     */
+    StripedCounter(final int counterCount) {
+        this.stripeLength = ((counterCount + PADDING - 1) / PADDING) * PADDING + PADDING;
+        this.cells = new AtomicLongArray(STRIPE_COUNT * stripeLength);
+    }
+
+    void add(final int counter, final long value) {
+        cells.addAndGet(stripeOffset() + counter, value);
+    }
+
+    void increment(final int counter) {
+        cells.incrementAndGet(stripeOffset() + counter);
+    }
+
+    long sum(final int counter) {
+        long sum = 0;
+
+        for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+            sum += cells.get(stripe * stripeLength + counter);
+        }
+
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, 0);
+        }
+    }
+
+    private int stripeOffset() {
+        return ((int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)) * stripeLength;
+    }
+
+    private static int stripeCount() {
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+
+        int count = 1;
+
+        while (count < processors) {
+            count <<= 1;
+        }
+
+        return count;
+    }
+}
@@ -32,4 +32,29 @@ public @interface Styleable {
      */
     @AnyRes
     int defaultRes() default 0;
+
+    /**
+     * Whether the resolved resource is shared between bound instances. Only applies to
+     * {@link android.graphics.drawable.Drawable} and {@link android.content.res.ColorStateList}
+     * fields. A shared Drawable is created from a cached {@link
+     * android.graphics.drawable.Drawable.ConstantState} instead of being inflated for every
+     * instance, and a shared ColorStateList is the same instance for every bound object. Values are
+     * cached per resource id and configuration, so resources that reference theme attributes
+     * shouldn't be shared.
+     *
+     * @return True if the resolved resource is shared between instances.
+     */
+    boolean shared() default false;
+
+    /**
+     * Whether the resource is resolved on first access instead of while binding. Only applies to
+     * {@link android.graphics.drawable.Drawable}, {@link android.content.res.ColorStateList},
+     * CharSequence[] and String values, and the annotated field must be a {@link LazyValue} of one
+     * of those types. Binding only captures the id of the referenced resource, so that values that
+     * are rarely used don't slow down inflation. Drawables and ColorStateLists are resolved with the
+     * theme of the Context the target was bound with, as they would be without lazy.
+     *
+     * @return True if the resource is resolved on first access.
+     */
+    boolean lazy() default false;
 }
@@ -0,0 +1,35 @@
+package com.chrynan.glimpse;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.util.AttributeSet;
+
+/**
+ * An object that retrieves and sets the values of the {@link Styleable} annotated fields of a
+ * particular target class. Instances are provided to the {@link Glimpse} runtime by a generated
+ * {@link GlimpseIndex}.
+ *
+ * @param <T> The type of the target class containing {@link Styleable} annotated fields.
+ */
+public interface StyleableBinder<T> {
+
+    /**
+     * Obtains and sets the styleable attributes for the provided target.
+     *
+     * @param target       The target object whose class contains fields annotated with {@link Styleable}.
+     * @param context      The {@link Context} used to retrieve the styleable attributes.
+     * @param attributeSet The {@link AttributeSet} containing the attribute values.
+     */
+    void bind(@NonNull T target, @NonNull Context context, AttributeSet attributeSet);
+
+    /**
+     * Obtains and sets the styleable attributes for the provided target.
+     *
+     * @param target       The target object whose class contains fields annotated with {@link Styleable}.
+     * @param context      The {@link Context} used to retrieve the styleable attributes.
+     * @param attributeSet The {@link AttributeSet} containing the attribute values.
+     * @param defStyle     This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyle parameter.
+     * @param defStyleRes  This field corresponds to the {@link Context#obtainStyledAttributes(AttributeSet, int[], int, int)} defStyleRes parameter.
+     */
+    void bind(@NonNull T target, @NonNull Context context, AttributeSet attributeSet, int defStyle, int defStyleRes);
+}
@@ -0,0 +1,21 @@
+package com.chrynan.glimpse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to indicate that the annotated field holds a delegate object whose fields
+ * annotated with {@link Styleable} should be bound along with the containing class' fields. The
+ * binder of the containing class invokes the binder of the delegate's class, passing it the
+ * {@link android.content.res.TypedArray} it obtained when both are in the same package, so a view
+ * and its helper objects only need a single call to one of the {@link Glimpse} obtain methods. The
+ * delegate must be assigned before that call, otherwise its fields are skipped. The fields the
+ * delegate inherits are bound by the binders of its super classes. Delegate fields of the delegate
+ * itself are bound too, as long as they don't lead back to the containing class.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface StyleableDelegate {
+}
@@ -0,0 +1,26 @@
+package com.chrynan.glimpse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to indicate the value of an enum attribute that the annotated enum constant stands
+ * for, when binding enum typed fields annotated with {@link Styleable}. Constants without this
+ * annotation stand for the value of their ordinal. The generated binder maps the attribute's int
+ * value to the constant through a lookup table built at compile time, so binding doesn't call
+ * {@code values()}, which copies the constants on every call. Values without a constant, and
+ * attributes that aren't set, bind the default value or null.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface StyleableEnumValue {
+
+    /**
+     * The value of the enum attribute, as declared in the attrs resource.
+     *
+     * @return The attribute value of the annotated constant.
+     */
+    int value();
+}
@@ -0,0 +1,258 @@
+package com.chrynan.glimpse;
+
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.annotation.AnyRes;
+import android.support.annotation.NonNull;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+/**
+ * Helpers used by the generated binders to resolve {@link Styleable} int and float fields that
+ * don't declare the kind of value they hold, with {@link android.support.annotation.ColorInt} or
+ * {@link android.support.annotation.Dimension}. The type of the value is read from a
+ * {@link TypedValue}, reused per thread, instead of trying each getter until one doesn't throw.
+ * <p>
+ * Dimensions bound in dp or sp are converted from the complex value of the {@link TypedValue}
+ * directly to the unit of the field, which needs no conversion at all when the attribute is set in
+ * that unit. Enum fields are mapped from the int value of the attribute through a lookup table
+ * generated with the binder.
+ */
+public final class TypedValues {
+
+    private static final ThreadLocal<TypedValue> SCRATCH = new ThreadLocal<TypedValue>() {
+        @Override
+        protected TypedValue initialValue() {
+            return new TypedValue();
+        }
+    };
+
+    private TypedValues() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    /**
+     * Retrieves the attribute at the provided index as an int. Colors and integers are returned
+     * as is, dimensions are converted to a pixel offset and floating point values are truncated.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param defValue   The value returned if the attribute isn't defined.
+     * @param resources  The {@link Resources} used to convert dimensions.
+     * @return The int value of the attribute or defValue.
+     */
+    public static int getInt(@NonNull final TypedArray typedArray, final int index, final int defValue, @NonNull final Resources resources) {
+        final TypedValue value = SCRATCH.get();
+
+        if (!typedArray.getValue(index, value)) {
+            return defValue;
+        }
+
+        if (value.type == TypedValue.TYPE_STRING) {
+            // A reference to a complex color, which getColor resolves to its default color
+            return typedArray.getColor(index, defValue);
+        }
+
+        return toInt(value, defValue, resources);
+    }
+
+    /**
+     * Retrieves the attribute at the provided index as a float. Dimensions are converted to
+     * pixels, fractions are returned as is, with a base of one, and integers are widened.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param defValue   The value returned if the attribute isn't defined.
+     * @param resources  The {@link Resources} used to convert dimensions.
+     * @return The float value of the attribute or defValue.
+     */
+    public static float getFloat(@NonNull final TypedArray typedArray, final int index, final float defValue, @NonNull final Resources resources) {
+        final TypedValue value = SCRATCH.get();
+
+        if (!typedArray.getValue(index, value)) {
+            return defValue;
+        }
+
+        if (value.type == TypedValue.TYPE_STRING) {
+            return typedArray.getFloat(index, defValue);
+        }
+
+        return toFloat(value, defValue, resources);
+    }
+
+    /**
+     * Retrieves the dimension attribute at the provided index in density independent pixels.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param defValue   The value returned if the attribute isn't defined.
+     * @param metrics    The {@link DisplayMetrics} used to convert other units.
+     * @return The dimension in dp or defValue.
+     */
+    public static int getDimensionDp(@NonNull final TypedArray typedArray, final int index, final int defValue, @NonNull final DisplayMetrics metrics) {
+        return getDimension(typedArray, index, defValue, TypedValue.COMPLEX_UNIT_DIP, metrics);
+    }
+
+    /**
+     * Retrieves the dimension attribute at the provided index in scaled pixels.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param defValue   The value returned if the attribute isn't defined.
+     * @param metrics    The {@link DisplayMetrics} used to convert other units.
+     * @return The dimension in sp or defValue.
+     */
+    public static int getDimensionSp(@NonNull final TypedArray typedArray, final int index, final int defValue, @NonNull final DisplayMetrics metrics) {
+        return getDimension(typedArray, index, defValue, TypedValue.COMPLEX_UNIT_SP, metrics);
+    }
+
+    /**
+     * Retrieves the enum constant of the int attribute at the provided index. The value is read
+     * once and used as an index into the provided lookup table, without allocating.
+     *
+     * @param typedArray The {@link TypedArray} containing the attribute.
+     * @param index      The index of the attribute.
+     * @param values     The lookup table of the constants, indexed by their attribute value minus
+     *                   firstValue, with null for the values that have no constant.
+     * @param firstValue The attribute value of the first element of the lookup table.
+     * @param defValue   The value returned if the attribute isn't defined or has no constant.
+     * @return The enum constant of the attribute or defValue.
+     */
+    public static <E extends Enum<E>> E getEnum(@NonNull final TypedArray typedArray, final int index, @NonNull final E[] values,
+                                                final int firstValue, final E defValue) {
+        final TypedValue value = SCRATCH.get();
+
+        if (!typedArray.getValue(index, value) || value.type < TypedValue.TYPE_FIRST_INT || value.type > TypedValue.TYPE_LAST_INT) {
+            return defValue;
+        }
+
+        final E constant = getEnum(values, firstValue, value.data);
+
+        return constant != null ? constant : defValue;
+    }
+
+    /**
+     * Retrieves the enum constant of the provided attribute value from the provided lookup table,
+     * as described in {@link #getEnum(TypedArray, int, Enum[], int, Enum)}.
+     *
+     * @return The enum constant or null if the value has no constant.
+     */
+    public static <E extends Enum<E>> E getEnum(@NonNull final E[] values, final int firstValue, final int value) {
+        final int position = value - firstValue;
+
+        return position >= 0 && position < values.length ? values[position] : null;
+    }
+
+    /**
+     * Retrieves the dimension resource with the provided id in the provided complex unit, either
+     * {@link TypedValue#COMPLEX_UNIT_DIP} or {@link TypedValue#COMPLEX_UNIT_SP}.
+     */
+    static int getDimension(@NonNull final Resources resources, @AnyRes final int id, final int unit) {
+        final TypedValue value = SCRATCH.get();
+        final DisplayMetrics metrics = resources.getDisplayMetrics();
+
+        resources.getValue(id, value, true);
+
+        if (value.type == TypedValue.TYPE_DIMENSION) {
+            return (int) toUnit(value.data, unit, metrics);
+        }
+
+        return (int) (resources.getDimensionPixelOffset(id) / getUnitScale(unit, metrics));
+    }
+
+    private static int getDimension(@NonNull final TypedArray typedArray, final int index, final int defValue, final int unit,
+                                    @NonNull final DisplayMetrics metrics) {
+        final TypedValue value = SCRATCH.get();
+
+        if (!typedArray.getValue(index, value)) {
+            return defValue;
+        }
+
+        if (value.type == TypedValue.TYPE_DIMENSION) {
+            return (int) toUnit(value.data, unit, metrics);
+        }
+
+        return (int) (typedArray.getDimensionPixelOffset(index, 0) / getUnitScale(unit, metrics));
+    }
+
+    private static float toUnit(final int complex, final int unit, @NonNull final DisplayMetrics metrics) {
+        final int complexUnit = (complex >> TypedValue.COMPLEX_UNIT_SHIFT) & TypedValue.COMPLEX_UNIT_MASK;
+        final float dimension = TypedValue.complexToFloat(complex);
+
+        if (complexUnit == unit) {
+            return dimension;
+        }
+
+        return TypedValue.applyDimension(complexUnit, dimension, metrics) / getUnitScale(unit, metrics);
+    }
+
+    private static float getUnitScale(final int unit, @NonNull final DisplayMetrics metrics) {
+        return unit == TypedValue.COMPLEX_UNIT_SP ? metrics.scaledDensity : metrics.density;
+    }
+
+    /**
+     * Retrieves the resource with the provided id as an int, the same way as
+     * {@link #getInt(TypedArray, int, int, Resources)}.
+     */
+    static int getInt(@NonNull final Resources resources, @AnyRes final int id) {
+        final TypedValue value = SCRATCH.get();
+
+        resources.getValue(id, value, true);
+
+        if (value.type == TypedValue.TYPE_STRING) {
+            @SuppressWarnings("deprecation")
+            final int color = resources.getColor(id);
+
+            return color;
+        }
+
+        return toInt(value, 0, resources);
+    }
+
+    /**
+     * Retrieves the resource with the provided id as a float, the same way as
+     * {@link #getFloat(TypedArray, int, float, Resources)}.
+     */
+    static float getFloat(@NonNull final Resources resources, @AnyRes final int id) {
+        final TypedValue value = SCRATCH.get();
+
+        resources.getValue(id, value, true);
+
+        return toFloat(value, 0, resources);
+    }
+
+    private static int toInt(@NonNull final TypedValue value, final int defValue, @NonNull final Resources resources) {
+        switch (value.type) {
+            case TypedValue.TYPE_DIMENSION:
+                return TypedValue.complexToDimensionPixelOffset(value.data, resources.getDisplayMetrics());
+            case TypedValue.TYPE_FLOAT:
+                return (int) value.getFloat();
+            case TypedValue.TYPE_FRACTION:
+                return (int) TypedValue.complexToFraction(value.data, 1, 1);
+            default:
+                if (value.type >= TypedValue.TYPE_FIRST_INT && value.type <= TypedValue.TYPE_LAST_INT) {
+                    // Includes the color types
+                    return value.data;
+                }
+
+                return defValue;
+        }
+    }
+
+    private static float toFloat(@NonNull final TypedValue value, final float defValue, @NonNull final Resources resources) {
+        switch (value.type) {
+            case TypedValue.TYPE_DIMENSION:
+                return TypedValue.complexToDimension(value.data, resources.getDisplayMetrics());
+            case TypedValue.TYPE_FLOAT:
+                return value.getFloat();
+            case TypedValue.TYPE_FRACTION:
+                return TypedValue.complexToFraction(value.data, 1, 1);
+            default:
+                if (value.type >= TypedValue.TYPE_FIRST_INT && value.type <= TypedValue.TYPE_LAST_INT) {
+                    return value.data;
+                }
+
+                return defValue;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package android.content;
+
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+
+/**
+ * A stand-in for the Android class of the same name, so that Glimpse and the generated binders run
+ * on a plain JVM. Only the members they use are declared, with the same signatures as on Android.
+ */
+public abstract class Context {
+
+    public abstract Resources getResources();
+
+    public abstract Resources.Theme getTheme();
+
+    public final TypedArray obtainStyledAttributes(final AttributeSet set, final int[] attrs) {
+        return getTheme().obtainStyledAttributes(set, attrs, 0, 0);
+    }
+
+    public final TypedArray obtainStyledAttributes(final AttributeSet set, final int[] attrs, final int defStyleAttr, final int defStyleRes) {
+        return getTheme().obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
+    }
+}
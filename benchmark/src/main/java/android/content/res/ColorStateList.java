@@ -0,0 +1,25 @@
+package android.content.res;
+
+/**
+ * A stand-in for the Android class of the same name, holding a single color.
+ */
+public class ColorStateList {
+
+    private final int defaultColor;
+
+    private ColorStateList(final int defaultColor) {
+        this.defaultColor = defaultColor;
+    }
+
+    public static ColorStateList valueOf(final int color) {
+        return new ColorStateList(color);
+    }
+
+    public boolean isStateful() {
+        return false;
+    }
+
+    public int getDefaultColor() {
+        return defaultColor;
+    }
+}
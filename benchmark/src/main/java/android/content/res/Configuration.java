@@ -0,0 +1,52 @@
+package android.content.res;
+
+/**
+ * A stand-in for the Android class of the same name, with the fields of the configuration that
+ * affect resource values most often.
+ */
+public final class Configuration {
+
+    public float fontScale;
+    public int orientation;
+    public int screenWidthDp;
+    public int screenHeightDp;
+    public int densityDpi;
+
+    public Configuration() {
+        fontScale = 1.0f;
+    }
+
+    public Configuration(final Configuration o) {
+        setTo(o);
+    }
+
+    public void setTo(final Configuration o) {
+        fontScale = o.fontScale;
+        orientation = o.orientation;
+        screenWidthDp = o.screenWidthDp;
+        screenHeightDp = o.screenHeightDp;
+        densityDpi = o.densityDpi;
+    }
+
+    @Override
+    public boolean equals(final Object that) {
+        if (!(that instanceof Configuration)) {
+            return false;
+        }
+
+        final Configuration o = (Configuration) that;
+
+        return Float.compare(fontScale, o.fontScale) == 0 && orientation == o.orientation && screenWidthDp == o.screenWidthDp
+                && screenHeightDp == o.screenHeightDp && densityDpi == o.densityDpi;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(fontScale);
+        result = 31 * result + orientation;
+        result = 31 * result + screenWidthDp;
+        result = 31 * result + screenHeightDp;
+        result = 31 * result + densityDpi;
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package android.content.res;
+
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+/**
+ * A stand-in for the Android class of the same name. Resource values are resolved by
+ * {@link #getValue(int, TypedValue, boolean)}, which subclasses override to provide resources, and
+ * are converted by the typed getters as on Android. Recycled {@link TypedArray}s are pooled, as on
+ * Android, so that obtaining attributes doesn't allocate in the steady state.
+ */
+public class Resources {
+
+    private static final int TYPED_ARRAY_POOL_SIZE = 5;
+
+    private final DisplayMetrics metrics;
+    private final Configuration configuration;
+    private final TypedArray[] typedArrayPool = new TypedArray[TYPED_ARRAY_POOL_SIZE];
+    private int typedArrayPoolSize;
+
+    public Resources(final DisplayMetrics metrics, final Configuration configuration) {
+        this.metrics = metrics;
+        this.configuration = configuration;
+    }
+
+    public DisplayMetrics getDisplayMetrics() {
+        return metrics;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    public final Theme newTheme() {
+        return new Theme();
+    }
+
+    /**
+     * Resolves the value of the provided resource. There are no resources by default.
+     *
+     * @throws NotFoundException If the resource doesn't exist.
+     */
+    public void getValue(final int id, final TypedValue outValue, final boolean resolveRefs) throws NotFoundException {
+        throw new NotFoundException("Resource ID #0x" + Integer.toHexString(id));
+    }
+
+    public boolean getBoolean(final int id) throws NotFoundException {
+        return getIntValue(id) != 0;
+    }
+
+    public int getInteger(final int id) throws NotFoundException {
+        return getIntValue(id);
+    }
+
+    public int getColor(final int id) throws NotFoundException {
+        return getIntValue(id);
+    }
+
+    public float getDimension(final int id) throws NotFoundException {
+        return TypedValue.complexToDimension(getTypedValue(id, TypedValue.TYPE_DIMENSION).data, metrics);
+    }
+
+    public int getDimensionPixelOffset(final int id) throws NotFoundException {
+        return TypedValue.complexToDimensionPixelOffset(getTypedValue(id, TypedValue.TYPE_DIMENSION).data, metrics);
+    }
+
+    public int getDimensionPixelSize(final int id) throws NotFoundException {
+        return TypedValue.complexToDimensionPixelSize(getTypedValue(id, TypedValue.TYPE_DIMENSION).data, metrics);
+    }
+
+    public String getString(final int id) throws NotFoundException {
+        return getText(id).toString();
+    }
+
+    public CharSequence getText(final int id) throws NotFoundException {
+        return getTypedValue(id, TypedValue.TYPE_STRING).string;
+    }
+
+    public CharSequence[] getTextArray(final int id) throws NotFoundException {
+        throw new NotFoundException("Array resource ID #0x" + Integer.toHexString(id));
+    }
+
+    public ColorStateList getColorStateList(final int id) throws NotFoundException {
+        return ColorStateList.valueOf(getColor(id));
+    }
+
+    public ColorStateList getColorStateList(final int id, final Theme theme) throws NotFoundException {
+        return getColorStateList(id);
+    }
+
+    public Drawable getDrawable(final int id) throws NotFoundException {
+        throw new NotFoundException("Drawable resource ID #0x" + Integer.toHexString(id));
+    }
+
+    public Drawable getDrawable(final int id, final Theme theme) throws NotFoundException {
+        return getDrawable(id);
+    }
+
+    private int getIntValue(final int id) {
+        final TypedValue value = new TypedValue();
+        getValue(id, value, true);
+
+        if (value.type < TypedValue.TYPE_FIRST_INT || value.type > TypedValue.TYPE_LAST_INT) {
+            throw new NotFoundException("Resource ID #0x" + Integer.toHexString(id) + " type #0x" + Integer.toHexString(value.type) + " is not valid");
+        }
+
+        return value.data;
+    }
+
+    private TypedValue getTypedValue(final int id, final int type) {
+        final TypedValue value = new TypedValue();
+        getValue(id, value, true);
+
+        if (value.type != type) {
+            throw new NotFoundException("Resource ID #0x" + Integer.toHexString(id) + " type #0x" + Integer.toHexString(value.type) + " is not valid");
+        }
+
+        return value;
+    }
+
+    synchronized TypedArray acquireTypedArray() {
+        if (typedArrayPoolSize == 0) {
+            return null;
+        }
+
+        final TypedArray typedArray = typedArrayPool[--typedArrayPoolSize];
+        typedArrayPool[typedArrayPoolSize] = null;
+
+        return typedArray;
+    }
+
+    synchronized void releaseTypedArray(final TypedArray typedArray) {
+        if (typedArrayPoolSize < TYPED_ARRAY_POOL_SIZE) {
+            typedArrayPool[typedArrayPoolSize++] = typedArray;
+        }
+    }
+
+    /**
+     * A stand-in for the Android theme. The attributes of the {@link AttributeSet} are resolved by
+     * {@link #obtainStyledAttributes(AttributeSet, int[], int, int)}, which subclasses override,
+     * there being no attribute values by default.
+     */
+    public class Theme {
+
+        public TypedArray obtainStyledAttributes(final AttributeSet set, final int[] attrs, final int defStyleAttr, final int defStyleRes) {
+            return TypedArray.obtain(Resources.this, attrs.length);
+        }
+
+        public Resources getResources() {
+            return Resources.this;
+        }
+    }
+
+    public static class NotFoundException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public NotFoundException() {
+        }
+
+        public NotFoundException(final String name) {
+            super(name);
+        }
+    }
+}
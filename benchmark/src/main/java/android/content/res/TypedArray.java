@@ -0,0 +1,299 @@
+package android.content.res;
+
+import android.graphics.drawable.Drawable;
+import android.util.TypedValue;
+
+import java.util.Arrays;
+
+/**
+ * A stand-in for the Android class of the same name. As on Android, the values are kept in a flat
+ * int array and strings array, instances are pooled by their {@link Resources} and the getters
+ * coerce the values as on Android. The values are provided by a theme through
+ * {@link #setValue(int, TypedValue)}, which stands for the native code filling the arrays.
+ */
+public class TypedArray {
+
+    private static final int STYLE_NUM_ENTRIES = 3;
+    private static final int STYLE_TYPE = 0;
+    private static final int STYLE_DATA = 1;
+    private static final int STYLE_RESOURCE_ID = 2;
+
+    private final Resources resources;
+    private int[] data;
+    private CharSequence[] strings;
+    private int[] indices;
+    private int length;
+    private int indexCount;
+    private boolean recycled;
+
+    private TypedArray(final Resources resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * Retrieves a pooled instance, or a new one, with the provided number of attributes and no
+     * values.
+     */
+    public static TypedArray obtain(final Resources res, final int len) {
+        TypedArray attrs = res.acquireTypedArray();
+
+        if (attrs == null) {
+            attrs = new TypedArray(res);
+        }
+
+        attrs.recycled = false;
+        attrs.length = len;
+        attrs.indexCount = 0;
+
+        final int fullLen = len * STYLE_NUM_ENTRIES;
+
+        if (attrs.data == null || attrs.data.length < fullLen) {
+            attrs.data = new int[fullLen];
+            attrs.strings = new CharSequence[len];
+            attrs.indices = new int[len];
+        } else {
+            Arrays.fill(attrs.data, 0, fullLen, 0);
+            Arrays.fill(attrs.strings, 0, len, null);
+        }
+
+        return attrs;
+    }
+
+    /**
+     * Sets the value at the provided index. This method doesn't exist on Android, where the values
+     * are filled by native code.
+     */
+    public void setValue(final int index, final TypedValue value) {
+        final int offset = index * STYLE_NUM_ENTRIES;
+
+        if (data[offset + STYLE_TYPE] == TypedValue.TYPE_NULL && value.type != TypedValue.TYPE_NULL) {
+            indices[indexCount++] = index;
+        }
+
+        data[offset + STYLE_TYPE] = value.type;
+        data[offset + STYLE_DATA] = value.data;
+        data[offset + STYLE_RESOURCE_ID] = value.resourceId;
+        strings[index] = value.string;
+    }
+
+    public int length() {
+        checkRecycled();
+        return length;
+    }
+
+    public int getIndexCount() {
+        checkRecycled();
+        return indexCount;
+    }
+
+    public int getIndex(final int at) {
+        checkRecycled();
+        return indices[at];
+    }
+
+    public Resources getResources() {
+        checkRecycled();
+        return resources;
+    }
+
+    public boolean hasValue(final int index) {
+        return getType(index) != TypedValue.TYPE_NULL;
+    }
+
+    public boolean getValue(final int index, final TypedValue outValue) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_NULL) {
+            return false;
+        }
+
+        final int offset = index * STYLE_NUM_ENTRIES;
+
+        outValue.type = type;
+        outValue.data = data[offset + STYLE_DATA];
+        outValue.resourceId = data[offset + STYLE_RESOURCE_ID];
+        outValue.string = strings[index];
+        outValue.assetCookie = 0;
+        outValue.changingConfigurations = 0;
+        outValue.density = 0;
+
+        return true;
+    }
+
+    public TypedValue peekValue(final int index) {
+        final TypedValue value = new TypedValue();
+        return getValue(index, value) ? value : null;
+    }
+
+    public boolean getBoolean(final int index, final boolean defValue) {
+        final int type = getType(index);
+
+        if (type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT) {
+            return getData(index) != 0;
+        } else if (type == TypedValue.TYPE_STRING) {
+            return "true".equals(strings[index].toString());
+        }
+
+        return defValue;
+    }
+
+    public int getInt(final int index, final int defValue) {
+        final int type = getType(index);
+
+        if (type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT) {
+            return getData(index);
+        } else if (type == TypedValue.TYPE_STRING) {
+            return Integer.parseInt(strings[index].toString());
+        }
+
+        return defValue;
+    }
+
+    public int getInteger(final int index, final int defValue) {
+        final int type = getType(index);
+
+        if (type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT) {
+            return getData(index);
+        } else if (type == TypedValue.TYPE_NULL) {
+            return defValue;
+        }
+
+        throw new UnsupportedOperationException("Can't convert to integer: type=0x" + Integer.toHexString(type));
+    }
+
+    public float getFloat(final int index, final float defValue) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_FLOAT) {
+            return Float.intBitsToFloat(getData(index));
+        } else if (type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT) {
+            return getData(index);
+        } else if (type == TypedValue.TYPE_STRING) {
+            return Float.parseFloat(strings[index].toString());
+        }
+
+        return defValue;
+    }
+
+    public int getColor(final int index, final int defValue) {
+        final int type = getType(index);
+
+        if (type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT) {
+            return getData(index);
+        } else if (type == TypedValue.TYPE_NULL) {
+            return defValue;
+        }
+
+        throw new UnsupportedOperationException("Can't convert to color: type=0x" + Integer.toHexString(type));
+    }
+
+    public ColorStateList getColorStateList(final int index) {
+        final int type = getType(index);
+
+        return type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT ? ColorStateList.valueOf(getData(index)) : null;
+    }
+
+    public float getDimension(final int index, final float defValue) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_DIMENSION) {
+            return TypedValue.complexToDimension(getData(index), resources.getDisplayMetrics());
+        } else if (type == TypedValue.TYPE_NULL) {
+            return defValue;
+        }
+
+        throw new UnsupportedOperationException("Can't convert to dimension: type=0x" + Integer.toHexString(type));
+    }
+
+    public int getDimensionPixelOffset(final int index, final int defValue) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_DIMENSION) {
+            return TypedValue.complexToDimensionPixelOffset(getData(index), resources.getDisplayMetrics());
+        } else if (type == TypedValue.TYPE_NULL) {
+            return defValue;
+        }
+
+        throw new UnsupportedOperationException("Can't convert to dimension: type=0x" + Integer.toHexString(type));
+    }
+
+    public int getDimensionPixelSize(final int index, final int defValue) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_DIMENSION) {
+            return TypedValue.complexToDimensionPixelSize(getData(index), resources.getDisplayMetrics());
+        } else if (type == TypedValue.TYPE_NULL) {
+            return defValue;
+        }
+
+        throw new UnsupportedOperationException("Can't convert to dimension: type=0x" + Integer.toHexString(type));
+    }
+
+    public CharSequence getText(final int index) {
+        final int type = getType(index);
+
+        if (type == TypedValue.TYPE_NULL) {
+            return null;
+        } else if (type == TypedValue.TYPE_STRING) {
+            return strings[index];
+        }
+
+        final TypedValue value = new TypedValue();
+        getValue(index, value);
+
+        return value.coerceToString();
+    }
+
+    public String getString(final int index) {
+        final CharSequence text = getText(index);
+        return text != null ? text.toString() : null;
+    }
+
+    public CharSequence[] getTextArray(final int index) {
+        final int resourceId = getResourceId(index, 0);
+        return resourceId != 0 ? resources.getTextArray(resourceId) : null;
+    }
+
+    public int getResourceId(final int index, final int defValue) {
+        checkRecycled();
+
+        final int offset = index * STYLE_NUM_ENTRIES;
+
+        if (data[offset + STYLE_TYPE] != TypedValue.TYPE_NULL) {
+            final int resourceId = data[offset + STYLE_RESOURCE_ID];
+
+            if (resourceId != 0) {
+                return resourceId;
+            }
+        }
+
+        return defValue;
+    }
+
+    public Drawable getDrawable(final int index) {
+        final int resourceId = getResourceId(index, 0);
+        return resourceId != 0 ? resources.getDrawable(resourceId) : null;
+    }
+
+    public void recycle() {
+        checkRecycled();
+
+        recycled = true;
+        resources.releaseTypedArray(this);
+    }
+
+    private int getType(final int index) {
+        checkRecycled();
+        return data[index * STYLE_NUM_ENTRIES + STYLE_TYPE];
+    }
+
+    private int getData(final int index) {
+        return data[index * STYLE_NUM_ENTRIES + STYLE_DATA];
+    }
+
+    private void checkRecycled() {
+        if (recycled) {
+            throw new RuntimeException("Cannot make calls to a recycled instance!");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package android.graphics.drawable;
+
+import android.content.res.Resources;
+
+/**
+ * A stand-in for the Android class of the same name. Only the members used by Glimpse are
+ * declared, with the same signatures as on Android.
+ */
+public abstract class Drawable {
+
+    public ConstantState getConstantState() {
+        return null;
+    }
+
+    public abstract static class ConstantState {
+
+        public abstract Drawable newDrawable();
+
+        public Drawable newDrawable(final Resources res) {
+            return newDrawable();
+        }
+
+        public Drawable newDrawable(final Resources res, final Resources.Theme theme) {
+            return newDrawable(res);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package android.util;
+
+/**
+ * A stand-in for the Android interface of the same name. Only the members used by Glimpse are
+ * declared, with the same signatures as on Android.
+ */
+public interface AttributeSet {
+
+    int getAttributeCount();
+
+    String getAttributeName(int index);
+
+    String getAttributeValue(int index);
+
+    int getAttributeNameResource(int index);
+
+    int getStyleAttribute();
+}
@@ -0,0 +1,31 @@
+package android.util;
+
+/**
+ * A stand-in for the Android class of the same name, defaulting to a medium density display.
+ */
+public class DisplayMetrics {
+
+    public static final int DENSITY_DEFAULT = 160;
+
+    public int widthPixels;
+    public int heightPixels;
+    public float density;
+    public int densityDpi;
+    public float scaledDensity;
+    public float xdpi;
+    public float ydpi;
+
+    public DisplayMetrics() {
+        setToDefaults();
+    }
+
+    public void setToDefaults() {
+        widthPixels = 0;
+        heightPixels = 0;
+        density = 1.0f;
+        densityDpi = DENSITY_DEFAULT;
+        scaledDensity = density;
+        xdpi = DENSITY_DEFAULT;
+        ydpi = DENSITY_DEFAULT;
+    }
+}
@@ -0,0 +1,26 @@
+package android.util;
+
+/**
+ * A stand-in for the Android class of the same name, printing to the standard output streams.
+ */
+public final class Log {
+
+    private Log() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    public static int d(final String tag, final String msg) {
+        System.out.println("D/" + tag + ": " + msg);
+        return 0;
+    }
+
+    public static int w(final String tag, final String msg) {
+        System.err.println("W/" + tag + ": " + msg);
+        return 0;
+    }
+
+    public static int e(final String tag, final String msg) {
+        System.err.println("E/" + tag + ": " + msg);
+        return 0;
+    }
+}
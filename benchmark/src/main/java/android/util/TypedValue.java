@@ -0,0 +1,148 @@
+package android.util;
+
+/**
+ * A stand-in for the Android class of the same name, with the same constants and complex value
+ * conversions, so that typed values are decoded as on Android.
+ */
+public class TypedValue {
+
+    public static final int TYPE_NULL = 0x00;
+    public static final int TYPE_REFERENCE = 0x01;
+    public static final int TYPE_ATTRIBUTE = 0x02;
+    public static final int TYPE_STRING = 0x03;
+    public static final int TYPE_FLOAT = 0x04;
+    public static final int TYPE_DIMENSION = 0x05;
+    public static final int TYPE_FRACTION = 0x06;
+    public static final int TYPE_FIRST_INT = 0x10;
+    public static final int TYPE_INT_DEC = 0x10;
+    public static final int TYPE_INT_HEX = 0x11;
+    public static final int TYPE_INT_BOOLEAN = 0x12;
+    public static final int TYPE_FIRST_COLOR_INT = 0x1c;
+    public static final int TYPE_INT_COLOR_ARGB8 = 0x1c;
+    public static final int TYPE_INT_COLOR_RGB8 = 0x1d;
+    public static final int TYPE_INT_COLOR_ARGB4 = 0x1e;
+    public static final int TYPE_INT_COLOR_RGB4 = 0x1f;
+    public static final int TYPE_LAST_COLOR_INT = 0x1f;
+    public static final int TYPE_LAST_INT = 0x1f;
+
+    public static final int COMPLEX_UNIT_SHIFT = 0;
+    public static final int COMPLEX_UNIT_MASK = 0xf;
+    public static final int COMPLEX_UNIT_PX = 0;
+    public static final int COMPLEX_UNIT_DIP = 1;
+    public static final int COMPLEX_UNIT_SP = 2;
+    public static final int COMPLEX_UNIT_PT = 3;
+    public static final int COMPLEX_UNIT_IN = 4;
+    public static final int COMPLEX_UNIT_MM = 5;
+    public static final int COMPLEX_UNIT_FRACTION = 0;
+    public static final int COMPLEX_UNIT_FRACTION_PARENT = 1;
+    public static final int COMPLEX_RADIX_SHIFT = 4;
+    public static final int COMPLEX_RADIX_MASK = 0x3;
+    public static final int COMPLEX_MANTISSA_SHIFT = 8;
+    public static final int COMPLEX_MANTISSA_MASK = 0xffffff;
+
+    private static final float MANTISSA_MULT = 1.0f / (1 << COMPLEX_MANTISSA_SHIFT);
+    private static final float[] RADIX_MULTS = {
+            1.0f * MANTISSA_MULT, 1.0f / (1 << 7) * MANTISSA_MULT, 1.0f / (1 << 15) * MANTISSA_MULT, 1.0f / (1 << 23) * MANTISSA_MULT
+    };
+
+    public int type;
+    public CharSequence string;
+    public int data;
+    public int assetCookie;
+    public int resourceId;
+    public int changingConfigurations;
+    public int density;
+
+    public final float getFloat() {
+        return Float.intBitsToFloat(data);
+    }
+
+    public static float complexToFloat(final int complex) {
+        return (complex & (COMPLEX_MANTISSA_MASK << COMPLEX_MANTISSA_SHIFT)) * RADIX_MULTS[(complex >> COMPLEX_RADIX_SHIFT) & COMPLEX_RADIX_MASK];
+    }
+
+    public static float complexToDimension(final int data, final DisplayMetrics metrics) {
+        return applyDimension((data >> COMPLEX_UNIT_SHIFT) & COMPLEX_UNIT_MASK, complexToFloat(data), metrics);
+    }
+
+    public static int complexToDimensionPixelOffset(final int data, final DisplayMetrics metrics) {
+        return (int) complexToDimension(data, metrics);
+    }
+
+    public static int complexToDimensionPixelSize(final int data, final DisplayMetrics metrics) {
+        final float value = complexToFloat(data);
+        final float f = applyDimension((data >> COMPLEX_UNIT_SHIFT) & COMPLEX_UNIT_MASK, value, metrics);
+        final int res = (int) (f + 0.5f);
+
+        if (res != 0) {
+            return res;
+        }
+
+        if (value == 0) {
+            return 0;
+        }
+
+        return value > 0 ? 1 : -1;
+    }
+
+    public static float complexToFraction(final int data, final float base, final float pbase) {
+        switch ((data >> COMPLEX_UNIT_SHIFT) & COMPLEX_UNIT_MASK) {
+            case COMPLEX_UNIT_FRACTION:
+                return complexToFloat(data) * base;
+            case COMPLEX_UNIT_FRACTION_PARENT:
+                return complexToFloat(data) * pbase;
+            default:
+                return 0;
+        }
+    }
+
+    public static float applyDimension(final int unit, final float value, final DisplayMetrics metrics) {
+        switch (unit) {
+            case COMPLEX_UNIT_PX:
+                return value;
+            case COMPLEX_UNIT_DIP:
+                return value * metrics.density;
+            case COMPLEX_UNIT_SP:
+                return value * metrics.scaledDensity;
+            case COMPLEX_UNIT_PT:
+                return value * metrics.xdpi * (1.0f / 72);
+            case COMPLEX_UNIT_IN:
+                return value * metrics.xdpi;
+            case COMPLEX_UNIT_MM:
+                return value * metrics.xdpi * (1.0f / 25.4f);
+            default:
+                return 0;
+        }
+    }
+
+    public void setTo(final TypedValue other) {
+        type = other.type;
+        string = other.string;
+        data = other.data;
+        assetCookie = other.assetCookie;
+        resourceId = other.resourceId;
+        changingConfigurations = other.changingConfigurations;
+        density = other.density;
+    }
+
+    /**
+     * Retrieves the value coerced to a string, or null for a value that isn't a primitive.
+     */
+    public final CharSequence coerceToString() {
+        if (type == TYPE_STRING) {
+            return string;
+        } else if (type == TYPE_FLOAT) {
+            return Float.toString(getFloat());
+        } else if (type == TYPE_INT_BOOLEAN) {
+            return data != 0 ? "true" : "false";
+        } else if (type >= TYPE_FIRST_COLOR_INT && type <= TYPE_LAST_COLOR_INT) {
+            return "#" + Integer.toHexString(data);
+        } else if (type == TYPE_INT_HEX) {
+            return "0x" + Integer.toHexString(data);
+        } else if (type >= TYPE_FIRST_INT && type <= TYPE_LAST_INT) {
+            return Integer.toString(data);
+        }
+
+        return null;
+    }
+}
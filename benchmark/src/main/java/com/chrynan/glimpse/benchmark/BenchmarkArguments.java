@@ -0,0 +1,71 @@
+package com.chrynan.glimpse.benchmark;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The command line arguments of a benchmark, which are "name=value" pairs, any "-Aname=value"
+ * argument being an option of the annotation processor.
+ */
+final class BenchmarkArguments {
+
+    private final Map<String, String> arguments = new LinkedHashMap<>();
+    private final Map<String, String> processorOptions = new LinkedHashMap<>();
+
+    BenchmarkArguments(final String[] args) {
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+
+            if (separator == -1) {
+                throw new IllegalArgumentException("Arguments must be name=value pairs. Argument = " + arg);
+            }
+
+            if (arg.startsWith("-A")) {
+                processorOptions.put(arg.substring(2, separator), arg.substring(separator + 1));
+            } else {
+                arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    Map<String, String> getProcessorOptions() {
+        return Collections.unmodifiableMap(processorOptions);
+    }
+
+    /**
+     * Retrieves the value of the provided argument.
+     *
+     * @return The value or null if the argument wasn't provided.
+     */
+    String get(final String name) {
+        return arguments.get(name);
+    }
+
+    boolean getBoolean(final String name, final boolean defaultValue) {
+        return arguments.containsKey(name) ? Boolean.parseBoolean(arguments.get(name)) : defaultValue;
+    }
+
+    int getInt(final String name, final int defaultValue) {
+        return arguments.containsKey(name) ? getIntList(name, null)[0] : defaultValue;
+    }
+
+    /**
+     * Retrieves the integers, separated by commas, of the provided argument.
+     */
+    int[] getIntList(final String name, final String defaultValue) {
+        final String value = arguments.containsKey(name) ? arguments.get(name) : defaultValue;
+        final String[] items = value.split(",");
+        final int[] values = new int[items.length];
+
+        try {
+            for (int i = 0; i < items.length; i++) {
+                values[i] = Integer.parseInt(items[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The argument " + name + " must be a list of integers. Value = " + value);
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.util.AttributeSet;
+
+/**
+ * The views bound by the runtime benchmarks, with an {@link AttributeSet} setting every one of
+ * their attributes.
+ */
+enum BenchmarkView {
+
+    ONE_FIELD(OneFieldView.class, R.styleable.OneFieldView),
+    TEN_FIELDS(TenFieldView.class, R.styleable.TenFieldView),
+    FIFTY_FIELDS(FiftyFieldView.class, R.styleable.FiftyFieldView);
+
+    private final Class<?> viewClass;
+    private final int[] attributes;
+
+    BenchmarkView(final Class<?> viewClass, final int[] attributes) {
+        this.viewClass = viewClass;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Retrieves the view with the provided number of fields.
+     *
+     * @throws IllegalArgumentException If there is no such view.
+     */
+    static BenchmarkView withFieldCount(final int fieldCount) {
+        for (final BenchmarkView view : values()) {
+            if (view.attributes.length == fieldCount) {
+                return view;
+            }
+        }
+
+        throw new IllegalArgumentException("There is no benchmark view with " + fieldCount + " fields.");
+    }
+
+    Class<?> getViewClass() {
+        return viewClass;
+    }
+
+    int getFieldCount() {
+        return attributes.length;
+    }
+
+    Object newView() {
+        try {
+            return viewClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Error creating the view " + viewClass.getName(), e);
+        }
+    }
+
+    /**
+     * Creates an {@link AttributeSet} with a value for every attribute, of the type of the field
+     * bound to it.
+     */
+    AttributeSet createAttributeSet() {
+        return createAttributeSet(attributes);
+    }
+
+    /**
+     * Creates an {@link AttributeSet} with a value for every one of the provided attributes, the
+     * field bound to an attribute having the type {@link SyntheticCorpus#getFieldType(int)} of its
+     * index.
+     */
+    static AttributeSet createAttributeSet(final int[] attributes) {
+        final String[] values = new String[attributes.length];
+
+        for (int i = 0; i < attributes.length; i++) {
+            switch (SyntheticCorpus.getFieldType(i)) {
+                case "boolean":
+                    values[i] = "true";
+                    break;
+                case "int":
+                    values[i] = Integer.toString(i);
+                    break;
+                case "float":
+                    values[i] = i + ".5";
+                    break;
+                default:
+                    values[i] = "Text " + i;
+                    break;
+            }
+        }
+
+        return new FakeAttributeSet(attributes, values);
+    }
+}
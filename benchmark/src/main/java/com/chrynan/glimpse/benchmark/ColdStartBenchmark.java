@@ -0,0 +1,150 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the first {@link com.chrynan.glimpse.Glimpse#obtain(Object, Context, AttributeSet)} of
+ * every class of a synthetic module, which pays for loading the generated binder, initializing it
+ * and looking it up, unlike the steady state measured by {@link ObtainBenchmark}. Every iteration
+ * loads the Glimpse runtime and the module in a fresh {@link IsolatedClassLoader} and binds one
+ * instance of every view once, so every bind is a first bind. The latencies of all of the measured
+ * iterations are reported as a distribution:
+ * <ul>
+ * <li>direct: The views declaring the bound fields, whose binder is found by the first look up.</li>
+ * <li>inherited: Subclasses without fields of the views, whose look up fails before finding the
+ * binder of the superclass.</li>
+ * </ul>
+ * The first bind of every iteration also initializes the Glimpse runtime, and is reported apart.
+ * The views are created before the measurements, since their classes are loaded by their
+ * constructors on Android, and Glimpse is invoked with reflection, which adds a constant overhead.
+ * <p>
+ * Arguments are "name=value" pairs, any "-Aname=value" argument being passed to the processor:
+ * <ul>
+ * <li>views: The number of views (default 300).</li>
+ * <li>fields: The number of fields per view (default 5).</li>
+ * <li>warmup: The number of unmeasured iterations (default 3).</li>
+ * <li>iterations: The number of measured iterations (default 20).</li>
+ * <li>index: Whether the module has a generated index, registered before binding (default
+ * false).</li>
+ * </ul>
+ */
+public final class ColdStartBenchmark {
+
+    private static final String GLIMPSE_CLASS_NAME = "com.chrynan.glimpse.Glimpse";
+    private static final String GLIMPSE_INDEX_CLASS_NAME = "com.chrynan.glimpse.GlimpseIndex";
+    private static final String INDEX_OPTION = "glimpseIndex";
+    private static final String INDEX_CLASS_NAME = SyntheticCorpus.PACKAGE_NAME + ".BenchmarkIndex";
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private ColdStartBenchmark() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    public static void main(final String[] args) throws ReflectiveOperationException {
+        final BenchmarkArguments arguments = new BenchmarkArguments(args);
+        final int viewCount = arguments.getInt("views", 300);
+        final int fieldCount = arguments.getInt("fields", 5);
+        final int warmup = arguments.getInt("warmup", 3);
+        final int iterations = arguments.getInt("iterations", 20);
+        final boolean index = arguments.getBoolean("index", false);
+
+        final Map<String, String> options = new LinkedHashMap<>(arguments.getProcessorOptions());
+
+        if (index) {
+            options.put(INDEX_OPTION, INDEX_CLASS_NAME);
+        }
+
+        final SyntheticCorpus corpus = new SyntheticCorpus(viewCount, fieldCount, true);
+        final Map<String, byte[]> classFiles = new InMemoryCompiler().compile(options, false, corpus.getSources()).getClassFiles();
+
+        final Context context = new FakeContext();
+        final AttributeSet[] attributeSets = new AttributeSet[viewCount];
+
+        for (int view = 0; view < viewCount; view++) {
+            attributeSets[view] = BenchmarkView.createAttributeSet(corpus.getAttributeIds(view));
+        }
+
+        System.out.println(String.format(Locale.US, "Glimpse cold start benchmark: %d views, %d fields, %d iterations (%d warmup), index %s",
+                viewCount, fieldCount, iterations, warmup, index));
+        System.out.println(String.format(Locale.US, "%-10s %7s %9s %9s %9s %9s %9s %15s",
+                "mode", "binds", "mean us", "p50 us", "p90 us", "p99 us", "max us", "first bind us"));
+
+        for (final boolean inherited : new boolean[]{false, true}) {
+            final long[] nanos = new long[iterations * viewCount];
+            final long[] firstBindNanos = new long[iterations];
+
+            for (int iteration = 0; iteration < warmup + iterations; iteration++) {
+                final long[] iterationNanos = bindAll(classFiles, index, inherited, context, attributeSets);
+
+                if (iteration >= warmup) {
+                    System.arraycopy(iterationNanos, 0, nanos, (iteration - warmup) * viewCount, viewCount);
+                    firstBindNanos[iteration - warmup] = iterationNanos[0];
+                }
+            }
+
+            Arrays.sort(nanos);
+            Arrays.sort(firstBindNanos);
+
+            long total = 0;
+
+            for (final long value : nanos) {
+                total += value;
+            }
+
+            System.out.println(String.format(Locale.US, "%-10s %7d %9.1f %9.1f %9.1f %9.1f %9.1f %15.1f",
+                    inherited ? "inherited" : "direct", nanos.length, total / (double) nanos.length / NANOS_PER_MICRO,
+                    getPercentile(nanos, 0.5), getPercentile(nanos, 0.9), getPercentile(nanos, 0.99), nanos[nanos.length - 1] / NANOS_PER_MICRO,
+                    getPercentile(firstBindNanos, 0.5)));
+        }
+    }
+
+    /**
+     * Binds one instance of every view in a fresh class loader.
+     *
+     * @return The latency of every bind, in the order of the views.
+     */
+    private static long[] bindAll(final Map<String, byte[]> classFiles, final boolean index, final boolean inherited, final Context context,
+                                  final AttributeSet[] attributeSets) throws ReflectiveOperationException {
+        final ClassLoader classLoader = new IsolatedClassLoader(classFiles);
+        final Object[] views = new Object[attributeSets.length];
+
+        for (int view = 0; view < views.length; view++) {
+            final String className = inherited ? SyntheticCorpus.getSubclassClassName(view) : SyntheticCorpus.getViewClassName(view);
+            views[view] = classLoader.loadClass(className).newInstance();
+        }
+
+        final Class<?> glimpse = classLoader.loadClass(GLIMPSE_CLASS_NAME);
+        final Method obtain = glimpse.getMethod("obtain", Object.class, Context.class, AttributeSet.class);
+
+        if (index) {
+            glimpse.getMethod("addIndex", classLoader.loadClass(GLIMPSE_INDEX_CLASS_NAME))
+                    .invoke(null, classLoader.loadClass(INDEX_CLASS_NAME).newInstance());
+        }
+
+        final long[] nanos = new long[views.length];
+
+        try {
+            for (int view = 0; view < views.length; view++) {
+                final long start = System.nanoTime();
+                obtain.invoke(null, views[view], context, attributeSets[view]);
+                nanos[view] = System.nanoTime() - start;
+            }
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Error binding a view.", e.getCause());
+        }
+
+        return nanos;
+    }
+
+    private static double getPercentile(final long[] sortedNanos, final double percentile) {
+        return sortedNanos[Math.min(sortedNanos.length - 1, (int) (percentile * sortedNanos.length))] / NANOS_PER_MICRO;
+    }
+}
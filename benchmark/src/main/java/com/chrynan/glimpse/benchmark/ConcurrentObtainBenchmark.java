@@ -0,0 +1,188 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link com.chrynan.glimpse.Glimpse#obtain(Object, Context, AttributeSet)} called from
+ * several threads at once on the views of a synthetic module, which is how the binder registry is
+ * used by background inflation:
+ * <ul>
+ * <li>coldMisses: Every thread binds every view of a module loaded in a fresh
+ * {@link IsolatedClassLoader}, starting from a different view, so that the threads race to look
+ * up the same binders. The time of an operation is the time for a thread to bind the whole module,
+ * the look ups of the other threads included.</li>
+ * <li>warmHits: Every thread binds the views of a module whose binders are all cached, one view per
+ * operation, which is the lock free read path of the registry.</li>
+ * </ul>
+ * The number of threads defaults to 4 and is changed with the "-t" argument of JMH. Running with
+ * one thread and then more shows how the registry scales. Glimpse is invoked with reflection, since
+ * the runtime is loaded by the isolated class loader, which adds a constant overhead to every bind.
+ */
+@Threads(4)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ConcurrentObtainBenchmark {
+
+    private static final String GLIMPSE_CLASS_NAME = "com.chrynan.glimpse.Glimpse";
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object coldMisses(final ColdModule module, final ThreadParams threadParams) throws ReflectiveOperationException {
+        final int viewCount = module.views.length;
+        final int offset = threadParams.getThreadIndex() * viewCount / threadParams.getThreadCount();
+
+        for (int i = 0; i < viewCount; i++) {
+            final int view = (offset + i) % viewCount;
+            module.obtain(view);
+        }
+
+        return module;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Object warmHits(final WarmModule module, final Cursor cursor) throws ReflectiveOperationException {
+        return module.obtain(cursor.next(module.views.length));
+    }
+
+    /**
+     * The compiled synthetic module, shared by the threads and by the iterations.
+     */
+    @State(Scope.Benchmark)
+    public static class Corpus {
+
+        @Param({"200"})
+        public int viewCount;
+
+        @Param({"5"})
+        public int fieldCount;
+
+        Map<String, byte[]> classFiles;
+        Context context;
+        AttributeSet[] attributeSets;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            final SyntheticCorpus corpus = new SyntheticCorpus(viewCount, fieldCount);
+
+            classFiles = new InMemoryCompiler().compile(Collections.<String, String>emptyMap(), false, corpus.getSources()).getClassFiles();
+            context = new FakeContext();
+            attributeSets = new AttributeSet[viewCount];
+
+            for (int view = 0; view < viewCount; view++) {
+                attributeSets[view] = BenchmarkView.createAttributeSet(corpus.getAttributeIds(view));
+            }
+        }
+    }
+
+    /**
+     * An instance of every view of the module and the Glimpse runtime, loaded in a fresh class
+     * loader.
+     */
+    abstract static class Module {
+
+        Object[] views;
+        private AttributeSet[] attributeSets;
+        private Context context;
+        private Method obtain;
+
+        void load(final Corpus corpus) throws ReflectiveOperationException {
+            final ClassLoader classLoader = new IsolatedClassLoader(corpus.classFiles);
+
+            views = new Object[corpus.viewCount];
+            attributeSets = corpus.attributeSets;
+            context = corpus.context;
+
+            for (int view = 0; view < views.length; view++) {
+                views[view] = classLoader.loadClass(SyntheticCorpus.getViewClassName(view)).newInstance();
+            }
+
+            obtain = classLoader.loadClass(GLIMPSE_CLASS_NAME).getMethod("obtain", Object.class, Context.class, AttributeSet.class);
+        }
+
+        Object obtain(final int view) throws ReflectiveOperationException {
+            try {
+                obtain.invoke(null, views[view], context, attributeSets[view]);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("Error binding a view.", e.getCause());
+            }
+
+            return views[view];
+        }
+    }
+
+    /**
+     * A module loaded again before every iteration, so that no binder is looked up or even loaded.
+     */
+    @State(Scope.Benchmark)
+    public static class ColdModule extends Module {
+
+        @Setup(Level.Iteration)
+        public void setUp(final Corpus corpus) throws ReflectiveOperationException {
+            load(corpus);
+        }
+    }
+
+    /**
+     * A module loaded once, whose views are all bound before the measurements.
+     */
+    @State(Scope.Benchmark)
+    public static class WarmModule extends Module {
+
+        @Setup(Level.Trial)
+        public void setUp(final Corpus corpus) throws ReflectiveOperationException {
+            load(corpus);
+
+            for (int view = 0; view < views.length; view++) {
+                obtain(view);
+            }
+        }
+    }
+
+    /**
+     * The next view bound by a thread. Threads start from different views, so that they don't bind
+     * the same instance at the same time.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(final Corpus corpus, final ThreadParams threadParams) {
+            next = threadParams.getThreadIndex() * corpus.viewCount / threadParams.getThreadCount();
+        }
+
+        int next(final int viewCount) {
+            final int view = next;
+            next = view + 1 == viewCount ? 0 : view + 1;
+            return view;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.util.AttributeSet;
+import android.util.TypedValue;
+
+import java.util.Arrays;
+
+/**
+ * An {@link AttributeSet} of attribute ids and string values, as written in a layout file. The
+ * values are parsed into {@link TypedValue}s once, when the set is created, like the Android build
+ * does when it compiles layouts, so that obtaining them doesn't parse or allocate:
+ * <ul>
+ * <li>"true" and "false" are booleans.</li>
+ * <li>"#" followed by hex digits is a color.</li>
+ * <li>"@0x" followed by hex digits is a reference to the resource of that id, such as a text array
+ * or a Drawable.</li>
+ * <li>A number followed by "dp", "sp" or "px" is a dimension.</li>
+ * <li>A number is an int, or a float if it contains a dot.</li>
+ * <li>Anything else is a string.</li>
+ * </ul>
+ */
+final class FakeAttributeSet implements AttributeSet {
+
+    private final int[] nameResources;
+    private final String[] values;
+    private final TypedValue[] typedValues;
+
+    /**
+     * @param nameResources The ids of the attributes.
+     * @param values        The values of the attributes, in the order of the ids.
+     */
+    FakeAttributeSet(final int[] nameResources, final String[] values) {
+        if (nameResources.length != values.length) {
+            throw new IllegalArgumentException("There must be a value for every attribute.");
+        }
+
+        // Sorted by id, so that the attributes of a styleable group are found by binary search
+        final long[] order = new long[nameResources.length];
+
+        for (int i = 0; i < nameResources.length; i++) {
+            order[i] = ((long) nameResources[i] << 32) | i;
+        }
+
+        Arrays.sort(order);
+
+        this.nameResources = new int[nameResources.length];
+        this.values = new String[values.length];
+        this.typedValues = new TypedValue[values.length];
+
+        for (int i = 0; i < order.length; i++) {
+            final int index = (int) order[i];
+
+            this.nameResources[i] = nameResources[index];
+            this.values[i] = values[index];
+            this.typedValues[i] = parse(values[index]);
+        }
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return nameResources.length;
+    }
+
+    @Override
+    public String getAttributeName(final int index) {
+        return "0x" + Integer.toHexString(nameResources[index]);
+    }
+
+    @Override
+    public String getAttributeValue(final int index) {
+        return values[index];
+    }
+
+    @Override
+    public int getAttributeNameResource(final int index) {
+        return nameResources[index];
+    }
+
+    @Override
+    public int getStyleAttribute() {
+        return 0;
+    }
+
+    /**
+     * Retrieves the index of the provided attribute.
+     *
+     * @return The index or a negative value if the set doesn't contain the attribute.
+     */
+    int indexOf(final int nameResource) {
+        return Arrays.binarySearch(nameResources, nameResource);
+    }
+
+    TypedValue getTypedValue(final int index) {
+        return typedValues[index];
+    }
+
+    private static TypedValue parse(final String value) {
+        final TypedValue typedValue = new TypedValue();
+
+        if ("true".equals(value) || "false".equals(value)) {
+            typedValue.type = TypedValue.TYPE_INT_BOOLEAN;
+            typedValue.data = "true".equals(value) ? -1 : 0;
+        } else if (value.startsWith("@0x")) {
+            typedValue.type = TypedValue.TYPE_REFERENCE;
+            typedValue.data = (int) Long.parseLong(value.substring(3), 16);
+            typedValue.resourceId = typedValue.data;
+        } else if (value.startsWith("#")) {
+            final String hex = value.substring(1);
+
+            typedValue.type = TypedValue.TYPE_INT_COLOR_ARGB8;
+            typedValue.data = (int) Long.parseLong(hex.length() == 6 ? "ff" + hex : hex, 16);
+        } else if (value.endsWith("dp") || value.endsWith("sp") || value.endsWith("px")) {
+            final int unit = value.endsWith("dp") ? TypedValue.COMPLEX_UNIT_DIP : value.endsWith("sp") ? TypedValue.COMPLEX_UNIT_SP : TypedValue.COMPLEX_UNIT_PX;
+
+            // An integer mantissa with a radix of zero
+            typedValue.type = TypedValue.TYPE_DIMENSION;
+            typedValue.data = (Integer.parseInt(value.substring(0, value.length() - 2)) << TypedValue.COMPLEX_MANTISSA_SHIFT) | unit;
+        } else {
+            try {
+                typedValue.data = Integer.parseInt(value);
+                typedValue.type = TypedValue.TYPE_INT_DEC;
+            } catch (NumberFormatException notAnInt) {
+                try {
+                    typedValue.data = Float.floatToIntBits(Float.parseFloat(value));
+                    typedValue.type = value.contains(".") ? TypedValue.TYPE_FLOAT : TypedValue.TYPE_STRING;
+                } catch (NumberFormatException notAFloat) {
+                    typedValue.type = TypedValue.TYPE_STRING;
+                }
+            }
+        }
+
+        if (typedValue.type == TypedValue.TYPE_STRING) {
+            typedValue.data = 0;
+            typedValue.string = value;
+        }
+
+        return typedValue;
+    }
+}
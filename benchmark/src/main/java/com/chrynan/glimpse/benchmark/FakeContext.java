@@ -0,0 +1,57 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+
+/**
+ * A {@link Context} with {@link FakeResources} and a theme without styles, resolving the
+ * attributes of a {@link FakeAttributeSet} only.
+ */
+final class FakeContext extends Context {
+
+    private final FakeResources resources;
+    private final Resources.Theme theme;
+
+    FakeContext() {
+        resources = new FakeResources();
+        theme = new FakeTheme(resources);
+    }
+
+    @Override
+    public FakeResources getResources() {
+        return resources;
+    }
+
+    @Override
+    public Resources.Theme getTheme() {
+        return theme;
+    }
+
+    private static final class FakeTheme extends Resources.Theme {
+
+        FakeTheme(final Resources resources) {
+            resources.super();
+        }
+
+        @Override
+        public TypedArray obtainStyledAttributes(final AttributeSet set, final int[] attrs, final int defStyleAttr, final int defStyleRes) {
+            final TypedArray typedArray = TypedArray.obtain(getResources(), attrs.length);
+
+            if (set instanceof FakeAttributeSet) {
+                final FakeAttributeSet attributeSet = (FakeAttributeSet) set;
+
+                for (int i = 0; i < attrs.length; i++) {
+                    final int index = attributeSet.indexOf(attrs[i]);
+
+                    if (index >= 0) {
+                        typedArray.setValue(i, attributeSet.getTypedValue(index));
+                    }
+                }
+            }
+
+            return typedArray;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+
+/**
+ * A {@link Drawable} whose instances share their {@link Drawable.ConstantState}, like the Drawables
+ * of resources on Android, and which record the theme they were created with, if any.
+ */
+final class FakeDrawable extends Drawable {
+
+    private final State state;
+    private final Resources.Theme theme;
+
+    private FakeDrawable(final State state, final Resources.Theme theme) {
+        this.state = state;
+        this.theme = theme;
+    }
+
+    /**
+     * Creates the constant state of a Drawable resource, which creates a new Drawable for every
+     * retrieval of the resource.
+     */
+    static Drawable.ConstantState newConstantState() {
+        return new State();
+    }
+
+    @Override
+    public Drawable.ConstantState getConstantState() {
+        return state;
+    }
+
+    Resources.Theme getTheme() {
+        return theme;
+    }
+
+    private static final class State extends Drawable.ConstantState {
+
+        @Override
+        public Drawable newDrawable() {
+            return new FakeDrawable(this, null);
+        }
+
+        @Override
+        public Drawable newDrawable(final Resources res, final Resources.Theme theme) {
+            return new FakeDrawable(this, theme);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.util.DisplayMetrics;
+
+import java.util.Arrays;
+
+/**
+ * {@link Resources} with a default configuration and the text array and Drawable resources added
+ * to them. As on Android, every retrieval of a text array returns a new array and every retrieval
+ * of a Drawable returns a new Drawable created from the constant state of the resource, with the
+ * theme if one is provided. The resources are kept in sorted arrays, so that retrieving them
+ * doesn't allocate anything else.
+ */
+final class FakeResources extends Resources {
+
+    private int[] ids = new int[0];
+    private Object[] values = new Object[0];
+
+    FakeResources() {
+        super(new DisplayMetrics(), new Configuration());
+    }
+
+    void addTextArray(final int id, final CharSequence[] value) {
+        add(id, value.clone());
+    }
+
+    void addDrawable(final int id, final Drawable.ConstantState value) {
+        add(id, value);
+    }
+
+    @Override
+    public CharSequence[] getTextArray(final int id) throws NotFoundException {
+        final Object value = get(id);
+
+        if (!(value instanceof CharSequence[])) {
+            return super.getTextArray(id);
+        }
+
+        return ((CharSequence[]) value).clone();
+    }
+
+    @Override
+    public Drawable getDrawable(final int id) throws NotFoundException {
+        final Object value = get(id);
+
+        if (!(value instanceof Drawable.ConstantState)) {
+            return super.getDrawable(id);
+        }
+
+        return ((Drawable.ConstantState) value).newDrawable(this);
+    }
+
+    @Override
+    public Drawable getDrawable(final int id, final Theme theme) throws NotFoundException {
+        final Object value = get(id);
+
+        if (!(value instanceof Drawable.ConstantState)) {
+            return super.getDrawable(id, theme);
+        }
+
+        return ((Drawable.ConstantState) value).newDrawable(this, theme);
+    }
+
+    private Object get(final int id) {
+        final int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? values[index] : null;
+    }
+
+    private void add(final int id, final Object value) {
+        int index = Arrays.binarySearch(ids, id);
+
+        if (index < 0) {
+            index = -index - 1;
+
+            final int[] updatedIds = new int[ids.length + 1];
+            final Object[] updatedValues = new Object[values.length + 1];
+
+            System.arraycopy(ids, 0, updatedIds, 0, index);
+            System.arraycopy(ids, index, updatedIds, index + 1, ids.length - index);
+            System.arraycopy(values, 0, updatedValues, 0, index);
+            System.arraycopy(values, index, updatedValues, index + 1, values.length - index);
+
+            updatedIds[index] = id;
+            ids = updatedIds;
+            values = updatedValues;
+        }
+
+        values[index] = value;
+    }
+}
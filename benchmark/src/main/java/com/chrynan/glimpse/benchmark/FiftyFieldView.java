@@ -0,0 +1,159 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding 50 attributes, cycling through the field types.
+ */
+public class FiftyFieldView {
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField0)
+    public boolean field0;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField1)
+    public int field1;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField2)
+    public float field2;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField3)
+    public String field3;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField4)
+    public CharSequence field4;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField5)
+    public boolean field5;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField6)
+    public int field6;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField7)
+    public float field7;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField8)
+    public String field8;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField9)
+    public CharSequence field9;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField10)
+    public boolean field10;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField11)
+    public int field11;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField12)
+    public float field12;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField13)
+    public String field13;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField14)
+    public CharSequence field14;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField15)
+    public boolean field15;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField16)
+    public int field16;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField17)
+    public float field17;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField18)
+    public String field18;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField19)
+    public CharSequence field19;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField20)
+    public boolean field20;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField21)
+    public int field21;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField22)
+    public float field22;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField23)
+    public String field23;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField24)
+    public CharSequence field24;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField25)
+    public boolean field25;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField26)
+    public int field26;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField27)
+    public float field27;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField28)
+    public String field28;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField29)
+    public CharSequence field29;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField30)
+    public boolean field30;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField31)
+    public int field31;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField32)
+    public float field32;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField33)
+    public String field33;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField34)
+    public CharSequence field34;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField35)
+    public boolean field35;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField36)
+    public int field36;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField37)
+    public float field37;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField38)
+    public String field38;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField39)
+    public CharSequence field39;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField40)
+    public boolean field40;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField41)
+    public int field41;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField42)
+    public float field42;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField43)
+    public String field43;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField44)
+    public CharSequence field44;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField45)
+    public boolean field45;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField46)
+    public int field46;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField47)
+    public float field47;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField48)
+    public String field48;
+
+    @Styleable(R.styleable.FiftyFieldView_fiftyField49)
+    public CharSequence field49;
+}
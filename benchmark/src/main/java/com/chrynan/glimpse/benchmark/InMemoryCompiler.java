@@ -0,0 +1,173 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.GlimpseAnnotationProcessor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles sources with the {@link GlimpseAnnotationProcessor} using the system Java compiler,
+ * keeping the generated sources and class files in memory so that the file system isn't part of
+ * the measurements. The sources are compiled against the class path of the benchmark.
+ */
+final class InMemoryCompiler {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager standardFileManager;
+
+    InMemoryCompiler() {
+        compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null) {
+            throw new IllegalStateException("The benchmarks must run on a JDK.");
+        }
+
+        standardFileManager = compiler.getStandardFileManager(null, null, UTF_8);
+    }
+
+    /**
+     * Compiles the provided sources.
+     *
+     * @param options  The processor options, without the "-A" prefix.
+     * @param procOnly Whether only the annotation processing runs, without compiling the sources
+     *                 or the generated binders.
+     * @return The generated sources and class files.
+     * @throws IllegalStateException If the compilation fails.
+     */
+    Result compile(final Map<String, String> options, final boolean procOnly, final List<JavaFileObject> sources) {
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final InMemoryFileManager fileManager = new InMemoryFileManager(standardFileManager);
+
+        final List<String> arguments = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                "-source", "1.7", "-target", "1.7", "-Xlint:-options"));
+
+        if (procOnly) {
+            arguments.add("-proc:only");
+        }
+
+        for (final Map.Entry<String, String> option : options.entrySet()) {
+            arguments.add("-A" + option.getKey() + "=" + option.getValue());
+        }
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments, null, sources);
+        task.setProcessors(Collections.singletonList(new GlimpseAnnotationProcessor()));
+
+        if (!task.call()) {
+            final StringBuilder message = new StringBuilder("Compilation failed:");
+
+            for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                message.append('\n').append(diagnostic.getMessage(null));
+            }
+
+            throw new IllegalStateException(message.toString());
+        }
+
+        return new Result(fileManager.generatedSources, fileManager.classFiles);
+    }
+
+    /**
+     * The output of a compilation.
+     */
+    static final class Result {
+
+        private final Map<String, String> generatedSources;
+        private final Map<String, byte[]> classFiles;
+
+        private Result(final Map<String, String> generatedSources, final Map<String, byte[]> classFiles) {
+            this.generatedSources = generatedSources;
+            this.classFiles = classFiles;
+        }
+
+        Map<String, String> getGeneratedSources() {
+            return Collections.unmodifiableMap(generatedSources);
+        }
+
+        /**
+         * Retrieves the class files, by binary class name.
+         */
+        Map<String, byte[]> getClassFiles() {
+            return Collections.unmodifiableMap(classFiles);
+        }
+    }
+
+    /**
+     * A generated source or class file, kept in memory once written.
+     */
+    private static final class OutputFile extends SimpleJavaFileObject {
+
+        private final String className;
+        private final Map<String, String> generatedSources;
+        private final Map<String, byte[]> classFiles;
+
+        OutputFile(final String className, final Kind kind, final Map<String, String> generatedSources, final Map<String, byte[]> classFiles) {
+            super(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind);
+            this.className = className;
+            this.generatedSources = generatedSources;
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return generatedSources.get(className);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+
+                    if (getKind() == Kind.SOURCE) {
+                        generatedSources.put(className, new String(toByteArray(), UTF_8));
+                    } else {
+                        classFiles.put(className, toByteArray());
+                    }
+                }
+            };
+        }
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, String> generatedSources = new TreeMap<>();
+        private final Map<String, byte[]> classFiles = new TreeMap<>();
+
+        InMemoryFileManager(final JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className, final JavaFileObject.Kind kind,
+                                                   final FileObject sibling) {
+            return new OutputFile(className, kind, generatedSources, classFiles);
+        }
+
+        @Override
+        public boolean isSameFile(final FileObject first, final FileObject second) {
+            return first.toUri().equals(second.toUri());
+        }
+    }
+}
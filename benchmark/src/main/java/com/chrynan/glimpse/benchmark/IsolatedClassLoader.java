@@ -0,0 +1,99 @@
+package com.chrynan.glimpse.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class loader defining its own copy of the Glimpse runtime and of the classes of a compiled
+ * corpus, so that every instance starts without any loaded or initialized Glimpse class, binder or
+ * cached look up. Every other class, including the Android stand-ins, which are part of the
+ * framework on Android, is shared with the parent class loader.
+ * <p>
+ * The bytes of the runtime classes are read once and shared by the instances, so that defining a
+ * class doesn't read the class path.
+ */
+final class IsolatedClassLoader extends ClassLoader {
+
+    private static final String RUNTIME_PACKAGE_PREFIX = "com.chrynan.glimpse.";
+    private static final String BENCHMARK_PACKAGE_PREFIX = "com.chrynan.glimpse.benchmark.";
+    private static final Map<String, byte[]> RUNTIME_CLASSES = new ConcurrentHashMap<>();
+
+    private final Map<String, byte[]> classFiles;
+
+    /**
+     * @param classFiles The class files of the corpus, by binary class name.
+     */
+    IsolatedClassLoader(final Map<String, byte[]> classFiles) {
+        super(IsolatedClassLoader.class.getClassLoader());
+        this.classFiles = classFiles;
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loadedClass = findLoadedClass(name);
+
+            if (loadedClass == null) {
+                byte[] bytes = classFiles.get(name);
+
+                if (bytes == null && name.startsWith(RUNTIME_PACKAGE_PREFIX) && !name.startsWith(BENCHMARK_PACKAGE_PREFIX)) {
+                    bytes = getRuntimeClass(name);
+                }
+
+                if (bytes == null) {
+                    return super.loadClass(name, resolve);
+                }
+
+                loadedClass = defineClass(name, bytes, 0, bytes.length);
+            }
+
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+
+            return loadedClass;
+        }
+    }
+
+    /**
+     * Retrieves the bytes of the provided class of the Glimpse runtime.
+     *
+     * @return The bytes or null if there is no such class.
+     */
+    private byte[] getRuntimeClass(final String name) throws ClassNotFoundException {
+        byte[] bytes = RUNTIME_CLASSES.get(name);
+
+        if (bytes == null) {
+            final InputStream stream = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+
+            if (stream == null) {
+                return null;
+            }
+
+            try {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+
+                for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+                    output.write(buffer, 0, read);
+                }
+
+                bytes = output.toByteArray();
+                RUNTIME_CLASSES.put(name, bytes);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            } finally {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+
+        return bytes;
+    }
+}
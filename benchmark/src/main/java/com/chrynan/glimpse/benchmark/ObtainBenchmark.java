@@ -0,0 +1,88 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import com.chrynan.glimpse.Glimpse;
+import com.chrynan.glimpse.StyleableBinder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binding a view end to end, from the attribute set to the fields, in the steady state:
+ * <ul>
+ * <li>obtain: {@link Glimpse#obtain(Object, Context, AttributeSet)}, whose binder is looked up
+ * reflectively once and then cached.</li>
+ * <li>directBinder: The INSTANCE of the generated binder, called directly, which is the cost of the
+ * binding alone.</li>
+ * <li>reflectiveLookup: The reflective look up of the generated binder on every call, which is the
+ * cost the cache of {@link Glimpse} saves.</li>
+ * </ul>
+ * Run with the GC profiler ("-prof gc") for the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObtainBenchmark {
+
+    private static final String ATTRIBUTE_CLASS_SUFFIX = "_ViewStyleableAttr";
+    private static final String INSTANCE_FIELD_NAME = "INSTANCE";
+
+    @Param({"1", "10", "50"})
+    public int fieldCount;
+
+    private Object view;
+    private Context context;
+    private AttributeSet attributeSet;
+    private StyleableBinder<Object> binder;
+    private String binderClassName;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final BenchmarkView benchmarkView = BenchmarkView.withFieldCount(fieldCount);
+
+        view = benchmarkView.newView();
+        context = new FakeContext();
+        attributeSet = benchmarkView.createAttributeSet();
+        binderClassName = benchmarkView.getViewClass().getName() + ATTRIBUTE_CLASS_SUFFIX;
+        binder = getBinder(binderClassName);
+    }
+
+    @Benchmark
+    public Object obtain() {
+        Glimpse.obtain(view, context, attributeSet);
+        return view;
+    }
+
+    @Benchmark
+    public Object directBinder() {
+        binder.bind(view, context, attributeSet);
+        return view;
+    }
+
+    @Benchmark
+    public Object reflectiveLookup() throws ReflectiveOperationException {
+        getBinder(binderClassName).bind(view, context, attributeSet);
+        return view;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StyleableBinder<Object> getBinder(final String binderClassName) throws ReflectiveOperationException {
+        return (StyleableBinder<Object>) Class.forName(binderClassName).getField(INSTANCE_FIELD_NAME).get(null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding one attribute.
+ */
+public class OneFieldView {
+
+    @Styleable(R.styleable.OneFieldView_oneField0)
+    public boolean field0;
+}
@@ -0,0 +1,165 @@
+package com.chrynan.glimpse.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures the throughput of the {@link com.chrynan.glimpse.GlimpseAnnotationProcessor} on
+ * synthetic modules of every combination of the provided numbers of views and of fields per view.
+ * Every module is compiled in memory a number of warmup times, then measured a number of times.
+ * <p>
+ * Arguments are "name=value" pairs, any "-Aname=value" argument being passed to the processor:
+ * <ul>
+ * <li>views: The numbers of views, separated by commas (default 50,100,200,400).</li>
+ * <li>fields: The numbers of fields per view, separated by commas (default 5,10,20).</li>
+ * <li>warmup: The number of unmeasured compilations of every module (default 3).</li>
+ * <li>iterations: The number of measured compilations of every module (default 5).</li>
+ * <li>procOnly: Whether only the annotation processing runs, which is the default, or the sources
+ * and the binders are compiled too.</li>
+ * <li>csv: A file to write the results to, to plot the scaling curves.</li>
+ * </ul>
+ * The time per view shows how the processor scales with the size of the module, a constant time
+ * per view being linear. The peak heap is the sum of the peak usages of the heap memory pools
+ * during a compilation, after a garbage collection.
+ */
+public final class ProcessorBenchmark {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private ProcessorBenchmark() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final BenchmarkArguments arguments = new BenchmarkArguments(args);
+        final Map<String, String> processorOptions = arguments.getProcessorOptions();
+        final int[] viewCounts = arguments.getIntList("views", "50,100,200,400");
+        final int[] fieldCounts = arguments.getIntList("fields", "5,10,20");
+        final int warmup = arguments.getInt("warmup", 3);
+        final int iterations = arguments.getInt("iterations", 5);
+        final boolean procOnly = arguments.getBoolean("procOnly", true);
+        final String csv = arguments.get("csv");
+
+        final InMemoryCompiler compiler = new InMemoryCompiler();
+        final List<Measurement> measurements = new ArrayList<>();
+
+        System.out.println("Glimpse processor benchmark" + (procOnly ? " (annotation processing only)" : " (full compilation)") +
+                ", processor options " + processorOptions);
+        System.out.println(String.format(Locale.US, "%6s %6s %10s %10s %10s %12s %9s %14s",
+                "views", "fields", "best ms", "median ms", "views/s", "fields/s", "ms/view", "peak heap MB"));
+
+        for (final int fieldCount : fieldCounts) {
+            for (final int viewCount : viewCounts) {
+                final Measurement measurement = measure(compiler, new SyntheticCorpus(viewCount, fieldCount), processorOptions, procOnly,
+                        warmup, iterations);
+                measurements.add(measurement);
+
+                System.out.println(String.format(Locale.US, "%6d %6d %10.1f %10.1f %10.1f %12.1f %9.3f %14.1f",
+                        viewCount, fieldCount, measurement.getBestMillis(), measurement.getMedianMillis(), measurement.getViewsPerSecond(),
+                        measurement.getFieldsPerSecond(), measurement.getBestMillis() / viewCount, measurement.peakHeapBytes / BYTES_PER_MEGABYTE));
+            }
+        }
+
+        if (csv != null) {
+            writeCsv(csv, measurements);
+        }
+    }
+
+    private static Measurement measure(final InMemoryCompiler compiler, final SyntheticCorpus corpus, final Map<String, String> options,
+                                       final boolean procOnly, final int warmup, final int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            compiler.compile(options, procOnly, corpus.getSources());
+        }
+
+        final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                heapPools.add(pool);
+            }
+        }
+
+        final long[] nanos = new long[iterations];
+        long peakHeapBytes = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            System.gc();
+
+            for (final MemoryPoolMXBean pool : heapPools) {
+                pool.resetPeakUsage();
+            }
+
+            final long start = System.nanoTime();
+            compiler.compile(options, procOnly, corpus.getSources());
+            nanos[i] = System.nanoTime() - start;
+
+            long heapBytes = 0;
+
+            for (final MemoryPoolMXBean pool : heapPools) {
+                heapBytes += pool.getPeakUsage().getUsed();
+            }
+
+            peakHeapBytes = Math.max(peakHeapBytes, heapBytes);
+        }
+
+        Arrays.sort(nanos);
+
+        return new Measurement(corpus.getViewCount(), corpus.getFieldCount(), nanos, peakHeapBytes);
+    }
+
+    private static void writeCsv(final String path, final List<Measurement> measurements) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(path), UTF_8)) {
+            writer.write("views,fields,bestMillis,medianMillis,viewsPerSecond,fieldsPerSecond,peakHeapBytes\n");
+
+            for (final Measurement measurement : measurements) {
+                writer.write(String.format(Locale.US, "%d,%d,%.3f,%.3f,%.1f,%.1f,%d\n", measurement.viewCount, measurement.fieldCount,
+                        measurement.getBestMillis(), measurement.getMedianMillis(), measurement.getViewsPerSecond(),
+                        measurement.getFieldsPerSecond(), measurement.peakHeapBytes));
+            }
+        }
+    }
+
+    private static final class Measurement {
+
+        private final int viewCount;
+        private final int fieldCount;
+        private final long[] sortedNanos;
+        private final long peakHeapBytes;
+
+        Measurement(final int viewCount, final int fieldCount, final long[] sortedNanos, final long peakHeapBytes) {
+            this.viewCount = viewCount;
+            this.fieldCount = fieldCount;
+            this.sortedNanos = sortedNanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        double getBestMillis() {
+            return sortedNanos[0] / NANOS_PER_MILLI;
+        }
+
+        double getMedianMillis() {
+            return sortedNanos[sortedNanos.length / 2] / NANOS_PER_MILLI;
+        }
+
+        double getViewsPerSecond() {
+            return viewCount * 1000.0 / getMedianMillis();
+        }
+
+        double getFieldsPerSecond() {
+            return viewCount * fieldCount * 1000.0 / getMedianMillis();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.chrynan.glimpse.benchmark;
+
+/**
+ * The resources of the benchmark views, declared like the R class generated by the Android build.
+ */
+public final class R {
+
+    public static final class attr {
+        public static final int oneField0 = 0x7f010000;
+        public static final int tenField0 = 0x7f010001;
+        public static final int tenField1 = 0x7f010002;
+        public static final int tenField2 = 0x7f010003;
+        public static final int tenField3 = 0x7f010004;
+        public static final int tenField4 = 0x7f010005;
+        public static final int tenField5 = 0x7f010006;
+        public static final int tenField6 = 0x7f010007;
+        public static final int tenField7 = 0x7f010008;
+        public static final int tenField8 = 0x7f010009;
+        public static final int tenField9 = 0x7f01000a;
+        public static final int fiftyField0 = 0x7f01000b;
+        public static final int fiftyField1 = 0x7f01000c;
+        public static final int fiftyField2 = 0x7f01000d;
+        public static final int fiftyField3 = 0x7f01000e;
+        public static final int fiftyField4 = 0x7f01000f;
+        public static final int fiftyField5 = 0x7f010010;
+        public static final int fiftyField6 = 0x7f010011;
+        public static final int fiftyField7 = 0x7f010012;
+        public static final int fiftyField8 = 0x7f010013;
+        public static final int fiftyField9 = 0x7f010014;
+        public static final int fiftyField10 = 0x7f010015;
+        public static final int fiftyField11 = 0x7f010016;
+        public static final int fiftyField12 = 0x7f010017;
+        public static final int fiftyField13 = 0x7f010018;
+        public static final int fiftyField14 = 0x7f010019;
+        public static final int fiftyField15 = 0x7f01001a;
+        public static final int fiftyField16 = 0x7f01001b;
+        public static final int fiftyField17 = 0x7f01001c;
+        public static final int fiftyField18 = 0x7f01001d;
+        public static final int fiftyField19 = 0x7f01001e;
+        public static final int fiftyField20 = 0x7f01001f;
+        public static final int fiftyField21 = 0x7f010020;
+        public static final int fiftyField22 = 0x7f010021;
+        public static final int fiftyField23 = 0x7f010022;
+        public static final int fiftyField24 = 0x7f010023;
+        public static final int fiftyField25 = 0x7f010024;
+        public static final int fiftyField26 = 0x7f010025;
+        public static final int fiftyField27 = 0x7f010026;
+        public static final int fiftyField28 = 0x7f010027;
+        public static final int fiftyField29 = 0x7f010028;
+        public static final int fiftyField30 = 0x7f010029;
+        public static final int fiftyField31 = 0x7f01002a;
+        public static final int fiftyField32 = 0x7f01002b;
+        public static final int fiftyField33 = 0x7f01002c;
+        public static final int fiftyField34 = 0x7f01002d;
+        public static final int fiftyField35 = 0x7f01002e;
+        public static final int fiftyField36 = 0x7f01002f;
+        public static final int fiftyField37 = 0x7f010030;
+        public static final int fiftyField38 = 0x7f010031;
+        public static final int fiftyField39 = 0x7f010032;
+        public static final int fiftyField40 = 0x7f010033;
+        public static final int fiftyField41 = 0x7f010034;
+        public static final int fiftyField42 = 0x7f010035;
+        public static final int fiftyField43 = 0x7f010036;
+        public static final int fiftyField44 = 0x7f010037;
+        public static final int fiftyField45 = 0x7f010038;
+        public static final int fiftyField46 = 0x7f010039;
+        public static final int fiftyField47 = 0x7f01003a;
+        public static final int fiftyField48 = 0x7f01003b;
+        public static final int fiftyField49 = 0x7f01003c;
+        public static final int booleanField = 0x7f01003d;
+        public static final int intField = 0x7f01003e;
+        public static final int colorField = 0x7f01003f;
+        public static final int dimensionField = 0x7f010040;
+        public static final int stringField = 0x7f010041;
+        public static final int textArrayField = 0x7f010042;
+        public static final int drawableField = 0x7f010043;
+        public static final int enumField = 0x7f010044;
+    }
+
+    public static final class array {
+        public static final int entries = 0x7f020000;
+    }
+
+    public static final class drawable {
+        public static final int icon = 0x7f030000;
+    }
+
+    public static final class styleable {
+        public static final int[] OneFieldView = {0x7f010000};
+        public static final int OneFieldView_oneField0 = 0;
+        public static final int[] TenFieldView = {0x7f010001, 0x7f010002, 0x7f010003, 0x7f010004, 0x7f010005, 0x7f010006, 0x7f010007, 0x7f010008, 0x7f010009, 0x7f01000a};
+        public static final int TenFieldView_tenField0 = 0;
+        public static final int TenFieldView_tenField1 = 1;
+        public static final int TenFieldView_tenField2 = 2;
+        public static final int TenFieldView_tenField3 = 3;
+        public static final int TenFieldView_tenField4 = 4;
+        public static final int TenFieldView_tenField5 = 5;
+        public static final int TenFieldView_tenField6 = 6;
+        public static final int TenFieldView_tenField7 = 7;
+        public static final int TenFieldView_tenField8 = 8;
+        public static final int TenFieldView_tenField9 = 9;
+        public static final int[] FiftyFieldView = {0x7f01000b, 0x7f01000c, 0x7f01000d, 0x7f01000e, 0x7f01000f, 0x7f010010, 0x7f010011, 0x7f010012, 0x7f010013, 0x7f010014, 0x7f010015, 0x7f010016, 0x7f010017, 0x7f010018, 0x7f010019, 0x7f01001a, 0x7f01001b, 0x7f01001c, 0x7f01001d, 0x7f01001e, 0x7f01001f, 0x7f010020, 0x7f010021, 0x7f010022, 0x7f010023, 0x7f010024, 0x7f010025, 0x7f010026, 0x7f010027, 0x7f010028, 0x7f010029, 0x7f01002a, 0x7f01002b, 0x7f01002c, 0x7f01002d, 0x7f01002e, 0x7f01002f, 0x7f010030, 0x7f010031, 0x7f010032, 0x7f010033, 0x7f010034, 0x7f010035, 0x7f010036, 0x7f010037, 0x7f010038, 0x7f010039, 0x7f01003a, 0x7f01003b, 0x7f01003c};
+        public static final int FiftyFieldView_fiftyField0 = 0;
+        public static final int FiftyFieldView_fiftyField1 = 1;
+        public static final int FiftyFieldView_fiftyField2 = 2;
+        public static final int FiftyFieldView_fiftyField3 = 3;
+        public static final int FiftyFieldView_fiftyField4 = 4;
+        public static final int FiftyFieldView_fiftyField5 = 5;
+        public static final int FiftyFieldView_fiftyField6 = 6;
+        public static final int FiftyFieldView_fiftyField7 = 7;
+        public static final int FiftyFieldView_fiftyField8 = 8;
+        public static final int FiftyFieldView_fiftyField9 = 9;
+        public static final int FiftyFieldView_fiftyField10 = 10;
+        public static final int FiftyFieldView_fiftyField11 = 11;
+        public static final int FiftyFieldView_fiftyField12 = 12;
+        public static final int FiftyFieldView_fiftyField13 = 13;
+        public static final int FiftyFieldView_fiftyField14 = 14;
+        public static final int FiftyFieldView_fiftyField15 = 15;
+        public static final int FiftyFieldView_fiftyField16 = 16;
+        public static final int FiftyFieldView_fiftyField17 = 17;
+        public static final int FiftyFieldView_fiftyField18 = 18;
+        public static final int FiftyFieldView_fiftyField19 = 19;
+        public static final int FiftyFieldView_fiftyField20 = 20;
+        public static final int FiftyFieldView_fiftyField21 = 21;
+        public static final int FiftyFieldView_fiftyField22 = 22;
+        public static final int FiftyFieldView_fiftyField23 = 23;
+        public static final int FiftyFieldView_fiftyField24 = 24;
+        public static final int FiftyFieldView_fiftyField25 = 25;
+        public static final int FiftyFieldView_fiftyField26 = 26;
+        public static final int FiftyFieldView_fiftyField27 = 27;
+        public static final int FiftyFieldView_fiftyField28 = 28;
+        public static final int FiftyFieldView_fiftyField29 = 29;
+        public static final int FiftyFieldView_fiftyField30 = 30;
+        public static final int FiftyFieldView_fiftyField31 = 31;
+        public static final int FiftyFieldView_fiftyField32 = 32;
+        public static final int FiftyFieldView_fiftyField33 = 33;
+        public static final int FiftyFieldView_fiftyField34 = 34;
+        public static final int FiftyFieldView_fiftyField35 = 35;
+        public static final int FiftyFieldView_fiftyField36 = 36;
+        public static final int FiftyFieldView_fiftyField37 = 37;
+        public static final int FiftyFieldView_fiftyField38 = 38;
+        public static final int FiftyFieldView_fiftyField39 = 39;
+        public static final int FiftyFieldView_fiftyField40 = 40;
+        public static final int FiftyFieldView_fiftyField41 = 41;
+        public static final int FiftyFieldView_fiftyField42 = 42;
+        public static final int FiftyFieldView_fiftyField43 = 43;
+        public static final int FiftyFieldView_fiftyField44 = 44;
+        public static final int FiftyFieldView_fiftyField45 = 45;
+        public static final int FiftyFieldView_fiftyField46 = 46;
+        public static final int FiftyFieldView_fiftyField47 = 47;
+        public static final int FiftyFieldView_fiftyField48 = 48;
+        public static final int FiftyFieldView_fiftyField49 = 49;
+        public static final int[] FieldKindView = {0x7f01003d, 0x7f01003e, 0x7f01003f, 0x7f010040, 0x7f010041, 0x7f010042, 0x7f010043, 0x7f010044};
+        public static final int FieldKindView_booleanField = 0;
+        public static final int FieldKindView_intField = 1;
+        public static final int FieldKindView_colorField = 2;
+        public static final int FieldKindView_dimensionField = 3;
+        public static final int FieldKindView_stringField = 4;
+        public static final int FieldKindView_textArrayField = 5;
+        public static final int FieldKindView_drawableField = 6;
+        public static final int FieldKindView_enumField = 7;
+    }
+}
@@ -0,0 +1,177 @@
+package com.chrynan.glimpse.benchmark;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * Generates the sources of a synthetic module, made of views with {@link com.chrynan.glimpse.Styleable}
+ * annotated fields and of the R class declaring their attributes, like the R class generated by the
+ * Android build. The field types cycle through the types the binders read differently, so that the
+ * generated code is representative of a real module. Every view may also have a subclass without
+ * annotated fields, whose binding is found by walking up to the view.
+ */
+final class SyntheticCorpus {
+
+    static final String PACKAGE_NAME = "com.example.benchmark";
+
+    private static final int ATTR_ID_BASE = 0x7f010000;
+    private static final String[] FIELD_TYPES = {"boolean", "int", "float", "String", "CharSequence"};
+
+    private final int viewCount;
+    private final int fieldCount;
+    private final List<JavaFileObject> sources;
+
+    /**
+     * @param viewCount  The number of views of the module.
+     * @param fieldCount The number of Styleable annotated fields of every view, each bound to its
+     *                   own attribute.
+     */
+    SyntheticCorpus(final int viewCount, final int fieldCount) {
+        this(viewCount, fieldCount, false);
+    }
+
+    /**
+     * @param viewCount  The number of views of the module.
+     * @param fieldCount The number of Styleable annotated fields of every view, each bound to its
+     *                   own attribute.
+     * @param subclasses Whether every view has a subclass without annotated fields.
+     */
+    SyntheticCorpus(final int viewCount, final int fieldCount, final boolean subclasses) {
+        this.viewCount = viewCount;
+        this.fieldCount = fieldCount;
+
+        final List<JavaFileObject> sources = new ArrayList<>(viewCount * (subclasses ? 2 : 1) + 1);
+        sources.add(new SourceFile("R", createRClass()));
+
+        for (int view = 0; view < viewCount; view++) {
+            sources.add(new SourceFile(getViewSimpleName(view), createView(view)));
+
+            if (subclasses) {
+                sources.add(new SourceFile(getSubclassSimpleName(view), "package " + PACKAGE_NAME + ";\n\n" +
+                        "public class " + getSubclassSimpleName(view) + " extends " + getViewSimpleName(view) + " {\n}\n"));
+            }
+        }
+
+        this.sources = Collections.unmodifiableList(sources);
+    }
+
+    int getViewCount() {
+        return viewCount;
+    }
+
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    List<JavaFileObject> getSources() {
+        return sources;
+    }
+
+    static String getViewSimpleName(final int view) {
+        return "View" + view;
+    }
+
+    static String getViewClassName(final int view) {
+        return PACKAGE_NAME + "." + getViewSimpleName(view);
+    }
+
+    static String getSubclassSimpleName(final int view) {
+        return getViewSimpleName(view) + "Subclass";
+    }
+
+    static String getSubclassClassName(final int view) {
+        return PACKAGE_NAME + "." + getSubclassSimpleName(view);
+    }
+
+    static String getFieldType(final int field) {
+        return FIELD_TYPES[field % FIELD_TYPES.length];
+    }
+
+    /**
+     * Retrieves the resource id of the provided attribute of the provided view, as declared in the R
+     * class.
+     */
+    int getAttributeId(final int view, final int field) {
+        return ATTR_ID_BASE + view * fieldCount + field;
+    }
+
+    /**
+     * Retrieves the resource ids of the attributes of the provided view, in the order of its fields.
+     */
+    int[] getAttributeIds(final int view) {
+        final int[] ids = new int[fieldCount];
+
+        for (int field = 0; field < fieldCount; field++) {
+            ids[field] = getAttributeId(view, field);
+        }
+
+        return ids;
+    }
+
+    private String createRClass() {
+        final StringBuilder attr = new StringBuilder();
+        final StringBuilder styleable = new StringBuilder();
+
+        for (int view = 0; view < viewCount; view++) {
+            final String groupName = getViewSimpleName(view);
+            styleable.append("        public static final int[] ").append(groupName).append(" = {");
+
+            for (int field = 0; field < fieldCount; field++) {
+                final String attributeName = "view" + view + "Attr" + field;
+
+                attr.append("        public static final int ").append(attributeName).append(" = 0x")
+                        .append(Integer.toHexString(getAttributeId(view, field))).append(";\n");
+                styleable.append(field > 0 ? ", 0x" : "0x").append(Integer.toHexString(getAttributeId(view, field)));
+            }
+
+            styleable.append("};\n");
+
+            for (int field = 0; field < fieldCount; field++) {
+                styleable.append("        public static final int ").append(groupName).append("_view").append(view).append("Attr").append(field)
+                        .append(" = ").append(field).append(";\n");
+            }
+        }
+
+        return "package " + PACKAGE_NAME + ";\n\n" +
+                "public final class R {\n\n" +
+                "    public static final class attr {\n" + attr + "    }\n\n" +
+                "    public static final class styleable {\n" + styleable + "    }\n" +
+                "}\n";
+    }
+
+    private String createView(final int view) {
+        final StringBuilder source = new StringBuilder("package " + PACKAGE_NAME + ";\n\n")
+                .append("import com.chrynan.glimpse.Styleable;\n\n")
+                .append("public class ").append(getViewSimpleName(view)).append(" {\n");
+
+        for (int field = 0; field < fieldCount; field++) {
+            source.append("\n    @Styleable(R.styleable.").append(getViewSimpleName(view)).append("_view").append(view).append("Attr").append(field).append(")\n")
+                    .append("    public ").append(getFieldType(field)).append(" field").append(field).append(";\n");
+        }
+
+        return source.append("}\n").toString();
+    }
+
+    /**
+     * A source provided as a string.
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFile(final String simpleName, final String content) {
+            super(URI.create("string:///" + PACKAGE_NAME.replace('.', '/') + "/" + simpleName + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding 10 attributes, cycling through the field types.
+ */
+public class TenFieldView {
+
+    @Styleable(R.styleable.TenFieldView_tenField0)
+    public boolean field0;
+
+    @Styleable(R.styleable.TenFieldView_tenField1)
+    public int field1;
+
+    @Styleable(R.styleable.TenFieldView_tenField2)
+    public float field2;
+
+    @Styleable(R.styleable.TenFieldView_tenField3)
+    public String field3;
+
+    @Styleable(R.styleable.TenFieldView_tenField4)
+    public CharSequence field4;
+
+    @Styleable(R.styleable.TenFieldView_tenField5)
+    public boolean field5;
+
+    @Styleable(R.styleable.TenFieldView_tenField6)
+    public int field6;
+
+    @Styleable(R.styleable.TenFieldView_tenField7)
+    public float field7;
+
+    @Styleable(R.styleable.TenFieldView_tenField8)
+    public String field8;
+
+    @Styleable(R.styleable.TenFieldView_tenField9)
+    public CharSequence field9;
+}
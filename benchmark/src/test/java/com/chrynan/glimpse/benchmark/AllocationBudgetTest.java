@@ -0,0 +1,237 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.util.AttributeSet;
+
+import com.chrynan.glimpse.Glimpse;
+import com.chrynan.glimpse.LazyValue;
+import com.chrynan.glimpse.StyleableBinder;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks the number of bytes allocated per bind of a view, by {@link Glimpse#obtain(Object,
+ * android.content.Context, AttributeSet)} and by the generated binder, for every kind of field.
+ * Binding is measured after a warm-up, with the allocated bytes counter of the current thread, so
+ * that the result is the steady state of a compiled bind. Hidden costs, such as a varargs array, a
+ * cloned array or a binder instance per bind, exceed the budgets.
+ * <p>
+ * The budget of a kind of field is the allocation of its value by the resources, measured the same
+ * way, which the binder can't avoid: zero for primitives, Strings and enums, the array for text
+ * arrays and the Drawable for Drawables. Lazy fields only allocate their LazyValue.
+ */
+public class AllocationBudgetTest {
+
+    private static final int WARMUP_OPERATIONS = 20000;
+    private static final int MEASURED_OPERATIONS = 10000;
+
+    private static final CharSequence[] ENTRIES = {"First", "Second", "Third"};
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    private FakeContext context;
+    private Object sink;
+
+    @BeforeClass
+    public static void enableAllocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Before
+    public void setUp() {
+        context = new FakeContext();
+        context.getResources().addTextArray(R.array.entries, ENTRIES);
+        context.getResources().addDrawable(R.drawable.icon, FakeDrawable.newConstantState());
+    }
+
+    @Test
+    public void booleanFields() {
+        final BooleanFieldView view = new BooleanFieldView();
+
+        assertBudget("boolean", view, BooleanFieldView_ViewStyleableAttr.INSTANCE, R.attr.booleanField, "true", 0);
+        assertTrue(view.field);
+    }
+
+    @Test
+    public void intFields() {
+        final IntFieldView view = new IntFieldView();
+
+        assertBudget("int", view, IntFieldView_ViewStyleableAttr.INSTANCE, R.attr.intField, "42", 0);
+        assertEquals(42, view.field);
+    }
+
+    @Test
+    public void colorFields() {
+        final ColorFieldView view = new ColorFieldView();
+
+        assertBudget("color", view, ColorFieldView_ViewStyleableAttr.INSTANCE, R.attr.colorField, "#ff8800", 0);
+        assertEquals(0xffff8800, view.field);
+    }
+
+    @Test
+    public void dimensionFields() {
+        final DimensionFieldView view = new DimensionFieldView();
+
+        assertBudget("dimension", view, DimensionFieldView_ViewStyleableAttr.INSTANCE, R.attr.dimensionField, "12dp", 0);
+        assertEquals(12, view.field);
+    }
+
+    @Test
+    public void stringFields() {
+        final StringFieldView view = new StringFieldView();
+
+        assertBudget("String", view, StringFieldView_ViewStyleableAttr.INSTANCE, R.attr.stringField, "Text", 0);
+        assertEquals("Text", view.field);
+    }
+
+    @Test
+    public void enumFields() {
+        final EnumFieldView view = new EnumFieldView();
+
+        assertBudget("enum", view, EnumFieldView_ViewStyleableAttr.INSTANCE, R.attr.enumField, "17", 0);
+        assertEquals(EnumFieldView.Gravity.CENTER, view.field);
+    }
+
+    @Test
+    public void textArrayFields() {
+        final TextArrayFieldView view = new TextArrayFieldView();
+        final long budget = measureBytesPerOperation(new Runnable() {
+            @Override
+            public void run() {
+                sink = context.getResources().getTextArray(R.array.entries);
+            }
+        });
+
+        assertBudget("CharSequence[]", view, TextArrayFieldView_ViewStyleableAttr.INSTANCE, R.attr.textArrayField,
+                getReference(R.array.entries), budget);
+        assertArrayEquals(ENTRIES, view.field);
+    }
+
+    @Test
+    public void drawableFields() {
+        final DrawableFieldView view = new DrawableFieldView();
+        final long budget = measureBytesPerOperation(new Runnable() {
+            @Override
+            public void run() {
+                sink = context.getResources().getDrawable(R.drawable.icon);
+            }
+        });
+
+        assertBudget("Drawable", view, DrawableFieldView_ViewStyleableAttr.INSTANCE, R.attr.drawableField,
+                getReference(R.drawable.icon), budget);
+        assertNotNull(view.field);
+    }
+
+    @Test
+    public void lazyDrawableFields() {
+        final LazyDrawableFieldView view = new LazyDrawableFieldView();
+        final long budget = measureBytesPerOperation(new Runnable() {
+            @Override
+            public void run() {
+                sink = LazyValue.get(LazyValue.DRAWABLE, R.drawable.icon, context.getResources(), context.getTheme());
+            }
+        });
+
+        assertBudget("Lazy Drawable", view, LazyDrawableFieldView_ViewStyleableAttr.INSTANCE, R.attr.drawableField,
+                getReference(R.drawable.icon), budget);
+        assertFalse(view.field.isResolved());
+        assertNotNull(view.field.get());
+    }
+
+    @Test
+    public void subclassFields() {
+        final SubclassFieldView view = new SubclassFieldView();
+
+        // The binder of the super class reads its field from the TypedArray obtained by the subclass binder
+        assertBudget("Subclass", view, SubclassFieldView_ViewStyleableAttr.INSTANCE, new int[]{R.attr.booleanField, R.attr.intField},
+                new String[]{"true", "42"}, 0);
+        assertTrue(view.field);
+        assertEquals(42, view.subclassField);
+    }
+
+    @Test
+    public void delegateFields() {
+        final DelegateFieldView view = new DelegateFieldView();
+
+        // The binder of the delegate reads its field from the TypedArray obtained by the view binder
+        assertBudget("Delegate", view, DelegateFieldView_ViewStyleableAttr.INSTANCE, new int[]{R.attr.booleanField, R.attr.intField},
+                new String[]{"true", "42"}, 0);
+        assertTrue(view.field);
+        assertEquals(42, view.delegate.field);
+    }
+
+    /**
+     * Asserts that binding the provided view, with an {@link AttributeSet} setting its attribute to
+     * the provided value, allocates at most the budget per bind, both through {@link Glimpse} and
+     * through its generated binder.
+     */
+    private <T> void assertBudget(final String kind, final T view, final StyleableBinder<T> binder, final int attribute, final String value,
+                                  final long budget) {
+        assertBudget(kind, view, binder, new int[]{attribute}, new String[]{value}, budget);
+    }
+
+    private <T> void assertBudget(final String kind, final T view, final StyleableBinder<T> binder, final int[] attributes, final String[] values,
+                                  final long budget) {
+        final AttributeSet attributeSet = new FakeAttributeSet(attributes, values);
+
+        final long obtainBytes = measureBytesPerOperation(new Runnable() {
+            @Override
+            public void run() {
+                Glimpse.obtain(view, context, attributeSet);
+            }
+        });
+
+        assertTrue(kind + " fields allocate " + obtainBytes + " bytes per Glimpse.obtain, over their budget of " + budget + " bytes",
+                obtainBytes <= budget);
+
+        final long binderBytes = measureBytesPerOperation(new Runnable() {
+            @Override
+            public void run() {
+                binder.bind(view, context, attributeSet);
+            }
+        });
+
+        assertTrue(kind + " fields allocate " + binderBytes + " bytes per bind of the generated binder, over their budget of " + budget + " bytes",
+                binderBytes <= budget);
+    }
+
+    /**
+     * Measures the bytes allocated per run of the provided operation, after a warm-up. The result is
+     * rounded down, so that the allocations of the measurement itself, spread over every run, don't
+     * count.
+     */
+    private static long measureBytesPerOperation(final Runnable operation) {
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            operation.run();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long start = threadBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < MEASURED_OPERATIONS; i++) {
+            operation.run();
+        }
+
+        return (threadBean.getThreadAllocatedBytes(threadId) - start) / MEASURED_OPERATIONS;
+    }
+
+    private static String getReference(final int id) {
+        return "@0x" + Integer.toHexString(id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a boolean attribute.
+ */
+public class BooleanFieldView {
+
+    @Styleable(R.styleable.FieldKindView_booleanField)
+    public boolean field;
+}
@@ -0,0 +1,15 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.support.annotation.ColorInt;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a color attribute.
+ */
+public class ColorFieldView {
+
+    @ColorInt
+    @Styleable(R.styleable.FieldKindView_colorField)
+    public int field;
+}
@@ -0,0 +1,16 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableDelegate;
+
+/**
+ * A view binding a boolean attribute, whose delegate binds an int attribute.
+ */
+public class DelegateFieldView {
+
+    @Styleable(R.styleable.FieldKindView_booleanField)
+    public boolean field;
+
+    @StyleableDelegate
+    public IntFieldView delegate = new IntFieldView();
+}
@@ -0,0 +1,15 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.support.annotation.Dimension;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a dimension attribute, in dp.
+ */
+public class DimensionFieldView {
+
+    @Dimension(unit = Dimension.DP)
+    @Styleable(R.styleable.FieldKindView_dimensionField)
+    public int field;
+}
@@ -0,0 +1,14 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.graphics.drawable.Drawable;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a Drawable attribute.
+ */
+public class DrawableFieldView {
+
+    @Styleable(R.styleable.FieldKindView_drawableField)
+    public Drawable field;
+}
@@ -0,0 +1,22 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableEnumValue;
+
+/**
+ * A view binding an enum attribute.
+ */
+public class EnumFieldView {
+
+    @Styleable(R.styleable.FieldKindView_enumField)
+    public Gravity field;
+
+    public enum Gravity {
+        @StyleableEnumValue(0x03)
+        START,
+        @StyleableEnumValue(0x05)
+        END,
+        @StyleableEnumValue(0x11)
+        CENTER
+    }
+}
@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding an int attribute.
+ */
+public class IntFieldView {
+
+    @Styleable(R.styleable.FieldKindView_intField)
+    public int field;
+}
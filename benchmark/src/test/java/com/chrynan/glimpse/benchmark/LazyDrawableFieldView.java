@@ -0,0 +1,15 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.graphics.drawable.Drawable;
+
+import com.chrynan.glimpse.LazyValue;
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a Drawable attribute that is resolved on first access.
+ */
+public class LazyDrawableFieldView {
+
+    @Styleable(value = R.styleable.FieldKindView_drawableField, lazy = true)
+    public LazyValue<Drawable> field;
+}
@@ -0,0 +1,49 @@
+package com.chrynan.glimpse.benchmark;
+
+import android.util.AttributeSet;
+
+import com.chrynan.glimpse.Glimpse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that lazy Drawables are resolved with the theme of the Context they were bound with, as
+ * the TypedArray resolves Drawables that aren't lazy, so that they can reference theme attributes.
+ */
+public class LazyValueTest {
+
+    private FakeContext context;
+    private AttributeSet attributeSet;
+
+    @Before
+    public void setUp() {
+        context = new FakeContext();
+        context.getResources().addDrawable(R.drawable.icon, FakeDrawable.newConstantState());
+        attributeSet = new FakeAttributeSet(new int[]{R.attr.drawableField}, new String[]{"@0x" + Integer.toHexString(R.drawable.icon)});
+    }
+
+    @Test
+    public void lazyDrawablesAreResolvedWithTheTheme() {
+        final LazyDrawableFieldView view = new LazyDrawableFieldView();
+
+        Glimpse.obtain(view, context, attributeSet);
+
+        assertFalse(view.field.isResolved());
+        assertSame(context.getTheme(), ((FakeDrawable) view.field.get()).getTheme());
+    }
+
+    @Test
+    public void lazyDrawablesAreResolvedOnce() {
+        final LazyDrawableFieldView view = new LazyDrawableFieldView();
+
+        Glimpse.obtain(view, context, attributeSet);
+
+        assertSame(view.field.get(), view.field.get());
+        assertTrue(view.field.isResolved());
+    }
+}
@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a String attribute.
+ */
+public class StringFieldView {
+
+    @Styleable(R.styleable.FieldKindView_stringField)
+    public String field;
+}
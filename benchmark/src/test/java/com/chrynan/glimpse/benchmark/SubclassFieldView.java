@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding an int attribute, whose super class binds a boolean attribute.
+ */
+public class SubclassFieldView extends BooleanFieldView {
+
+    @Styleable(R.styleable.FieldKindView_intField)
+    public int subclassField;
+}
@@ -0,0 +1,12 @@
+package com.chrynan.glimpse.benchmark;
+
+import com.chrynan.glimpse.Styleable;
+
+/**
+ * A view binding a text array attribute.
+ */
+public class TextArrayFieldView {
+
+    @Styleable(R.styleable.FieldKindView_textArrayField)
+    public CharSequence[] field;
+}
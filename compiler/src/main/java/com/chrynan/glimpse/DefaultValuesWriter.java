@@ -0,0 +1,148 @@
+package com.chrynan.glimpse;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+
+/**
+ * Writes reads of default resource values through the runtime DefaultValues cache, which resolves
+ * each default resource once per configuration. The generated method must declare the DefaultValues
+ * and Resources locals with the provided names.
+ */
+class DefaultValuesWriter {
+
+    static final ClassName CLASS_NAME = ClassName.get("com.chrynan.glimpse", "DefaultValues");
+
+    private static final ClassName TYPED_VALUES = ClassName.get("com.chrynan.glimpse", "TypedValues");
+
+    private final String targetFieldName;
+    private final String defaultsFieldName;
+    private final String resourcesFieldName;
+
+    private DefaultValuesWriter(final String targetFieldName, final String defaultsFieldName, final String resourcesFieldName) {
+        // Private constructor - enforces to obtain an instance of this class with the writer() method
+        this.targetFieldName = targetFieldName;
+        this.defaultsFieldName = defaultsFieldName;
+        this.resourcesFieldName = resourcesFieldName;
+    }
+
+    static DefaultValuesWriter writer(final String targetFieldName, final String defaultsFieldName, final String resourcesFieldName) {
+        return new DefaultValuesWriter(targetFieldName, defaultsFieldName, resourcesFieldName);
+    }
+
+    /**
+     * Declares the DefaultValues local for the current configuration of the Resources local.
+     */
+    CodeBlock declare() {
+        return CodeBlock.of("$T $L = $T.get($L);\n", CLASS_NAME, defaultsFieldName, CLASS_NAME, resourcesFieldName);
+    }
+
+    CodeBlock getBoolean(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getBooleanDefault(idReference));
+    }
+
+    String getBooleanDefault(final String idReference) {
+        return read("getBoolean", idReference);
+    }
+
+    CodeBlock getColor(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getColorDefault(idReference));
+    }
+
+    String getColorDefault(final String idReference) {
+        return read("getColor", idReference);
+    }
+
+    CodeBlock getDimension(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getDimensionDefault(idReference));
+    }
+
+    String getDimensionDefault(final String idReference) {
+        return read("getDimension", idReference);
+    }
+
+    CodeBlock getDimensionPixelOffset(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getDimensionPixelOffsetDefault(idReference));
+    }
+
+    String getDimensionPixelOffsetDefault(final String idReference) {
+        return read("getDimensionPixelOffset", idReference);
+    }
+
+    CodeBlock getDimensionDp(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getDimensionDpDefault(idReference));
+    }
+
+    String getDimensionDpDefault(final String idReference) {
+        return read("getDimensionDp", idReference);
+    }
+
+    CodeBlock getDimensionSp(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getDimensionSpDefault(idReference));
+    }
+
+    String getDimensionSpDefault(final String idReference) {
+        return read("getDimensionSp", idReference);
+    }
+
+    CodeBlock getInt(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getIntDefault(idReference));
+    }
+
+    String getIntDefault(final String idReference) {
+        return read("getInt", idReference);
+    }
+
+    CodeBlock getEnum(final String fieldName, final String idReference, final String lookupName, final int firstValue) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getEnumDefault(idReference, lookupName, firstValue));
+    }
+
+    /**
+     * Reads the default of an enum field as an int resource, mapped through the provided lookup
+     * table of the generated binder.
+     */
+    CodeBlock getEnumDefault(final String idReference, final String lookupName, final int firstValue) {
+        return CodeBlock.of("$T.getEnum($L, $L, $L)", TYPED_VALUES, lookupName, firstValue, getIntDefault(idReference));
+    }
+
+    CodeBlock getFloat(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, getFloatDefault(idReference));
+    }
+
+    String getFloatDefault(final String idReference) {
+        return read("getFloat", idReference);
+    }
+
+    CodeBlock getString(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, read("getString", idReference));
+    }
+
+    CodeBlock getText(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, read("getText", idReference));
+    }
+
+    CodeBlock getTextArray(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, read("getTextArray", idReference));
+    }
+
+    CodeBlock getColorStateList(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, read("getColorStateList", idReference));
+    }
+
+    CodeBlock getColorStateList(final String fieldName, final String typedArrayName, final String indexReference) {
+        return CodeBlock.of("$L.$L = $L.getColorStateList($L, $L, $L);", targetFieldName, fieldName, defaultsFieldName, resourcesFieldName,
+                typedArrayName, indexReference);
+    }
+
+    CodeBlock getDrawable(final String fieldName, final String idReference) {
+        return CodeBlock.of("$L.$L = $L;", targetFieldName, fieldName, read("getDrawable", idReference));
+    }
+
+    CodeBlock getDrawable(final String fieldName, final String typedArrayName, final String indexReference) {
+        return CodeBlock.of("$L.$L = $L.getDrawable($L, $L, $L);", targetFieldName, fieldName, defaultsFieldName, resourcesFieldName,
+                typedArrayName, indexReference);
+    }
+
+    private String read(final String methodName, final String idReference) {
+        return CodeBlock.of("$L.$L($L, $L)", defaultsFieldName, methodName, resourcesFieldName, idReference).toString();
+    }
+}
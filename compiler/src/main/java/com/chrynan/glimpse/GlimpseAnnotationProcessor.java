@@ -2,15 +2,25 @@ package com.chrynan.glimpse;
 
 import com.google.auto.service.AutoService;
 import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.JavaFile;
 import com.sun.source.util.Trees;
 
+import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -20,7 +30,10 @@ import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -34,13 +47,28 @@ public class GlimpseAnnotationProcessor extends AbstractProcessor {
 
     static final String CLASS_NAME = "com.chrynan.glimpse.GlimpseAnnotationProcessor";
 
+    private static final String ANDROID_CLASS_PREFIX = "android.";
+    private static final String JAVA_CLASS_PREFIX = "java.";
+    private static final String GRADLE_ISOLATING_OPTION = "org.gradle.annotation.processing.isolating";
+    private static final String GRADLE_AGGREGATING_OPTION = "org.gradle.annotation.processing.aggregating";
+    private static final String WRAPPED_ENVIRONMENT_FIELD = "delegate";
+
     private final Map<TypeElement, List<StyleableField>> fieldMap = new HashMap<>();
+    private final Map<TypeElement, List<StyleableDelegateField>> delegateMap = new HashMap<>();
+    private final Set<TypeElement> indexedElements = new LinkedHashSet<>();
+    private final TimingReport timingReport = new TimingReport();
+
+    private GlimpseOptions options;
+    private ClassName indexClassName;
+    private boolean indexWritten;
 
     private Filer filer;
     private Messager messager;
     private Trees trees;
     private Elements elementUtils;
     private Types typeUtils;
+    private RClassIndex rClassIndex;
+    private ForkJoinPool generationPool;
 
     @Override
     public SourceVersion getSupportedSourceVersion() {
@@ -49,56 +77,445 @@ public class GlimpseAnnotationProcessor extends AbstractProcessor {
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        return ImmutableSet.of(Styleable.class.getCanonicalName());
+        return ImmutableSet.of(Styleable.class.getCanonicalName(), StyleableDelegate.class.getCanonicalName());
+    }
+
+    /**
+     * Retrieves the supported processor options. The processor is registered with Gradle as a
+     * dynamic incremental processor, and declares here whether it's isolating, each binder being
+     * generated from a single class, or aggregating, when the index of all of the bound classes is
+     * generated.
+     */
+    @Override
+    public Set<String> getSupportedOptions() {
+        final String incrementalOption = indexClassName != null ? GRADLE_AGGREGATING_OPTION : GRADLE_ISOLATING_OPTION;
+
+        return ImmutableSet.<String>builder()
+                .addAll(GlimpseOptions.SUPPORTED_OPTIONS)
+                .add(incrementalOption)
+                .build();
     }
 
     @Override
     public synchronized void init(ProcessingEnvironment env) {
         filer = env.getFiler();
         messager = env.getMessager();
-        trees = Trees.instance(env);
+        trees = getTrees(env);
         elementUtils = env.getElementUtils();
         typeUtils = env.getTypeUtils();
+
+        try {
+            options = GlimpseOptions.from(env.getOptions());
+        } catch (IllegalArgumentException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+            options = GlimpseOptions.from(Collections.<String, String>emptyMap());
+        }
+
+        indexClassName = options.getIndexClassName();
+
+        if (options.getParallelism() > 1) {
+            generationPool = new ForkJoinPool(options.getParallelism());
+        }
+    }
+
+    /**
+     * Retrieves the {@link Trees} of the compiler. Gradle wraps the environment of incremental
+     * processors, which the compiler doesn't accept, so the wrapped environment is used instead.
+     */
+    private static Trees getTrees(final ProcessingEnvironment env) {
+        try {
+            return Trees.instance(env);
+        } catch (IllegalArgumentException e) {
+            try {
+                final Field field = env.getClass().getDeclaredField(WRAPPED_ENVIRONMENT_FIELD);
+                field.setAccessible(true);
+
+                return getTrees((ProcessingEnvironment) field.get(env));
+            } catch (NoSuchFieldException | IllegalAccessException | ClassCastException ignored) {
+                throw e;
+            }
+        }
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> set, RoundEnvironment roundEnvironment) {
+        timingReport.startRound();
         fieldMap.clear();
+        delegateMap.clear();
+        // The R classes are read once per round, since a round may generate them
+        rClassIndex = new RClassIndex(trees, elementUtils);
+
+        // Each binder only depends on its class, its ancestors and the classes of its delegates, never
+        // on the other classes of the round, so that Gradle can process it in isolation
+        final Set<TypeElement> typeElements = new LinkedHashSet<>();
 
         for (final Element element : roundEnvironment.getElementsAnnotatedWith(Styleable.class)) {
-            messager.printMessage(Diagnostic.Kind.NOTE, "Element = " + element.getSimpleName().toString());
-            try {
-                final TypeElement containingClass = (TypeElement) element.getEnclosingElement();
-                final StyleableField styleableField = new StyleableField(element, RClassUtil.getStyleableAnnotationValues(trees, elementUtils, typeUtils, messager, element));
+            typeElements.add((TypeElement) element.getEnclosingElement());
+        }
 
-                List<StyleableField> fields = fieldMap.get(containingClass);
+        for (final Element element : roundEnvironment.getElementsAnnotatedWith(StyleableDelegate.class)) {
+            typeElements.add((TypeElement) element.getEnclosingElement());
+        }
 
-                if (fields == null) {
-                    fields = new ArrayList<>();
-                }
+        // The models are extracted on the compiler thread, since the compiler isn't thread safe
+        final List<StyleableClass> styleableClasses = new ArrayList<>();
+        final long extractionStart = System.nanoTime();
+
+        for (final TypeElement typeElement : typeElements) {
+            note("Class = " + typeElement.getQualifiedName());
+            timingReport.addClass();
+            try {
+                final List<StyleableField> fields = new ArrayList<>();
+                final List<StyleableDelegateField> delegates = new ArrayList<>();
+                final ClassName superBinderClassName = getSuperBinderClassName(typeElement);
+
+                addBindings(typeElement, fields, delegates);
 
-                fields.add(styleableField);
+                final MergedAttributes mergedAttributes = MergedAttributes.resolve(elementUtils, fields);
 
-                fieldMap.put(containingClass, fields);
+                styleableClasses.add(new StyleableClass(typeElement, fields, delegates, mergedAttributes, superBinderClassName));
             } catch (Exception e) {
-                messager.printMessage(Diagnostic.Kind.ERROR, "Error processing Styleable annotation. Message = " + e.getMessage(), element);
+                reportGenerationError(e);
             }
         }
 
-        for (final Map.Entry<TypeElement, List<StyleableField>> entry : fieldMap.entrySet()) {
-            messager.printMessage(Diagnostic.Kind.NOTE, entry.getKey().getSimpleName().toString());
+        timingReport.addExtraction(System.nanoTime() - extractionStart);
+
+        final long generationStart = System.nanoTime();
+        final List<JavaFile> files = createFiles(styleableClasses);
+
+        timingReport.addGeneration(System.nanoTime() - generationStart);
+
+        // The files are written on the compiler thread, in the order of the classes
+        final long writeStart = System.nanoTime();
+
+        for (int i = 0; i < styleableClasses.size(); i++) {
+            final JavaFile file = files.get(i);
+
+            if (file == null) {
+                continue;
+            }
+
             try {
-                JavaFile file = StyleableAttributeClassCreator.create(entry.getKey(), entry.getValue());
                 file.writeTo(filer);
+
+                if (indexClassName != null) {
+                    addToIndex(styleableClasses.get(i).getTypeElement());
+                }
             } catch (IOException e) {
                 messager.printMessage(Diagnostic.Kind.ERROR, "Error generating styleable attribute binding class. " +
                         "There was an issue writing the file out to the Filer. Message = " + e.getMessage());
-            } catch (Exception e) {
-                messager.printMessage(Diagnostic.Kind.ERROR, "Error generating styleable attribute binding class. " +
-                        "The JavaFile object seems not to of been properly created. Message = " + e.getMessage());
             }
         }
 
+        // The index is written once a round finds no new bound classes, which is the round after the
+        // binders are written, so that classes generated by other processors in the meantime are in it
+        if (indexClassName != null && !indexedElements.isEmpty() && !indexWritten && (typeElements.isEmpty() || roundEnvironment.processingOver())) {
+            try {
+                GlimpseIndexCreator.create(indexClassName, indexedElements).writeTo(filer);
+                indexWritten = true;
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Error generating the Glimpse index class. " +
+                        "There was an issue writing the file out to the Filer. Message = " + e.getMessage());
+            }
+        }
+
+        timingReport.addWrite(System.nanoTime() - writeStart);
+        timingReport.endRound();
+
+        if (options.isVerbose() && !typeElements.isEmpty()) {
+            note(timingReport.getLastRoundSummary());
+        }
+
+        if (roundEnvironment.processingOver()) {
+            if (generationPool != null) {
+                generationPool.shutdown();
+            }
+
+            writeTimingReport();
+        }
+
         return false;
     }
+
+    /**
+     * Creates the binding classes of the provided classes, on the generation pool if there is one.
+     *
+     * @return The files, in the order of the classes, with null for a class whose creation failed,
+     * in which case the error was reported.
+     */
+    private List<JavaFile> createFiles(final List<StyleableClass> styleableClasses) {
+        final List<JavaFile> files = new ArrayList<>(styleableClasses.size());
+
+        if (generationPool == null || styleableClasses.size() < 2) {
+            for (final StyleableClass styleableClass : styleableClasses) {
+                try {
+                    files.add(StyleableAttributeClassCreator.create(styleableClass, options));
+                } catch (Exception e) {
+                    reportGenerationError(e);
+                    files.add(null);
+                }
+            }
+
+            return files;
+        }
+
+        final List<Callable<JavaFile>> tasks = new ArrayList<>(styleableClasses.size());
+
+        for (final StyleableClass styleableClass : styleableClasses) {
+            tasks.add(new Callable<JavaFile>() {
+                @Override
+                public JavaFile call() {
+                    return StyleableAttributeClassCreator.create(styleableClass, options);
+                }
+            });
+        }
+
+        for (final Future<JavaFile> future : generationPool.invokeAll(tasks)) {
+            try {
+                files.add(future.get());
+            } catch (ExecutionException e) {
+                reportGenerationError(e.getCause());
+                files.add(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reportGenerationError(e);
+                files.add(null);
+            }
+        }
+
+        return files;
+    }
+
+    private void writeTimingReport() {
+        final File file = options.getTimingReportFile();
+
+        if (file == null) {
+            return;
+        }
+
+        try {
+            timingReport.writeTo(file, options.getParallelism());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Couldn't write the Glimpse timing report to " + file + ". Message = " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the provided note if the processor is verbose.
+     */
+    private void note(final String message) {
+        if (options.isVerbose()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, message);
+        }
+    }
+
+    private void reportGenerationError(final Throwable throwable) {
+        messager.printMessage(Diagnostic.Kind.ERROR, "Error generating styleable attribute binding class. " +
+                "The JavaFile object seems not to of been properly created. Message = " + throwable.getMessage());
+    }
+
+    /**
+     * Retrieves the {@link Styleable} fields declared by the provided class.
+     */
+    private List<StyleableField> getStyleableFields(final TypeElement typeElement) {
+        List<StyleableField> fields = fieldMap.get(typeElement);
+
+        if (fields == null) {
+            fields = new ArrayList<>();
+
+            for (final VariableElement element : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+                if (element.getAnnotation(Styleable.class) != null) {
+                    note("Element = " + element.getSimpleName());
+                    try {
+                        final long resolutionStart = System.nanoTime();
+                        final StyleableAnnotationValues values = RClassUtil.getStyleableAnnotationValues(rClassIndex, element);
+
+                        timingReport.addResolution(System.nanoTime() - resolutionStart);
+
+                        if (values.getStyleableValue() != null) {
+                            note("fieldName = " + values.getStyleableValue().getFullName());
+                            note("groupName = " + values.getStyleableValue().getGroupName());
+                        }
+
+                        fields.add(new StyleableField(element, values));
+                    } catch (Exception e) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, "Error processing Styleable annotation. Message = " + e.getMessage(), element);
+                    }
+                }
+            }
+
+            fieldMap.put(typeElement, fields);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Retrieves the {@link StyleableDelegate} fields declared by the provided class.
+     */
+    private List<StyleableDelegateField> getStyleableDelegates(final TypeElement typeElement) {
+        List<StyleableDelegateField> delegates = delegateMap.get(typeElement);
+
+        if (delegates == null) {
+            delegates = new ArrayList<>();
+
+            for (final VariableElement element : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+                if (element.getAnnotation(StyleableDelegate.class) != null) {
+                    try {
+                        delegates.add(new StyleableDelegateField(element, getDelegateBinderClassName(typeElement, element)));
+                    } catch (Exception e) {
+                        messager.printMessage(Diagnostic.Kind.ERROR, "Error processing StyleableDelegate annotation. Message = " + e.getMessage(), element);
+                    }
+                }
+            }
+
+            delegateMap.put(typeElement, delegates);
+        }
+
+        return delegates;
+    }
+
+    /**
+     * Retrieves the binder of the class of the provided {@link StyleableDelegate} annotated field,
+     * which the binder of the containing class invokes. If the class has no bindings of its own, the
+     * binder of its nearest ancestor with bindings is used instead, and in both cases the fields the
+     * class inherits are bound by the binders of its ancestors. Like the binder of an ancestor, it's
+     * referenced by name whether the delegate class is compiled from source or not, so that an
+     * incremental compilation generates the same binder as a full one.
+     */
+    private ClassName getDelegateBinderClassName(final TypeElement containingClass, final Element delegateElement) {
+        final Element delegateType = typeUtils.asElement(delegateElement.asType());
+
+        if (!(delegateType instanceof TypeElement)) {
+            throw new IllegalArgumentException("StyleableDelegate annotated fields must have a class type.");
+        }
+
+        final TypeElement delegateClass = (TypeElement) delegateType;
+
+        if (reachesDelegateClass(delegateClass, containingClass, new HashSet<TypeElement>())) {
+            throw new IllegalArgumentException("The class " + delegateClass.getQualifiedName() + " delegates back to " +
+                    containingClass.getQualifiedName() + ". StyleableDelegate fields can't form a cycle.");
+        }
+
+        for (TypeElement type = delegateClass; type != null; type = getSuperclass(type)) {
+            final ClassName binderClassName = StyleableAttributeClassCreator.getAttributeClassName(type);
+
+            if (hasBindings(type) || elementUtils.getTypeElement(binderClassName.toString()) != null) {
+                return binderClassName;
+            }
+        }
+
+        throw new IllegalArgumentException("The class " + delegateClass.getQualifiedName() + " and its super classes have no Styleable annotated fields.");
+    }
+
+    /**
+     * Whether the binder of the provided class, through the binders of its ancestors and delegates,
+     * would invoke the binder of the target class. A binder in such a cycle would never finish
+     * resolving its attribute indexes.
+     */
+    private boolean reachesDelegateClass(final TypeElement typeElement, final TypeElement target, final Set<TypeElement> visited) {
+        if (!visited.add(typeElement)) {
+            return false;
+        }
+
+        for (TypeElement type = typeElement; type != null; type = getSuperclass(type)) {
+            if (type.equals(target)) {
+                return true;
+            }
+
+            for (final VariableElement element : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (element.getAnnotation(StyleableDelegate.class) == null) {
+                    continue;
+                }
+
+                final Element delegateType = typeUtils.asElement(element.asType());
+
+                if (delegateType instanceof TypeElement && reachesDelegateClass((TypeElement) delegateType, target, visited)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieves the binder of the nearest ancestor of the provided class with bindings, which the
+     * generated binder invokes before its own bindings. An ancestor has a binder if it declares
+     * {@link Styleable} or {@link StyleableDelegate} fields, or if its binder was generated
+     * previously. Whether the ancestor is compiled from source or not isn't considered, so that an
+     * incremental compilation generates the same binder as a full one.
+     *
+     * @return The {@link ClassName} of the binder of the nearest ancestor with bindings, or null if
+     * there is none.
+     */
+    private ClassName getSuperBinderClassName(final TypeElement typeElement) {
+        for (TypeElement ancestor = getSuperclass(typeElement); ancestor != null; ancestor = getSuperclass(ancestor)) {
+            final ClassName ancestorBinderClassName = StyleableAttributeClassCreator.getAttributeClassName(ancestor);
+
+            if (hasBindings(ancestor) || elementUtils.getTypeElement(ancestorBinderClassName.toString()) != null) {
+                return ancestorBinderClassName;
+            }
+        }
+
+        return null;
+    }
+
+    private void addBindings(final TypeElement typeElement, final List<StyleableField> fields, final List<StyleableDelegateField> delegates) {
+        fields.addAll(getStyleableFields(typeElement));
+        delegates.addAll(getStyleableDelegates(typeElement));
+    }
+
+    private static boolean hasBindings(final TypeElement typeElement) {
+        for (final VariableElement element : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            if (element.getAnnotation(Styleable.class) != null || element.getAnnotation(StyleableDelegate.class) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieves the super class of the provided class, or null if it has none or if it's a framework
+     * class, which never has Styleable annotated fields.
+     */
+    private TypeElement getSuperclass(final TypeElement typeElement) {
+        final Element superclass = typeUtils.asElement(typeElement.getSuperclass());
+
+        if (!(superclass instanceof TypeElement)) {
+            return null;
+        }
+
+        final String name = ((TypeElement) superclass).getQualifiedName().toString();
+
+        return name.startsWith(ANDROID_CLASS_PREFIX) || name.startsWith(JAVA_CLASS_PREFIX) ? null : (TypeElement) superclass;
+    }
+
+    private void addToIndex(final TypeElement typeElement) {
+        if (indexWritten) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "The Glimpse index class " + indexClassName + " was already written in a previous " +
+                    "round. Styleable annotated fields in generated sources can't be added to it.", typeElement);
+        } else if (isVisibleFromPackage(typeElement, indexClassName.packageName())) {
+            indexedElements.add(typeElement);
+        } else {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Class " + typeElement.getQualifiedName() + " is not visible from the Glimpse index " +
+                    "package and will be bound using reflection.", typeElement);
+        }
+    }
+
+    private static boolean isVisibleFromPackage(final TypeElement typeElement, final String packageName) {
+        if (packageName.equals(StringUtils.getPackageName(typeElement))) {
+            return !typeElement.getModifiers().contains(Modifier.PRIVATE);
+        }
+
+        for (Element element = typeElement; element.getKind().isClass() || element.getKind().isInterface(); element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
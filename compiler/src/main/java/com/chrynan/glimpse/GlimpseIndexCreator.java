@@ -0,0 +1,123 @@
+package com.chrynan.glimpse;
+
+import com.google.common.base.Joiner;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * A class that handles the generation of the {@link GlimpseIndex} implementation which maps the
+ * target classes to their {@link StyleableBinder} without the need of reflection at runtime. The
+ * look up is a switch on the class name, so that a binder class is only initialized when its
+ * target class is first bound, instead of every binder of the module when the index is created.
+ */
+class GlimpseIndexCreator {
+
+    private static final ClassName GLIMPSE_INDEX = ClassName.get("com.chrynan.glimpse", "GlimpseIndex");
+    private static final ClassName STYLEABLE_BINDER = ClassName.get("com.chrynan.glimpse", "StyleableBinder");
+    private static final ClassName CLASS = ClassName.get(Class.class);
+    private static final ClassName SET = ClassName.get(Set.class);
+    private static final ClassName HASH_SET = ClassName.get(HashSet.class);
+    private static final ClassName ARRAYS = ClassName.get(Arrays.class);
+    private static final ClassName COLLECTIONS = ClassName.get(Collections.class);
+    private static final ClassName OVERRIDE = ClassName.get(Override.class);
+    private static final ClassName GENERATED_ANNOTATION = ClassName.get("javax.annotation", "Generated");
+    private static final TypeName WILDCARD_CLASS = ParameterizedTypeName.get(CLASS, WildcardTypeName.subtypeOf(Object.class));
+    private static final TypeName WILDCARD_BINDER = ParameterizedTypeName.get(STYLEABLE_BINDER, WildcardTypeName.subtypeOf(Object.class));
+    private static final TypeName CLASS_SET = ParameterizedTypeName.get(SET, WILDCARD_CLASS);
+
+    private static final String TARGET_CLASS_FIELD_NAME = "targetClass";
+    private static final String GENERATED_ANNOTATION_VALUE_FIELD = "value";
+
+    private GlimpseIndexCreator() {
+        // Private constructor to prevent initialization of this object.
+    }
+
+    static JavaFile create(final ClassName indexClassName, final Collection<TypeElement> typeElements) {
+        final List<TypeElement> sortedTypeElements = new ArrayList<>(typeElements);
+
+        Collections.sort(sortedTypeElements, new Comparator<TypeElement>() {
+            @Override
+            public int compare(final TypeElement first, final TypeElement second) {
+                return first.getQualifiedName().toString().compareTo(second.getQualifiedName().toString());
+            }
+        });
+
+        final CodeBlock.Builder getBinderCode = CodeBlock.builder()
+                .beginControlFlow("switch ($L.getName())", TARGET_CLASS_FIELD_NAME);
+        final CodeBlock.Builder targetClasses = CodeBlock.builder();
+
+        for (int i = 0; i < sortedTypeElements.size(); i++) {
+            final TypeElement typeElement = sortedTypeElements.get(i);
+            final ClassName targetClassName = ClassName.get(typeElement);
+
+            // The name is compared first, since a class literal doesn't initialize the class
+            getBinderCode.add("case $S:\n$>", getBinaryName(targetClassName))
+                    .addStatement("return $L == $T.class ? $T.$L : null", TARGET_CLASS_FIELD_NAME, targetClassName,
+                            StyleableAttributeClassCreator.getAttributeClassName(typeElement), StyleableAttributeClassCreator.INSTANCE_FIELD_NAME)
+                    .add("$<");
+            targetClasses.add(i == 0 ? "$T.class" : ", $T.class", targetClassName);
+        }
+
+        getBinderCode.add("default:\n$>")
+                .addStatement("return null")
+                .add("$<")
+                .endControlFlow();
+
+        final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(indexClassName.simpleName())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(GLIMPSE_INDEX)
+                .addAnnotation(AnnotationSpec.builder(GENERATED_ANNOTATION)
+                        .addMember(GENERATED_ANNOTATION_VALUE_FIELD, "$S", GlimpseAnnotationProcessor.CLASS_NAME)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getBinder")
+                        .addAnnotation(OVERRIDE)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(WILDCARD_BINDER)
+                        .addParameter(WILDCARD_CLASS, TARGET_CLASS_FIELD_NAME, Modifier.FINAL)
+                        .addCode(getBinderCode.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getTargetClasses")
+                        .addAnnotation(OVERRIDE)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(CLASS_SET)
+                        .addStatement("return $T.unmodifiableSet(new $T<$T>($T.asList($L)))", COLLECTIONS, HASH_SET, WILDCARD_CLASS, ARRAYS,
+                                targetClasses.build())
+                        .build());
+
+        // The index aggregates all of the bound classes, so it originates from every one of them
+        for (final TypeElement typeElement : sortedTypeElements) {
+            classBuilder.addOriginatingElement(typeElement);
+        }
+
+        return JavaFile.builder(indexClassName.packageName(), classBuilder.build()).build();
+    }
+
+    /**
+     * Retrieves the name returned by Class.getName() for the provided class, which separates nested
+     * classes with a dollar sign.
+     */
+    private static String getBinaryName(final ClassName className) {
+        final String simpleNames = Joiner.on('$').join(className.simpleNames());
+
+        return className.packageName().isEmpty() ? simpleNames : className.packageName() + "." + simpleNames;
+    }
+}
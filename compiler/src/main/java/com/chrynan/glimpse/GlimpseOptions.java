@@ -0,0 +1,153 @@
+package com.chrynan.glimpse;
+
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ClassName;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A model representation of the annotation processor options supported by the
+ * {@link GlimpseAnnotationProcessor}. Options are passed to the compiler as "-Aname=value".
+ */
+class GlimpseOptions {
+
+    /**
+     * The processor option providing the fully qualified class name of the {@link GlimpseIndex} to
+     * generate (ex: -AglimpseIndex=com.myapp.MyGlimpseIndex). If this option is not provided, no
+     * index is generated and the runtime falls back to reflection.
+     */
+    static final String OPTION_INDEX = "glimpseIndex";
+
+    /**
+     * The processor option stating whether the generated binders support the runtime snapshot cache
+     * (ex: -AglimpseSnapshots=true). Disabled by default since it adds code to every binder.
+     */
+    static final String OPTION_SNAPSHOTS = "glimpseSnapshots";
+
+    /**
+     * The processor option providing the minimum number of attributes a styleable group must bind
+     * for the generated code to iterate over the attributes present in the TypedArray, instead of
+     * reading every attribute (ex: -AglimpseSparseThreshold=8). Disabled by default.
+     */
+    static final String OPTION_SPARSE_THRESHOLD = "glimpseSparseThreshold";
+
+    /**
+     * The processor option providing the number of threads generating the binding classes
+     * (ex: -AglimpseParallelism=4). The files are still written by the compiler thread, in the same
+     * order and with the same content as with a single thread. Disabled by default, a value of zero
+     * or one generating the classes on the compiler thread.
+     */
+    static final String OPTION_PARALLELISM = "glimpseParallelism";
+
+    /**
+     * The processor option stating whether the processor prints a note for every class and field
+     * it processes and a summary of every round (ex: -AglimpseVerbose=true). Disabled by default
+     * since it floods the build output of large modules.
+     */
+    static final String OPTION_VERBOSE = "glimpseVerbose";
+
+    /**
+     * The processor option providing the path of a JSON file to write the time spent in each stage
+     * of every processing round to (ex: -AglimpseTimingReport=build/reports/glimpse.json). If this
+     * option is not provided, no report is written.
+     */
+    static final String OPTION_TIMING_REPORT = "glimpseTimingReport";
+
+    static final Set<String> SUPPORTED_OPTIONS = ImmutableSet.of(OPTION_INDEX, OPTION_SNAPSHOTS, OPTION_SPARSE_THRESHOLD, OPTION_PARALLELISM,
+            OPTION_VERBOSE, OPTION_TIMING_REPORT);
+
+    private final ClassName indexClassName;
+    private final boolean snapshotsEnabled;
+    private final int sparseThreshold;
+    private final int parallelism;
+    private final boolean verbose;
+    private final File timingReportFile;
+
+    private GlimpseOptions(final ClassName indexClassName, final boolean snapshotsEnabled, final int sparseThreshold, final int parallelism,
+                           final boolean verbose, final File timingReportFile) {
+        this.indexClassName = indexClassName;
+        this.snapshotsEnabled = snapshotsEnabled;
+        this.sparseThreshold = sparseThreshold;
+        this.parallelism = parallelism;
+        this.verbose = verbose;
+        this.timingReportFile = timingReportFile;
+    }
+
+    static GlimpseOptions from(final Map<String, String> options) {
+        final String index = options.get(OPTION_INDEX);
+        ClassName indexClassName = null;
+
+        if (!StringUtils.isEmpty(index)) {
+            final int lastDot = index.lastIndexOf('.');
+            indexClassName = ClassName.get(lastDot != -1 ? index.substring(0, lastDot) : "", index.substring(lastDot + 1));
+        }
+
+        final String timingReport = options.get(OPTION_TIMING_REPORT);
+
+        return new GlimpseOptions(indexClassName, Boolean.parseBoolean(options.get(OPTION_SNAPSHOTS)),
+                getIntOption(options, OPTION_SPARSE_THRESHOLD), getIntOption(options, OPTION_PARALLELISM),
+                Boolean.parseBoolean(options.get(OPTION_VERBOSE)), !StringUtils.isEmpty(timingReport) ? new File(timingReport.trim()) : null);
+    }
+
+    private static int getIntOption(final Map<String, String> options, final String name) {
+        final String value = options.get(name);
+
+        if (StringUtils.isEmpty(value)) {
+            return 0;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The processor option " + name + " must be an integer. Value = " + value);
+        }
+    }
+
+    /**
+     * Retrieves the {@link ClassName} of the index to generate.
+     *
+     * @return The index {@link ClassName} or null if no index should be generated.
+     */
+    ClassName getIndexClassName() {
+        return indexClassName;
+    }
+
+    boolean isSnapshotsEnabled() {
+        return snapshotsEnabled;
+    }
+
+    /**
+     * Retrieves the minimum number of attributes of a styleable group for which sparse iteration is
+     * generated.
+     *
+     * @return The threshold or zero if sparse iteration is disabled.
+     */
+    int getSparseThreshold() {
+        return sparseThreshold;
+    }
+
+    /**
+     * Retrieves the number of threads generating the binding classes.
+     *
+     * @return The number of threads or zero or one if the classes are generated on the compiler
+     * thread.
+     */
+    int getParallelism() {
+        return parallelism;
+    }
+
+    boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Retrieves the file to write the timing report to.
+     *
+     * @return The report {@link File} or null if no report should be written.
+     */
+    File getTimingReportFile() {
+        return timingReportFile;
+    }
+}
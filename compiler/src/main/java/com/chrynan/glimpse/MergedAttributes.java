@@ -0,0 +1,120 @@
+package com.chrynan.glimpse;
+
+import com.squareup.javapoet.ClassName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * A single attribute array containing exactly the attributes bound by a class, across all of the
+ * styleable groups its fields use. Binding from one TypedArray obtained with this array resolves
+ * the theme once per bind instead of once per styleable group.
+ * <p>
+ * The attribute ids are resolved at compile time from the R.attr class matching each styleable
+ * index, where R.styleable.MyView_myAttr matches R.attr.myAttr and
+ * R.styleable.MyView_android_textSize matches android.R.attr.textSize. The array is sorted by
+ * attribute id, as obtainStyledAttributes requires, and the fields are bound with their index in
+ * it.
+ */
+class MergedAttributes {
+
+    static final String FIELD_NAME = "ATTRS";
+
+    private static final String ATTR_CLASS_NAME = "attr";
+    private static final String ANDROID_ATTRIBUTE_PREFIX = "android_";
+    private static final ClassName ANDROID_R_CLASS_NAME = ClassName.get("android", "R");
+
+    private final List<String> attributeReferences;
+    private final Map<String, Integer> indexes;
+
+    private MergedAttributes(final List<String> attributeReferences, final Map<String, Integer> indexes) {
+        this.attributeReferences = attributeReferences;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Resolves the merged attribute array of the provided fields.
+     *
+     * @return The {@link MergedAttributes} or null if an attribute id isn't a compile time constant,
+     * for instance in a library module whose R fields aren't final, in which case the fields are
+     * bound from the array of their styleable group.
+     */
+    static MergedAttributes resolve(final Elements elementUtils, final List<StyleableField> fields) {
+        final Map<Integer, String> attributesById = new TreeMap<>();
+        final Map<String, Integer> idsByStyleableValue = new HashMap<>();
+
+        for (final StyleableField field : fields) {
+            final Integer id = resolveAttributeId(elementUtils, field, attributesById);
+
+            if (id == null) {
+                return null;
+            }
+
+            idsByStyleableValue.put(field.getStyleableValue(), id);
+        }
+
+        final List<String> attributeReferences = new ArrayList<>(attributesById.values());
+        final List<Integer> sortedIds = new ArrayList<>(attributesById.keySet());
+        final Map<String, Integer> indexes = new HashMap<>();
+
+        for (final Map.Entry<String, Integer> entry : idsByStyleableValue.entrySet()) {
+            indexes.put(entry.getKey(), sortedIds.indexOf(entry.getValue()));
+        }
+
+        return new MergedAttributes(attributeReferences, indexes);
+    }
+
+    private static Integer resolveAttributeId(final Elements elementUtils, final StyleableField field, final Map<Integer, String> attributesById) {
+        String attributeName = field.getAttributeName();
+        ClassName attrClassName = field.getStyleableRClassName().nestedClass(ATTR_CLASS_NAME);
+
+        if (attributeName == null) {
+            return null;
+        }
+
+        if (attributeName.startsWith(ANDROID_ATTRIBUTE_PREFIX)) {
+            attributeName = attributeName.substring(ANDROID_ATTRIBUTE_PREFIX.length());
+            attrClassName = ANDROID_R_CLASS_NAME.nestedClass(ATTR_CLASS_NAME);
+        }
+
+        final TypeElement attrClass = elementUtils.getTypeElement(attrClassName.toString());
+
+        if (attrClass == null) {
+            return null;
+        }
+
+        for (final VariableElement attribute : ElementFilter.fieldsIn(attrClass.getEnclosedElements())) {
+            if (attribute.getSimpleName().contentEquals(attributeName) && attribute.getConstantValue() instanceof Integer) {
+                final Integer id = (Integer) attribute.getConstantValue();
+
+                attributesById.put(id, attrClassName.toString() + "." + attributeName);
+
+                return id;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the references to the R.attr fields of the array, sorted by attribute id.
+     */
+    List<String> getAttributeReferences() {
+        return attributeReferences;
+    }
+
+    /**
+     * Retrieves the index, in the merged array, of the attribute bound by the provided field.
+     */
+    int getIndex(final StyleableField field) {
+        return indexes.get(field.getStyleableValue());
+    }
+}
@@ -4,27 +4,43 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 
 /**
- * Created by ckeenan on 2/24/17.
+ * Created by ckeenan on 2/24/17. Writes the retrieval of dimensions in dp or sp. The value is
+ * converted at runtime from the complex dimension of the attribute, using the DisplayMetrics local
+ * which is obtained once per bind.
  */
 class PixelConverterWriter {
 
-    private static final ClassName DISPLAY_METRICS_CLASS_NAME = ClassName.get("android.util", "DisplayMetrics");
+    static final ClassName DISPLAY_METRICS_CLASS_NAME = ClassName.get("android.util", "DisplayMetrics");
+
+    private static final ClassName TYPED_VALUES = ClassName.get("com.chrynan.glimpse", "TypedValues");
 
     private final String targetContainerFieldName;
-    private final String contextFieldName;
-    private String targetFieldName;
+    private final String displayMetricsFieldName;
 
-    private PixelConverterWriter(final String targetContainerFieldName, final String contextFieldName) {
+    private PixelConverterWriter(final String targetContainerFieldName, final String displayMetricsFieldName) {
         // Private constructor - enforces to obtain an instance of this class with the writer() method
         this.targetContainerFieldName = targetContainerFieldName;
-        this.contextFieldName = contextFieldName;
+        this.displayMetricsFieldName = displayMetricsFieldName;
+    }
+
+    static PixelConverterWriter writer(final String targetContainerFieldName, final String displayMetricsFieldName) {
+        return new PixelConverterWriter(targetContainerFieldName, displayMetricsFieldName);
+    }
+
+    /**
+     * Declares the DisplayMetrics local from the provided Resources local.
+     */
+    CodeBlock declare(final String resourcesFieldName) {
+        return CodeBlock.of("$T $L = $L.getDisplayMetrics();\n", DISPLAY_METRICS_CLASS_NAME, displayMetricsFieldName, resourcesFieldName);
     }
 
-    static PixelConverterWriter writer(final String targetContainerFieldName, final String contextFieldName) {
-        return new PixelConverterWriter(targetContainerFieldName, contextFieldName);
+    CodeBlock getDimensionDp(final String targetFieldName, final String typedArrayName, final String indexReference, final String defValue) {
+        return CodeBlock.of("$L.$L = $T.getDimensionDp($L, $L, $L, $L);", targetContainerFieldName, targetFieldName, TYPED_VALUES, typedArrayName,
+                indexReference, defValue, displayMetricsFieldName);
     }
 
-    CodeBlock convertPixelToDp(final String targetFieldName) {
-        return CodeBlock.of("$L.$L = (int) ($L.$L / ((float) $L.getResources().getDisplayMetrics().densityDpi / $L.DENSITY_DEFAULT));", targetContainerFieldName, targetFieldName, targetContainerFieldName, targetFieldName, contextFieldName, DISPLAY_METRICS_CLASS_NAME);
+    CodeBlock getDimensionSp(final String targetFieldName, final String typedArrayName, final String indexReference, final String defValue) {
+        return CodeBlock.of("$L.$L = $T.getDimensionSp($L, $L, $L, $L);", targetContainerFieldName, targetFieldName, TYPED_VALUES, typedArrayName,
+                indexReference, defValue, displayMetricsFieldName);
     }
 }
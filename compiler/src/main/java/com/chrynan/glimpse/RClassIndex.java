@@ -0,0 +1,171 @@
+package com.chrynan.glimpse;
+
+import com.squareup.javapoet.ClassName;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+
+/**
+ * An index of the fields of the R classes referenced by the annotations of a processing round,
+ * mapping the constant value of every field to its name (ex: 0x7f020000 to R.color.my_color).
+ * Every R class is read once per round, instead of walking the compiler trees for every annotation
+ * value, so resolving a reference is a hash lookup.
+ * <p>
+ * Resource ids are unique within an R class, but styleable indexes aren't, since every styleable
+ * group starts at zero. When several fields have the value of an annotation, the field referenced
+ * by the annotation expression is used, which requires the source of the annotated element.
+ */
+class RClassIndex {
+
+    private static final String R_CLASS_NAME = "R";
+    private static final String DEFAULT_ATTRIBUTE_NAME = "value";
+
+    private final Trees trees;
+    private final Elements elementUtils;
+    private final Map<TypeElement, Map<Integer, List<String>>> symbols = new HashMap<>();
+    private final Map<String, TypeElement> packageRClasses = new HashMap<>();
+
+    RClassIndex(final Trees trees, final Elements elementUtils) {
+        this.trees = trees;
+        this.elementUtils = elementUtils;
+    }
+
+    /**
+     * Resolves the R class field referenced by the provided value of the provided annotation
+     * attribute.
+     *
+     * @return The {@link RClassReference} or null if the value isn't an R class field or if it's
+     * ambiguous and the annotation expression isn't available.
+     */
+    RClassReference getReference(final Element annotatedElement, final AnnotationMirror annotationMirror, final String attributeName,
+                                 final AnnotationValue annotationValue) {
+        if (!(annotationValue.getValue() instanceof Integer)) {
+            return null;
+        }
+
+        final Symbol symbol = getReferencedSymbol(annotatedElement, annotationMirror, attributeName);
+        final TypeElement rClass = symbol != null ? getRClass(symbol) : getPackageRClass(annotatedElement);
+
+        if (rClass == null) {
+            return null;
+        }
+
+        final List<String> names = getSymbols(rClass).get(annotationValue.getValue());
+        String name = null;
+
+        if (names != null && names.size() == 1) {
+            name = names.get(0);
+        } else if (symbol != null) {
+            // Either ambiguous or not a constant, as in a library module, so use the referenced field
+            name = rClass.getSimpleName() + "." + symbol.getEnclosingElement().getSimpleName() + "." + symbol.getSimpleName();
+        }
+
+        return name != null ? new RClassReference(ClassName.get(rClass), name, StringUtils.getStyleableParentName(name)) : null;
+    }
+
+    /**
+     * Retrieves the field referenced by the expression of the provided annotation attribute. Only
+     * the arguments of the annotation are visited, not the tree of the compilation unit.
+     *
+     * @return The field {@link Symbol} or null if the annotated element wasn't compiled from source.
+     */
+    private Symbol getReferencedSymbol(final Element annotatedElement, final AnnotationMirror annotationMirror, final String attributeName) {
+        final JCTree tree = (JCTree) trees.getTree(annotatedElement, annotationMirror);
+
+        if (!(tree instanceof JCTree.JCAnnotation)) {
+            return null;
+        }
+
+        for (final JCTree.JCExpression argument : ((JCTree.JCAnnotation) tree).getArguments()) {
+            JCTree.JCExpression expression = null;
+
+            if (argument instanceof JCTree.JCAssign) {
+                final JCTree.JCAssign assignment = (JCTree.JCAssign) argument;
+
+                if (assignment.getVariable() instanceof JCTree.JCIdent && ((JCTree.JCIdent) assignment.getVariable()).getName().contentEquals(attributeName)) {
+                    expression = assignment.getExpression();
+                }
+            } else if (DEFAULT_ATTRIBUTE_NAME.equals(attributeName)) {
+                // The value attribute without a name, as in @Styleable(R.styleable.MyView_myAttr)
+                expression = argument;
+            }
+
+            if (expression != null) {
+                final Symbol symbol = TreeInfo.symbol(expression);
+
+                return symbol != null && symbol.getKind() == ElementKind.FIELD ? symbol : null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves the R class declaring the nested class of the provided field (ex: com.myapp.R for
+     * com.myapp.R.styleable.MyView_myAttr).
+     */
+    private static TypeElement getRClass(final Symbol symbol) {
+        final Element nestedClass = symbol.getEnclosingElement();
+        final Element rClass = nestedClass != null ? nestedClass.getEnclosingElement() : null;
+
+        return rClass instanceof TypeElement ? (TypeElement) rClass : null;
+    }
+
+    /**
+     * Retrieves the R class of the package of the provided element, used for elements of previously
+     * compiled classes, whose annotation expressions aren't available.
+     */
+    private TypeElement getPackageRClass(final Element element) {
+        final String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+
+        if (!packageRClasses.containsKey(packageName)) {
+            packageRClasses.put(packageName, elementUtils.getTypeElement(packageName.isEmpty() ? R_CLASS_NAME : packageName + "." + R_CLASS_NAME));
+        }
+
+        return packageRClasses.get(packageName);
+    }
+
+    private Map<Integer, List<String>> getSymbols(final TypeElement rClass) {
+        Map<Integer, List<String>> rClassSymbols = symbols.get(rClass);
+
+        if (rClassSymbols == null) {
+            rClassSymbols = new HashMap<>();
+
+            for (final TypeElement nestedClass : ElementFilter.typesIn(rClass.getEnclosedElements())) {
+                for (final VariableElement field : ElementFilter.fieldsIn(nestedClass.getEnclosedElements())) {
+                    final Object value = field.getConstantValue();
+
+                    if (value instanceof Integer) {
+                        List<String> names = rClassSymbols.get(value);
+
+                        if (names == null) {
+                            names = new ArrayList<>(1);
+                            rClassSymbols.put((Integer) value, names);
+                        }
+
+                        names.add(rClass.getSimpleName() + "." + nestedClass.getSimpleName() + "." + field.getSimpleName());
+                    }
+                }
+            }
+
+            symbols.put(rClass, rClassSymbols);
+        }
+
+        return rClassSymbols;
+    }
+}
@@ -10,6 +10,8 @@ class ResourcesWriter {
 
     static final ClassName RESOURCES = ClassName.get("android.content.res", "Resources");
 
+    private static final ClassName LAZY_VALUE = ClassName.get("com.chrynan.glimpse", "LazyValue");
+
     private final String targetFieldName;
     private final String resoucesFieldName;
 
@@ -35,10 +37,6 @@ class ResourcesWriter {
         return CodeBlock.of("$L.$L = $L.getString($L);", targetFieldName, fieldName, resoucesFieldName, idReference);
     }
 
-    String getStringDefault(final String idReference) {
-        return CodeBlock.of("$L.getString($L)", resoucesFieldName, idReference).toString();
-    }
-
     CodeBlock getStringArray(final String fieldName, final String idReference) {
         return CodeBlock.of("$L.$L = $L.getStringArray($L);", targetFieldName, fieldName, resoucesFieldName, idReference);
     }
@@ -139,7 +137,13 @@ class ResourcesWriter {
         return CodeBlock.of("$L.$L = $L.getTextArray($L);", targetFieldName, fieldName, resoucesFieldName, idReference);
     }
 
-    String getTextArrayDefault(final String idReference) {
-        return CodeBlock.of("$L.getTextArray($L)", resoucesFieldName, idReference).toString();
+    /**
+     * Captures the default resource of a lazy field, or an empty value if the id is zero. The kind
+     * is the name of one of the kind constants of LazyValue, and the value is resolved with the
+     * theme of the provided Context.
+     */
+    CodeBlock getLazy(final String fieldName, final String kind, final String idReference, final String contextName) {
+        return CodeBlock.of("$L.$L = $T.get($T.$L, $L, $L, $L.getTheme());", targetFieldName, fieldName, LAZY_VALUE, LAZY_VALUE, kind, idReference,
+                resoucesFieldName, contextName);
     }
 }
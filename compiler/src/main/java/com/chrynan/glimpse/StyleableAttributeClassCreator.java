@@ -1,17 +1,23 @@
 package com.chrynan.glimpse;
 
+import com.google.common.base.Joiner;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
@@ -22,6 +28,8 @@ import javax.lang.model.element.TypeElement;
  */
 class StyleableAttributeClassCreator {
 
+    static final String INSTANCE_FIELD_NAME = "INSTANCE";
+
     private static final String ATTRIBUTE_CLASS_SUFFIX = "_ViewStyleableAttr";
 
     private static final ClassName OBJECT = ClassName.OBJECT;
@@ -34,37 +42,116 @@ class StyleableAttributeClassCreator {
     private static final TypeName CHAR_SEQUENCE_ARRAY = ArrayTypeName.of(CHAR_SEQUENCE);
     private static final ClassName STRING = ClassName.get(String.class);
     private static final TypeName INT = TypeName.INT;
+    private static final TypeName INT_ARRAY = ArrayTypeName.of(TypeName.INT);
     private static final ClassName GENERATED_ANNOTATION = ClassName.get("javax.annotation", "Generated");
+    private static final ClassName STYLEABLE_BINDER = ClassName.get("com.chrynan.glimpse", "StyleableBinder");
+    private static final ClassName OVERRIDE = ClassName.get(Override.class);
+    private static final ClassName SNAPSHOT_BINDER = ClassName.get("com.chrynan.glimpse", "SnapshotBinder");
+    private static final ClassName SNAPSHOTS = ClassName.get("com.chrynan.glimpse", "Snapshots");
+    private static final ClassName ATTRIBUTE_INDEXES = ClassName.get("com.chrynan.glimpse", "AttributeIndexes");
 
     private static final String CONTEXT_FIELD_NAME = StringUtils.getNormalizedCamelCasedName(CONTEXT.simpleName());
     private static final String ATTRIBUTE_SET_FIELD_NAME = StringUtils.getNormalizedCamelCasedName(ATTRIBUTE_SET.simpleName());
     private static final String RESOURCES_FIELD_NAME = "res";
+    private static final String DEFAULTS_FIELD_NAME = "defaults";
+    private static final String DISPLAY_METRICS_FIELD_NAME = "metrics";
     private static final String DEF_STYLE_FIELD_NAME = "defStyle";
     private static final String DEF_STYLE_RESOURCE_FIELD_NAME = "defStyleRes";
     private static final String GENERATED_ANNOTATION_VALUE_FIELD = "value";
+    private static final String BIND_METHOD_NAME = "bind";
+    private static final String CREATE_SNAPSHOT_METHOD_NAME = "createSnapshot";
+    private static final String APPLY_SNAPSHOT_METHOD_NAME = "applySnapshot";
+    private static final String SNAPSHOT_CLASS_NAME = "Snapshot";
+    private static final String SNAPSHOT_FIELD_NAME = "snapshot";
+    private static final String INDEX_FIELD_NAME = "index";
+    private static final String FOUND_FIELD_NAME = "found";
+    private static final String TYPED_ARRAY_FIELD_NAME = StringUtils.getNormalizedCamelCasedName(TypedArrayWriter.CLASS_NAME.simpleName()) + 0;
+    private static final String OBTAINED_ATTRIBUTES_FIELD_NAME = "OBTAINED_ATTRS";
+    private static final String INDEXES_STATIC_FIELD_NAME = "INDEXES";
+    private static final String INDEXES_FIELD_NAME = "indexes";
+    private static final String ATTRIBUTES_FIELD_NAME = "attributes";
+    private static final String GET_INDEXES_METHOD_NAME = "getIndexes";
 
     private StyleableAttributeClassCreator() {
         // Private constructor to prevent initialization of this object.
     }
 
-    static JavaFile create(final TypeElement typeElement, final List<StyleableField> fields) {
-        final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(typeElement.getSimpleName().toString() + ATTRIBUTE_CLASS_SUFFIX)
+    /**
+     * Retrieves the {@link ClassName} of the generated attribute binding class for the provided
+     * {@link TypeElement}.
+     *
+     * @param typeElement The {@link TypeElement} containing {@link Styleable} annotated fields.
+     * @return The {@link ClassName} of the generated attribute binding class.
+     */
+    static ClassName getAttributeClassName(final TypeElement typeElement) {
+        return ClassName.get(StringUtils.getPackageName(typeElement), typeElement.getSimpleName().toString() + ATTRIBUTE_CLASS_SUFFIX);
+    }
+
+    /**
+     * Creates the attribute binding class of the provided class. Only uses the provided model and
+     * not the compiler, so it can be called from any thread.
+     *
+     * @param styleableClass The class to bind.
+     * @param options        The processor options.
+     * @return The {@link JavaFile} of the binding class.
+     */
+    static JavaFile create(final StyleableClass styleableClass, final GlimpseOptions options) {
+        final List<StyleableField> fields = styleableClass.getFields();
+        final List<StyleableDelegateField> delegates = styleableClass.getDelegates();
+        final ClassName superBinderClassName = styleableClass.getSuperBinderClassName();
+        final ClassName attributeClassName = styleableClass.getAttributeClassName();
+        final TypeName containingClassTypeName = styleableClass.getTypeName();
+        final String containingClassFieldName = StringUtils.getNormalizedCamelCasedName(styleableClass.getSimpleName());
+        final ClassName snapshotClassName = attributeClassName.nestedClass(SNAPSHOT_CLASS_NAME);
+        // The ancestor binder shares the TypedArray if it's in the same package, whatever the way it
+        // was compiled, so that the binder is the same in full and incremental builds
+        final boolean superBinderShared = superBinderClassName != null && superBinderClassName.packageName().equals(attributeClassName.packageName());
+        // The same goes for the binders of the delegates
+        final List<StyleableDelegateField> sharedDelegates = new ArrayList<>();
+
+        for (final StyleableDelegateField delegate : delegates) {
+            if (delegate.getBinderClassName().packageName().equals(attributeClassName.packageName())) {
+                sharedDelegates.add(delegate);
+            }
+        }
+
+        // A binder without fields of its own only obtains a TypedArray to share it
+        final MergedAttributes mergedAttributes = !fields.isEmpty() || superBinderShared || !sharedDelegates.isEmpty()
+                ? styleableClass.getMergedAttributes() : null;
+
+        // Snapshots of a binder invoking an ancestor or delegate binder would miss that binder's values
+        final boolean snapshotsEnabled = options.isSnapshotsEnabled() && superBinderClassName == null && delegates.isEmpty();
+
+        // The class is the only originating element, which makes the processor isolating for Gradle
+        final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(attributeClassName)
+                .addOriginatingElement(styleableClass.getTypeElement())
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(snapshotsEnabled ? ParameterizedTypeName.get(SNAPSHOT_BINDER, containingClassTypeName, snapshotClassName)
+                        : ParameterizedTypeName.get(STYLEABLE_BINDER, containingClassTypeName))
                 .addAnnotation(AnnotationSpec.builder(GENERATED_ANNOTATION)
                         .addMember(GENERATED_ANNOTATION_VALUE_FIELD, "$S", GlimpseAnnotationProcessor.CLASS_NAME)
+                        .build())
+                .addField(FieldSpec.builder(attributeClassName, INSTANCE_FIELD_NAME, Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T()", attributeClassName)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addComment("Stateless binder, use the $L field.", INSTANCE_FIELD_NAME)
                         .build());
 
-        final TypeName containingClassTypeName = TypeName.get(typeElement.asType());
-        final String containingClassFieldName = StringUtils.getNormalizedCamelCasedName(typeElement.getSimpleName().toString());
+        addEnumLookupTables(classBuilder, fields);
 
-        // TODO these should probably be methods rather than constructors since an instance isn't needed - static methods?
-        final MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+        final MethodSpec.Builder bindBuilder = MethodSpec.methodBuilder(BIND_METHOD_NAME)
+                .addAnnotation(OVERRIDE)
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(containingClassTypeName, containingClassFieldName, Modifier.FINAL)
                 .addParameter(CONTEXT, CONTEXT_FIELD_NAME, Modifier.FINAL)
-                .addParameter(ATTRIBUTE_SET, ATTRIBUTE_SET_FIELD_NAME, Modifier.FINAL);
+                .addParameter(ATTRIBUTE_SET, ATTRIBUTE_SET_FIELD_NAME, Modifier.FINAL)
+                .addComment("Obtaining attributes without a style is the same as with a zero defStyle and defStyleRes")
+                .addStatement("$L($L, $L, $L, 0, 0)", BIND_METHOD_NAME, containingClassFieldName, CONTEXT_FIELD_NAME, ATTRIBUTE_SET_FIELD_NAME);
 
-        final MethodSpec.Builder constructorWithExtrasBuilder = MethodSpec.constructorBuilder()
+        final MethodSpec.Builder bindWithExtrasBuilder = MethodSpec.methodBuilder(BIND_METHOD_NAME)
+                .addAnnotation(OVERRIDE)
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(containingClassTypeName, containingClassFieldName, Modifier.FINAL)
                 .addParameter(CONTEXT, CONTEXT_FIELD_NAME, Modifier.FINAL)
@@ -72,274 +159,764 @@ class StyleableAttributeClassCreator {
                 .addParameter(INT, DEF_STYLE_FIELD_NAME, Modifier.FINAL)
                 .addParameter(INT, DEF_STYLE_RESOURCE_FIELD_NAME, Modifier.FINAL);
 
-        constructorBuilder.addStatement("$T $L = $L.getResources()", RESOURCES, RESOURCES_FIELD_NAME, CONTEXT_FIELD_NAME);
-        constructorWithExtrasBuilder.addStatement("$T $L = $L.getResources()", RESOURCES, RESOURCES_FIELD_NAME, CONTEXT_FIELD_NAME);
+        // Binders of subclasses and delegating classes in the same package call this one with the
+        // TypedArray they obtained
+        final MethodSpec.Builder bindTypedArrayBuilder = MethodSpec.methodBuilder(BIND_METHOD_NAME)
+                .addParameter(containingClassTypeName, containingClassFieldName, Modifier.FINAL)
+                .addParameter(CONTEXT, CONTEXT_FIELD_NAME, Modifier.FINAL)
+                .addParameter(ATTRIBUTE_SET, ATTRIBUTE_SET_FIELD_NAME, Modifier.FINAL)
+                .addParameter(INT, DEF_STYLE_FIELD_NAME, Modifier.FINAL)
+                .addParameter(INT, DEF_STYLE_RESOURCE_FIELD_NAME, Modifier.FINAL)
+                .addParameter(TypedArrayWriter.CLASS_NAME, TYPED_ARRAY_FIELD_NAME, Modifier.FINAL)
+                .addParameter(ATTRIBUTE_INDEXES, INDEXES_FIELD_NAME, Modifier.FINAL);
+
+        final MethodSpec.Builder getIndexesBuilder = MethodSpec.methodBuilder(GET_INDEXES_METHOD_NAME)
+                .addModifiers(Modifier.STATIC)
+                .returns(ATTRIBUTE_INDEXES)
+                .addParameter(INT_ARRAY, ATTRIBUTES_FIELD_NAME, Modifier.FINAL);
+
+        if (mergedAttributes != null) {
+            final CodeBlock.Builder obtainedAttributes = CodeBlock.builder().add("$L", MergedAttributes.FIELD_NAME);
+            final CodeBlock.Builder indexes = CodeBlock.builder().add("$L, $L, ", MergedAttributes.FIELD_NAME, ATTRIBUTES_FIELD_NAME);
+
+            if (superBinderShared) {
+                obtainedAttributes.add(", $T.$L", superBinderClassName, OBTAINED_ATTRIBUTES_FIELD_NAME);
+                indexes.add("$T.$L($L)", superBinderClassName, GET_INDEXES_METHOD_NAME, ATTRIBUTES_FIELD_NAME);
+            } else {
+                indexes.add("null");
+            }
+
+            for (final StyleableDelegateField delegate : sharedDelegates) {
+                obtainedAttributes.add(", $T.$L", delegate.getBinderClassName(), OBTAINED_ATTRIBUTES_FIELD_NAME);
+                indexes.add(", $T.$L($L)", delegate.getBinderClassName(), GET_INDEXES_METHOD_NAME, ATTRIBUTES_FIELD_NAME);
+            }
+
+            classBuilder.addField(FieldSpec.builder(INT_ARRAY, MergedAttributes.FIELD_NAME, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("{ $L }", Joiner.on(", ").join(mergedAttributes.getAttributeReferences()))
+                    .build());
+            classBuilder.addField(FieldSpec.builder(INT_ARRAY, OBTAINED_ATTRIBUTES_FIELD_NAME, Modifier.STATIC, Modifier.FINAL)
+                    .initializer(superBinderShared || !sharedDelegates.isEmpty() ? CodeBlock.of("$T.merge($L)", ATTRIBUTE_INDEXES, obtainedAttributes.build())
+                            : obtainedAttributes.build())
+                    .build());
+            classBuilder.addField(FieldSpec.builder(ATTRIBUTE_INDEXES, INDEXES_STATIC_FIELD_NAME, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L($L)", GET_INDEXES_METHOD_NAME, OBTAINED_ATTRIBUTES_FIELD_NAME)
+                    .build());
+
+            getIndexesBuilder.addStatement("return new $T($L)", ATTRIBUTE_INDEXES, indexes.build());
+
+            final TypedArrayWriter typedArrayWriter = TypedArrayWriter.writer(containingClassFieldName, TYPED_ARRAY_FIELD_NAME, CONTEXT_FIELD_NAME);
+
+            bindWithExtrasBuilder.beginControlFlow("if ($L != null)", ATTRIBUTE_SET_FIELD_NAME)
+                    .addCode(typedArrayWriter.obtainStyledAttributes(ATTRIBUTE_SET_FIELD_NAME, OBTAINED_ATTRIBUTES_FIELD_NAME, DEF_STYLE_FIELD_NAME,
+                            DEF_STYLE_RESOURCE_FIELD_NAME))
+                    .addCode("\n")
+                    .beginControlFlow("try")
+                    .addStatement("$L($L, $L, $L, $L, $L, $L, $L)", BIND_METHOD_NAME, containingClassFieldName, CONTEXT_FIELD_NAME, ATTRIBUTE_SET_FIELD_NAME,
+                            DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME, TYPED_ARRAY_FIELD_NAME, INDEXES_STATIC_FIELD_NAME)
+                    .nextControlFlow("finally")
+                    .addCode(typedArrayWriter.recycle())
+                    .addCode("\n")
+                    .endControlFlow()
+                    .nextControlFlow("else")
+                    .addStatement("$L($L, $L, null, $L, $L, null, $L)", BIND_METHOD_NAME, containingClassFieldName, CONTEXT_FIELD_NAME,
+                            DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME, INDEXES_STATIC_FIELD_NAME)
+                    .endControlFlow();
+
+            if (superBinderShared) {
+                bindTypedArrayBuilder.addStatement("$T.$L.$L($L, $L, $L, $L, $L, $L, $L.getParent())", superBinderClassName, INSTANCE_FIELD_NAME,
+                        BIND_METHOD_NAME, containingClassFieldName, CONTEXT_FIELD_NAME, ATTRIBUTE_SET_FIELD_NAME, DEF_STYLE_FIELD_NAME,
+                        DEF_STYLE_RESOURCE_FIELD_NAME, TYPED_ARRAY_FIELD_NAME, INDEXES_FIELD_NAME);
+            } else if (superBinderClassName != null) {
+                addBinderCall(bindTypedArrayBuilder, superBinderClassName, containingClassFieldName);
+            }
+
+            if (!fields.isEmpty()) {
+                addBindingCode(bindTypedArrayBuilder, containingClassFieldName, fields, mergedAttributes, INDEXES_FIELD_NAME,
+                        options.getSparseThreshold());
+            }
+
+            for (final StyleableDelegateField delegate : delegates) {
+                final String delegateTargetName = containingClassFieldName + "." + delegate.getName();
+                final int sharedIndex = sharedDelegates.indexOf(delegate);
+
+                bindTypedArrayBuilder.beginControlFlow("if ($L != null)", delegateTargetName);
+
+                if (sharedIndex != -1) {
+                    bindTypedArrayBuilder.addStatement("$T.$L.$L($L, $L, $L, $L, $L, $L, $L.getDelegate($L))", delegate.getBinderClassName(),
+                            INSTANCE_FIELD_NAME, BIND_METHOD_NAME, delegateTargetName, CONTEXT_FIELD_NAME, ATTRIBUTE_SET_FIELD_NAME,
+                            DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME, TYPED_ARRAY_FIELD_NAME, INDEXES_FIELD_NAME, sharedIndex);
+                } else {
+                    addBinderCall(bindTypedArrayBuilder, delegate.getBinderClassName(), delegateTargetName);
+                }
+
+                bindTypedArrayBuilder.endControlFlow();
+            }
+        } else {
+            // Without merged attributes, the TypedArrays are obtained per styleable group and aren't shared
+            classBuilder.addField(FieldSpec.builder(INT_ARRAY, OBTAINED_ATTRIBUTES_FIELD_NAME, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("null")
+                    .build());
+
+            getIndexesBuilder.addStatement("return null");
 
-        constructorBuilder.beginControlFlow("if ($L != null)", ATTRIBUTE_SET_FIELD_NAME);
-        constructorWithExtrasBuilder.beginControlFlow("if ($L != null)", ATTRIBUTE_SET_FIELD_NAME);
+            if (superBinderClassName != null) {
+                addBinderCall(bindWithExtrasBuilder, superBinderClassName, containingClassFieldName);
+            }
+
+            if (!fields.isEmpty()) {
+                addBindingCode(bindWithExtrasBuilder, containingClassFieldName, fields, null, null, options.getSparseThreshold());
+            }
 
-        final Map<String, List<StyleableField>> groupMap = new HashMap<>();
+            for (final StyleableDelegateField delegate : delegates) {
+                final String delegateTargetName = containingClassFieldName + "." + delegate.getName();
+
+                bindWithExtrasBuilder.beginControlFlow("if ($L != null)", delegateTargetName);
+                addBinderCall(bindWithExtrasBuilder, delegate.getBinderClassName(), delegateTargetName);
+                bindWithExtrasBuilder.endControlFlow();
+            }
+
+            bindTypedArrayBuilder.addStatement("$L($L, $L, $L, $L, $L)", BIND_METHOD_NAME, containingClassFieldName, CONTEXT_FIELD_NAME,
+                    ATTRIBUTE_SET_FIELD_NAME, DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME);
+        }
+
+        classBuilder.addMethod(bindBuilder.build());
+        classBuilder.addMethod(bindWithExtrasBuilder.build());
+        classBuilder.addMethod(bindTypedArrayBuilder.build());
+        classBuilder.addMethod(getIndexesBuilder.build());
+
+        if (snapshotsEnabled) {
+            addSnapshotSupport(classBuilder, snapshotClassName, containingClassTypeName, containingClassFieldName, fields, mergedAttributes,
+                    options.getSparseThreshold());
+        }
+
+        return JavaFile.builder(attributeClassName.packageName(), classBuilder.build()).build();
+    }
+
+    /**
+     * Adds the call to the public bind method of an ancestor or delegate binder, which obtains its
+     * own TypedArray. The method must have the Context, AttributeSet, defStyle and defStyleRes
+     * parameters.
+     */
+    private static void addBinderCall(final MethodSpec.Builder builder, final ClassName binderClassName, final String targetName) {
+        builder.addStatement("$T.$L.$L($L, $L, $L, $L, $L)", binderClassName, INSTANCE_FIELD_NAME, BIND_METHOD_NAME,
+                targetName, CONTEXT_FIELD_NAME, ATTRIBUTE_SET_FIELD_NAME, DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME);
+    }
+
+    /**
+     * Adds the static lookup table of every enum bound by the class, shared by the fields of the
+     * same enum. A table maps the attribute values, starting from the lowest one, to the constants,
+     * so binding an enum field reads its int value once and indexes the table.
+     */
+    private static void addEnumLookupTables(final TypeSpec.Builder classBuilder, final List<StyleableField> fields) {
+        final Map<String, TypeName> enumTypeNames = new HashMap<>();
 
         for (final StyleableField field : fields) {
-            final String groupName = field.getStyleableGroupName();
+            if (!field.isEnum()) {
+                continue;
+            }
+
+            final TypeName existingTypeName = enumTypeNames.put(field.getEnumLookupName(), field.getTypeName());
 
-            List<StyleableField> group = groupMap.get(groupName);
+            if (existingTypeName != null) {
+                if (!existingTypeName.equals(field.getTypeName())) {
+                    throw new IllegalArgumentException("The enums " + existingTypeName + " and " + field.getTypeName() +
+                            " would have lookup tables of the same name. Field: " + field.getName());
+                }
 
-            if (group == null) {
-                group = new ArrayList<>();
+                continue;
             }
 
-            group.add(field);
+            final CodeBlock.Builder initializer = CodeBlock.builder().add("{ ");
+            final List<String> constants = field.getEnumConstants();
 
-            groupMap.put(groupName, group);
+            for (int i = 0; i < constants.size(); i++) {
+                if (i > 0) {
+                    initializer.add(", ");
+                }
+
+                if (constants.get(i) != null) {
+                    initializer.add("$T.$L", field.getTypeName(), constants.get(i));
+                } else {
+                    initializer.add("null");
+                }
+            }
+
+            classBuilder.addField(FieldSpec.builder(ArrayTypeName.of(field.getTypeName()), field.getEnumLookupName(), Modifier.PRIVATE,
+                    Modifier.STATIC, Modifier.FINAL)
+                    .initializer(initializer.add(" }").build())
+                    .build());
         }
+    }
 
-        int typedArrayCounter = 0;
-        for (final Map.Entry<String, List<StyleableField>> entry : groupMap.entrySet()) {
+    /**
+     * Adds the code that obtains the styleable attributes and sets the fields of the provided
+     * target to the provided method. The method must have the Context,
+     * AttributeSet, defStyle and defStyleRes parameters. If the name of the attribute indexes is
+     * provided, the method must also have the TypedArray and the indexes as parameters, and the
+     * fields are read from that TypedArray, at the indexes of the merged attributes, instead of
+     * obtaining one.
+     */
+    private static void addBindingCode(final MethodSpec.Builder builder, final String targetName, final List<StyleableField> fields,
+                                       final MergedAttributes mergedAttributes, final String indexesName, final int sparseThreshold) {
+        builder.addStatement("$T $L = $L.getResources()", RESOURCES, RESOURCES_FIELD_NAME, CONTEXT_FIELD_NAME);
+
+        if (usesDefaultValues(fields)) {
+            builder.addCode(DefaultValuesWriter.writer(targetName, DEFAULTS_FIELD_NAME, RESOURCES_FIELD_NAME).declare());
+        }
 
-            final String attributeArrayName = entry.getKey();
+        builder.beginControlFlow("if ($L != null)", indexesName != null ? TYPED_ARRAY_FIELD_NAME : ATTRIBUTE_SET_FIELD_NAME);
+
+        if (usesDisplayMetrics(fields)) {
+            builder.addCode(PixelConverterWriter.writer(targetName, DISPLAY_METRICS_FIELD_NAME).declare(RESOURCES_FIELD_NAME));
+        }
+
+        // With merged attributes, a single null group stands for the fields of every group
+        final Set<String> groupNames = new LinkedHashSet<>();
+
+        if (mergedAttributes != null) {
+            groupNames.add(null);
+        } else {
+            for (final StyleableField field : fields) {
+                groupNames.add(field.getStyleableGroupName());
+            }
+        }
+
+        int typedArrayCounter = 0;
+        for (final String groupName : groupNames) {
 
             final String typedArrayFieldName = StringUtils.getNormalizedCamelCasedName(TypedArrayWriter.CLASS_NAME.simpleName()) + typedArrayCounter;
-            final TypedArrayWriter typedArrayWriter = TypedArrayWriter.writer(containingClassFieldName, typedArrayFieldName, CONTEXT_FIELD_NAME);
+            final TypedArrayWriter typedArrayWriter = TypedArrayWriter.writer(targetName, typedArrayFieldName, CONTEXT_FIELD_NAME);
+            final String attributeArrayName = groupName != null ? groupName : MergedAttributes.FIELD_NAME;
 
-            constructorBuilder.addCode(typedArrayWriter.obtainAttributes(ATTRIBUTE_SET_FIELD_NAME, attributeArrayName));
-            constructorBuilder.addCode("\n");
-            constructorWithExtrasBuilder.addCode(typedArrayWriter.obtainStyledAttributes(ATTRIBUTE_SET_FIELD_NAME, attributeArrayName, DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME));
-            constructorWithExtrasBuilder.addCode("\n");
+            if (indexesName == null) {
+                builder.addCode(typedArrayWriter.obtainStyledAttributes(ATTRIBUTE_SET_FIELD_NAME, attributeArrayName, DEF_STYLE_FIELD_NAME, DEF_STYLE_RESOURCE_FIELD_NAME));
+                builder.addCode("\n");
 
-            constructorBuilder.beginControlFlow("try");
-            constructorWithExtrasBuilder.beginControlFlow("try");
+                builder.beginControlFlow("try");
+            }
 
-            for (final StyleableField field : entry.getValue()) {
-                createFieldBinding(field, constructorBuilder, typedArrayWriter);
-                createFieldBinding(field, constructorWithExtrasBuilder, typedArrayWriter);
+            if (isSparse(fields, groupName, mergedAttributes, sparseThreshold)) {
+                addSparseBindingCode(builder, targetName, typedArrayWriter, fields, groupName, mergedAttributes, indexesName);
+            } else {
+                addDenseBindingCode(builder, typedArrayWriter, fields, groupName, mergedAttributes, indexesName);
             }
 
-            constructorBuilder.nextControlFlow("finally");
-            constructorWithExtrasBuilder.nextControlFlow("finally");
+            if (indexesName == null) {
+                builder.nextControlFlow("finally");
 
-            constructorBuilder.addCode(typedArrayWriter.recycle());
-            constructorBuilder.addCode("\n");
-            constructorWithExtrasBuilder.addCode(typedArrayWriter.recycle());
-            constructorWithExtrasBuilder.addCode("\n");
+                builder.addCode(typedArrayWriter.recycle());
+                builder.addCode("\n");
 
-            // end finally block
-            constructorBuilder.endControlFlow();
-            constructorWithExtrasBuilder.endControlFlow();
+                // end finally block
+                builder.endControlFlow();
+            }
 
             typedArrayCounter++;
         }
 
-        constructorBuilder.nextControlFlow("else");
-        constructorWithExtrasBuilder.nextControlFlow("else");
+        final List<StyleableField> defaultFields = getFieldsWithDefaultBinding(fields);
+
+        if (defaultFields.isEmpty()) {
+            // end if condition
+            builder.endControlFlow();
+
+            return;
+        }
+
+        builder.nextControlFlow("else");
+
+        for (final StyleableField field : defaultFields) {
+            createDefaultBinding(targetName, field, builder);
+        }
+
+        // end if-else condition
+        builder.endControlFlow();
+    }
+
+    /**
+     * Adds the code reading every attribute of the styleable group from the TypedArray, whether or
+     * not it was set.
+     */
+    private static void addDenseBindingCode(final MethodSpec.Builder builder, final TypedArrayWriter writer, final List<StyleableField> fields,
+                                            final String groupName, final MergedAttributes mergedAttributes, final String indexesName) {
+        for (final StyleableField field : getFieldsInGroup(fields, groupName)) {
+            createFieldBinding(field, getIndexExpression(field, mergedAttributes, indexesName), builder, writer);
+        }
+    }
+
+    /**
+     * Adds the code iterating over the attributes of the styleable group that are present in the
+     * TypedArray, dispatching on their index with a switch. Each distinct attribute has a bit in a
+     * mask, and after the loop the fields of the attributes that weren't present are set the same
+     * way as the dense code would set them, without reading the TypedArray. With attribute indexes,
+     * the switch is on the attribute of the binder at the index, since the TypedArray may have the
+     * attributes of ancestor binders too.
+     */
+    private static void addSparseBindingCode(final MethodSpec.Builder builder, final String targetName, final TypedArrayWriter writer,
+                                             final List<StyleableField> fields, final String groupName, final MergedAttributes mergedAttributes,
+                                             final String indexesName) {
+        final String typedArrayName = writer.getTypedArrayFieldName();
+        final String foundName = FOUND_FIELD_NAME;
+        final List<String> indexReferences = getIndexReferences(fields, groupName, mergedAttributes);
+
+        builder.addStatement("long $L = 0", foundName);
+        builder.beginControlFlow("for (int i = 0, count = $L.getIndexCount(); i < count; i++)", typedArrayName);
+        builder.addStatement("final int $L = $L.getIndex(i)", INDEX_FIELD_NAME, typedArrayName);
+        if (indexesName != null) {
+            builder.beginControlFlow("switch ($L.getAttribute($L))", indexesName, INDEX_FIELD_NAME);
+        } else {
+            builder.beginControlFlow("switch ($L)", INDEX_FIELD_NAME);
+        }
+
+        for (int i = 0; i < indexReferences.size(); i++) {
+            final String indexReference = indexReferences.get(i);
+
+            builder.addCode("case $L:\n$>", indexReference);
+
+            for (final StyleableField field : getFieldsWithIndex(fields, indexReference, mergedAttributes)) {
+                createFieldBinding(field, INDEX_FIELD_NAME, builder, writer);
+            }
+
+            builder.addStatement("$L |= 1L << $L", foundName, i);
+            builder.addStatement("break");
+            builder.addCode("$<");
+        }
+
+        // end switch and for loop
+        builder.endControlFlow();
+        builder.endControlFlow();
+
+        for (int i = 0; i < indexReferences.size(); i++) {
+            final String indexReference = indexReferences.get(i);
+
+            builder.beginControlFlow("if (($L & (1L << $L)) == 0)", foundName, i);
+
+            for (final StyleableField field : getFieldsWithIndex(fields, indexReference, mergedAttributes)) {
+                createAbsentBinding(targetName, field, builder);
+            }
+
+            builder.endControlFlow();
+        }
+    }
+
+    /**
+     * Whether the styleable group binds enough distinct attributes to use sparse iteration. The
+     * attributes present are tracked in a long, so groups with more than 64 attributes are always
+     * read densely.
+     */
+    private static boolean isSparse(final List<StyleableField> fields, final String groupName, final MergedAttributes mergedAttributes,
+                                    final int sparseThreshold) {
+        if (sparseThreshold <= 0) {
+            return false;
+        }
+
+        final int attributeCount = getIndexReferences(fields, groupName, mergedAttributes).size();
+
+        return attributeCount >= sparseThreshold && attributeCount <= Long.SIZE;
+    }
+
+    /**
+     * Retrieves the distinct styleable index references of the group, since several fields may be
+     * bound to the same attribute and a switch can't have duplicate labels.
+     */
+    private static List<String> getIndexReferences(final List<StyleableField> fields, final String groupName,
+                                                   final MergedAttributes mergedAttributes) {
+        final Set<String> indexReferences = new LinkedHashSet<>();
+
+        for (final StyleableField field : getFieldsInGroup(fields, groupName)) {
+            indexReferences.add(getIndexReference(field, mergedAttributes));
+        }
+
+        return new ArrayList<>(indexReferences);
+    }
+
+    /**
+     * Retrieves the reference to the index of the attribute of the provided field, in the merged
+     * attribute array if there is one or else in the array of its styleable group.
+     */
+    private static String getIndexReference(final StyleableField field, final MergedAttributes mergedAttributes) {
+        return mergedAttributes != null ? String.valueOf(mergedAttributes.getIndex(field)) : field.getStyleableValue();
+    }
+
+    /**
+     * Retrieves the expression of the index of the attribute of the provided field in the
+     * TypedArray, looked up in the attribute indexes if they are provided.
+     */
+    private static String getIndexExpression(final StyleableField field, final MergedAttributes mergedAttributes, final String indexesName) {
+        final String indexReference = getIndexReference(field, mergedAttributes);
+
+        return indexesName != null ? indexesName + ".getIndex(" + indexReference + ")" : indexReference;
+    }
+
+    /**
+     * Adds the nested snapshot classes and the SnapshotBinder methods. A snapshot has a field for
+     * every field bound by this class, with the same name and type, so the regular binding code is
+     * reused to fill it. Applying a snapshot copies the values, creating new Drawable instances from
+     * their constant state and cloning arrays.
+     */
+    private static void addSnapshotSupport(final TypeSpec.Builder classBuilder, final ClassName snapshotClassName, final TypeName containingClassTypeName,
+                                           final String containingClassFieldName, final List<StyleableField> fields,
+                                           final MergedAttributes mergedAttributes, final int sparseThreshold) {
+        final TypeSpec.Builder snapshotBuilder = createSnapshotClass(SNAPSHOT_CLASS_NAME, fields);
+
+        final MethodSpec.Builder createSnapshotBuilder = MethodSpec.methodBuilder(CREATE_SNAPSHOT_METHOD_NAME)
+                .addAnnotation(OVERRIDE)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(snapshotClassName)
+                .addParameter(CONTEXT, CONTEXT_FIELD_NAME, Modifier.FINAL)
+                .addParameter(ATTRIBUTE_SET, ATTRIBUTE_SET_FIELD_NAME, Modifier.FINAL)
+                .addParameter(INT, DEF_STYLE_FIELD_NAME, Modifier.FINAL)
+                .addParameter(INT, DEF_STYLE_RESOURCE_FIELD_NAME, Modifier.FINAL)
+                .addStatement("final $T $L = new $T()", snapshotClassName, SNAPSHOT_FIELD_NAME, snapshotClassName);
+
+        final MethodSpec.Builder applySnapshotBuilder = MethodSpec.methodBuilder(APPLY_SNAPSHOT_METHOD_NAME)
+                .addAnnotation(OVERRIDE)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(containingClassTypeName, containingClassFieldName, Modifier.FINAL)
+                .addParameter(CONTEXT, CONTEXT_FIELD_NAME, Modifier.FINAL)
+                .addParameter(snapshotClassName, SNAPSHOT_FIELD_NAME, Modifier.FINAL);
+
+        // Snapshots are only created by binders without ancestor or delegate binders, whose merged
+        // attributes are the obtained attributes, so the constant indexes are used
+        addBindingCode(createSnapshotBuilder, SNAPSHOT_FIELD_NAME, fields, mergedAttributes, null, sparseThreshold);
+
+        final List<CodeBlock> shareableConditions = new ArrayList<>();
+
+        if (hasFieldOfType(fields, DRAWABLE)) {
+            applySnapshotBuilder.addStatement("$T $L = $L.getResources()", RESOURCES, RESOURCES_FIELD_NAME, CONTEXT_FIELD_NAME);
+        }
+
+        addSnapshotCopies(applySnapshotBuilder, containingClassFieldName, SNAPSHOT_FIELD_NAME, fields, shareableConditions);
+
+        if (!shareableConditions.isEmpty()) {
+            final CodeBlock.Builder condition = CodeBlock.builder();
+
+            for (int i = 0; i < shareableConditions.size(); i++) {
+                condition.add(i == 0 ? "$L" : " && $L", shareableConditions.get(i));
+            }
+
+            createSnapshotBuilder.beginControlFlow("if (!($L))", condition.build());
+            createSnapshotBuilder.addComment("Values without a constant state can't be shared between instances");
+            createSnapshotBuilder.addStatement("return null");
+            createSnapshotBuilder.endControlFlow();
+        }
+
+        createSnapshotBuilder.addStatement("return $L", SNAPSHOT_FIELD_NAME);
+
+        classBuilder.addType(snapshotBuilder.build());
+        classBuilder.addMethod(createSnapshotBuilder.build());
+        classBuilder.addMethod(applySnapshotBuilder.build());
+    }
+
+    private static TypeSpec.Builder createSnapshotClass(final String className, final List<StyleableField> fields) {
+        final TypeSpec.Builder snapshotBuilder = TypeSpec.classBuilder(className)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("The resolved values of a bind. Effectively immutable once created by the binder.\n");
 
         for (final StyleableField field : fields) {
-            if (field.hasDefaultValue()) {
-                createDefaultBinding(containingClassFieldName, CONTEXT_FIELD_NAME, field, constructorBuilder);
-                createDefaultBinding(containingClassFieldName, CONTEXT_FIELD_NAME, field, constructorWithExtrasBuilder);
+            snapshotBuilder.addField(field.getTypeName(), field.getName());
+        }
+
+        return snapshotBuilder;
+    }
+
+    private static void addSnapshotCopies(final MethodSpec.Builder builder, final String targetName, final String snapshotName,
+                                          final List<StyleableField> fields, final List<CodeBlock> shareableConditions) {
+        for (final StyleableField field : fields) {
+            final TypeName typeName = field.getTypeName();
+
+            if (field.isLazy()) {
+                builder.addStatement("$L.$L = $T.copy($L.$L)", targetName, field.getName(), SNAPSHOTS, snapshotName, field.getName());
+                shareableConditions.add(CodeBlock.of("$T.isShareable($L.$L)", SNAPSHOTS, snapshotName, field.getName()));
+            } else if (typeName.equals(DRAWABLE)) {
+                builder.addStatement("$L.$L = $T.copy($L.$L, $L)", targetName, field.getName(), SNAPSHOTS, snapshotName, field.getName(), RESOURCES_FIELD_NAME);
+                shareableConditions.add(CodeBlock.of("$T.isShareable($L.$L)", SNAPSHOTS, snapshotName, field.getName()));
+            } else if (typeName.equals(CHAR_SEQUENCE_ARRAY)) {
+                builder.addStatement("$L.$L = $T.copy($L.$L)", targetName, field.getName(), SNAPSHOTS, snapshotName, field.getName());
+            } else {
+                builder.addStatement("$L.$L = $L.$L", targetName, field.getName(), snapshotName, field.getName());
             }
         }
+    }
 
-        // end if-else condition
-        constructorBuilder.endControlFlow();
-        constructorWithExtrasBuilder.endControlFlow();
+    private static boolean hasFieldOfType(final List<StyleableField> fields, final TypeName typeName) {
+        for (final StyleableField field : fields) {
+            if (field.getTypeName().equals(typeName)) {
+                return true;
+            }
+        }
 
-        classBuilder.addMethod(constructorBuilder.build());
-        classBuilder.addMethod(constructorWithExtrasBuilder.build());
+        return false;
+    }
 
-        return JavaFile.builder(StringUtils.getPackageName(typeElement), classBuilder.build()).build();
+    /**
+     * Whether any of the provided fields reads its value through the DefaultValues cache. Unless
+     * the field is shared, ColorStateList and Drawable values are read from the Resources directly,
+     * and lazy fields read the cache themselves when they are resolved.
+     */
+    private static boolean usesDefaultValues(final List<StyleableField> fields) {
+        for (final StyleableField field : fields) {
+            if (field.isLazy()) {
+                continue;
+            }
+
+            if (field.isShared() || (field.hasDefaultValue() && !field.getTypeName().equals(COLOR_STATE_LIST) && !field.getTypeName().equals(DRAWABLE))) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
-    private static void createFieldBinding(final StyleableField field, final MethodSpec.Builder builder, final TypedArrayWriter writer) {
+    /**
+     * Whether any of the provided fields is a dimension in dp or sp, whose conversion needs the
+     * DisplayMetrics.
+     */
+    private static boolean usesDisplayMetrics(final List<StyleableField> fields) {
+        for (final StyleableField field : fields) {
+            if (field.isDimension() && (field.getDimensionUnit() == StyleableField.DimensionUnit.DP
+                    || field.getDimensionUnit() == StyleableField.DimensionUnit.SP)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Retrieves the fields of the provided styleable group, or all of the fields if the group name
+     * is null, which stands for the merged attribute array.
+     */
+    private static List<StyleableField> getFieldsInGroup(final List<StyleableField> fields, final String groupName) {
+        final List<StyleableField> groupFields = new ArrayList<>();
+
+        for (final StyleableField field : fields) {
+            if (groupName == null || field.getStyleableGroupName().equals(groupName)) {
+                groupFields.add(field);
+            }
+        }
+
+        return groupFields;
+    }
+
+    private static List<StyleableField> getFieldsWithIndex(final List<StyleableField> fields, final String indexReference,
+                                                           final MergedAttributes mergedAttributes) {
+        final List<StyleableField> indexFields = new ArrayList<>();
+
+        for (final StyleableField field : fields) {
+            if (getIndexReference(field, mergedAttributes).equals(indexReference)) {
+                indexFields.add(field);
+            }
+        }
+
+        return indexFields;
+    }
+
+    /**
+     * Retrieves the fields that are bound when there are no attributes: the fields with a default
+     * value, and the lazy fields, which are never left null.
+     */
+    private static List<StyleableField> getFieldsWithDefaultBinding(final List<StyleableField> fields) {
+        final List<StyleableField> defaultFields = new ArrayList<>();
+
+        for (final StyleableField field : fields) {
+            if (field.hasDefaultValue() || field.isLazy()) {
+                defaultFields.add(field);
+            }
+        }
+
+        return defaultFields;
+    }
+
+    private static void createFieldBinding(final StyleableField field, final String indexReference, final MethodSpec.Builder builder,
+                                           final TypedArrayWriter writer) {
         final ResourcesWriter resWriter = ResourcesWriter.writer(writer.getTargetFieldName(), RESOURCES_FIELD_NAME);
-        final PixelConverterWriter pixelWriter = PixelConverterWriter.writer(writer.getTargetFieldName(), writer.getContextName());
+        final DefaultValuesWriter defaultsWriter = DefaultValuesWriter.writer(writer.getTargetFieldName(), DEFAULTS_FIELD_NAME, RESOURCES_FIELD_NAME);
+        final PixelConverterWriter pixelWriter = PixelConverterWriter.writer(writer.getTargetFieldName(), DISPLAY_METRICS_FIELD_NAME);
         final TypeName typeName = field.getTypeName();
-        int exceptionCount = 0;
 
-        if (typeName.isPrimitive() || typeName.isBoxedPrimitive()) {
+        if (field.isLazy()) {
+            final String defaultRes = field.hasDefaultValue() ? field.getDefaultValue() : "0";
+            builder.addCode(writer.getLazy(field.getName(), indexReference, field.getLazyKind(), defaultRes, RESOURCES_FIELD_NAME));
+        } else if (typeName.isPrimitive() || typeName.isBoxedPrimitive()) {
             final TypeName unboxedTypeName = field.getTypeName().unbox();
 
             if (unboxedTypeName.equals(TypeName.BOOLEAN)) {
-                final String defValue = field.hasDefaultValue() ? resWriter.getBooleanDefault(field.getDefaultValue()) : String.valueOf(false);
-                builder.addCode(writer.getBoolean(field.getName(), field.getStyleableValue(), defValue));
+                final String defValue = field.hasDefaultValue() ? defaultsWriter.getBooleanDefault(field.getDefaultValue()) : String.valueOf(false);
+                builder.addCode(writer.getBoolean(field.getName(), indexReference, defValue));
             } else if (unboxedTypeName.equals(TypeName.INT)) {
-                // getColor(), getDimensionPixelOffset(), getDimensionPixelSize(), getInteger()
-                final String colorDefValue = field.hasDefaultValue() ? resWriter.getColorDefault(field.getDefaultValue()) : "0";
-                final String dimenDefValue = field.hasDefaultValue() ? resWriter.getDimensionPixelOffsetDefault(field.getDefaultValue()) : "0";
-                final String intDefValue = field.hasDefaultValue() ? resWriter.getIntegerDefault(field.getDefaultValue()) : "0";
+                // getColor(), getDimensionPixelOffset(), a dp or sp dimension or based on the type of the value
+                final String colorDefValue = field.hasDefaultValue() ? defaultsWriter.getColorDefault(field.getDefaultValue()) : "0";
+                final String dimenDefValue = field.hasDefaultValue() ? defaultsWriter.getDimensionPixelOffsetDefault(field.getDefaultValue()) : "0";
+                final String intDefValue = field.hasDefaultValue() ? defaultsWriter.getIntDefault(field.getDefaultValue()) : "0";
 
                 if (field.isColorInt()) {
-                    builder.addCode(writer.getColor(field.getName(), field.getStyleableValue(), colorDefValue));
+                    builder.addCode(writer.getColor(field.getName(), indexReference, colorDefValue));
                 } else if (field.isDimension()) {
                     StyleableField.DimensionUnit unit = field.getDimensionUnit();
 
                     if (unit == null || unit == StyleableField.DimensionUnit.PX) {
-                        builder.addCode(writer.getDimensionPixelOffset(field.getName(), field.getStyleableValue(), dimenDefValue));
+                        builder.addCode(writer.getDimensionPixelOffset(field.getName(), indexReference, dimenDefValue));
                     } else if (unit == StyleableField.DimensionUnit.DP) {
-                        builder.addCode(writer.getDimensionPixelOffset(field.getName(), field.getStyleableValue(), dimenDefValue));
-                        builder.addCode("\n");
-                        builder.addCode(pixelWriter.convertPixelToDp(field.getName()));
+                        final String dpDefValue = field.hasDefaultValue() ? defaultsWriter.getDimensionDpDefault(field.getDefaultValue()) : "0";
+                        builder.addCode(pixelWriter.getDimensionDp(field.getName(), writer.getTypedArrayFieldName(), indexReference, dpDefValue));
                     } else if (unit == StyleableField.DimensionUnit.SP) {
-                        builder.addCode(writer.getDimensionPixelSize(field.getName(), field.getStyleableValue(), dimenDefValue));
-                        builder.addCode("\n");
-                        builder.addCode(pixelWriter.convertPixelToDp(field.getName()));
+                        final String spDefValue = field.hasDefaultValue() ? defaultsWriter.getDimensionSpDefault(field.getDefaultValue()) : "0";
+                        builder.addCode(pixelWriter.getDimensionSp(field.getName(), writer.getTypedArrayFieldName(), indexReference, spDefValue));
                     }
                 } else {
-                    builder.beginControlFlow("try");
-                    builder.addCode(writer.getColor(field.getName(), field.getStyleableValue(), colorDefValue));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    exceptionCount++;
-                    builder.beginControlFlow("try");
-                    builder.addCode(writer.getDimensionPixelOffset(field.getName(), field.getStyleableValue(), dimenDefValue));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    builder.addCode(writer.getInteger(field.getName(), field.getStyleableValue(), intDefValue));
-                    builder.addCode("\n");
-                    builder.endControlFlow();
-                    builder.endControlFlow();
+                    builder.addCode(writer.getUntypedInt(field.getName(), indexReference, intDefValue, RESOURCES_FIELD_NAME));
                 }
             } else if (unboxedTypeName.equals(TypeName.FLOAT)) {
-                final String dimenDefValue = field.hasDefaultValue() ? resWriter.getDimensionDefault(field.getDefaultValue()) : "0";
-                final String floatDefValue = field.hasDefaultValue() ? resWriter.getFractionDefault(field.getDefaultValue(), 0, 0) : "0";
+                final String dimenDefValue = field.hasDefaultValue() ? defaultsWriter.getDimensionDefault(field.getDefaultValue()) : "0";
+                final String floatDefValue = field.hasDefaultValue() ? defaultsWriter.getFloatDefault(field.getDefaultValue()) : "0";
 
                 if (field.isDimension()) {
-                    builder.addCode(writer.getDimension(field.getName(), field.getStyleableValue(), dimenDefValue));
+                    builder.addCode(writer.getDimension(field.getName(), indexReference, dimenDefValue));
                 } else {
-                    builder.beginControlFlow("try");
-                    builder.addCode(writer.getDimension(field.getName(), field.getStyleableValue(), dimenDefValue));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    builder.addCode(writer.getFloat(field.getName(), field.getStyleableValue(), floatDefValue));
-                    builder.addCode("\n");
-                    builder.endControlFlow();
+                    builder.addCode(writer.getUntypedFloat(field.getName(), indexReference, floatDefValue, RESOURCES_FIELD_NAME));
                 }
             }
         } else if (typeName.equals(COLOR_STATE_LIST)) {
-            builder.addCode(writer.getColorStateList(field.getName(), field.getStyleableValue()));
+            if (field.isShared()) {
+                builder.addCode(defaultsWriter.getColorStateList(field.getName(), writer.getTypedArrayFieldName(), indexReference));
+            } else {
+                builder.addCode(writer.getColorStateList(field.getName(), indexReference));
+            }
             builder.addCode("\n");
 
             if (field.hasDefaultValue()) {
                 builder.beginControlFlow("if ($L.$L == null)", writer.getTargetFieldName(), field.getName());
-                builder.addCode(writer.getColorStateList(field.getName(), resWriter.getColorStateListDefault(field.getDefaultValue())));
+                builder.addCode(field.isShared() ? defaultsWriter.getColorStateList(field.getName(), field.getDefaultValue())
+                        : resWriter.getColorStateList(field.getName(), field.getDefaultValue()));
                 builder.addCode("\n");
                 builder.endControlFlow();
             }
         } else if (typeName.equals(DRAWABLE)) {
-            builder.addCode(writer.getDrawable(field.getName(), field.getStyleableValue()));
+            if (field.isShared()) {
+                builder.addCode(defaultsWriter.getDrawable(field.getName(), writer.getTypedArrayFieldName(), indexReference));
+            } else {
+                builder.addCode(writer.getDrawable(field.getName(), indexReference));
+            }
             builder.addCode("\n");
 
             if (field.hasDefaultValue()) {
                 builder.beginControlFlow("if ($L.$L == null)", writer.getTargetFieldName(), field.getName());
-                builder.addCode(writer.getDrawable(field.getName(), resWriter.getDrawableDefault(field.getDefaultValue())));
+                builder.addCode(field.isShared() ? defaultsWriter.getDrawable(field.getName(), field.getDefaultValue())
+                        : resWriter.getDrawable(field.getName(), field.getDefaultValue()));
                 builder.addCode("\n");
                 builder.endControlFlow();
             }
         } else if (typeName.equals(CHAR_SEQUENCE)) {
-            builder.addCode(writer.getText(field.getName(), field.getStyleableValue()));
+            builder.addCode(writer.getText(field.getName(), indexReference));
             builder.addCode("\n");
 
             if (field.hasDefaultValue()) {
                 builder.beginControlFlow("if ($L.$L == null)", writer.getTargetFieldName(), field.getName());
-                builder.addCode(writer.getText(field.getName(), resWriter.getTextDefault(field.getDefaultValue())));
+                builder.addCode(defaultsWriter.getText(field.getName(), field.getDefaultValue()));
                 builder.addCode("\n");
                 builder.endControlFlow();
             }
         } else if (typeName.equals(CHAR_SEQUENCE_ARRAY)) {
+            builder.addCode(writer.getTextArray(field.getName(), indexReference));
+            builder.addCode("\n");
+
             if (field.hasDefaultValue()) {
-                builder.beginControlFlow("try");
-                builder.addCode(writer.getTextArray(field.getName(), field.getStyleableValue()));
-                builder.addCode("\n");
-                builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                builder.addCode(resWriter.getTextArray(field.getName(), resWriter.getTextArrayDefault(field.getDefaultValue())));
+                builder.beginControlFlow("if ($L.$L == null)", writer.getTargetFieldName(), field.getName());
+                builder.addCode(defaultsWriter.getTextArray(field.getName(), field.getDefaultValue()));
                 builder.addCode("\n");
                 builder.endControlFlow();
-            } else {
-                builder.addCode(writer.getTextArray(field.getName(), field.getStyleableValue()));
-                builder.addCode("\n");
             }
         } else if (typeName.equals(STRING)) {
-            builder.addCode(writer.getString(field.getName(), field.getStyleableValue()));
+            builder.addCode(writer.getString(field.getName(), indexReference));
             builder.addCode("\n");
 
             if (field.hasDefaultValue()) {
                 builder.beginControlFlow("if ($L.$L == null)", writer.getTargetFieldName(), field.getName());
-                builder.addCode(writer.getString(field.getName(), resWriter.getStringDefault(field.getDefaultValue())));
+                builder.addCode(defaultsWriter.getString(field.getName(), field.getDefaultValue()));
                 builder.addCode("\n");
                 builder.endControlFlow();
             }
+        } else if (field.isEnum()) {
+            final CodeBlock defValue = field.hasDefaultValue()
+                    ? defaultsWriter.getEnumDefault(field.getDefaultValue(), field.getEnumLookupName(), field.getEnumFirstValue())
+                    : CodeBlock.of("null");
+            builder.addCode(writer.getEnum(field.getName(), indexReference, field.getEnumLookupName(), field.getEnumFirstValue(), defValue));
         }
 
         builder.addCode("\n");
     }
 
-    private static void createDefaultBinding(final String containingClassFieldName, final String contextFieldName, final StyleableField field, final MethodSpec.Builder builder) {
+    /**
+     * Sets the field of an attribute that isn't present in the TypedArray to the value a TypedArray
+     * getter would of returned: the default resource value, if any, or zero, false or null. Lazy
+     * fields get an empty LazyValue instead of null.
+     */
+    private static void createAbsentBinding(final String containingClassFieldName, final StyleableField field, final MethodSpec.Builder builder) {
+        if (field.hasDefaultValue() || field.isLazy()) {
+            createDefaultBinding(containingClassFieldName, field, builder);
+        } else if (field.getTypeName().equals(TypeName.BOOLEAN) || field.getTypeName().equals(TypeName.BOOLEAN.box())) {
+            builder.addStatement("$L.$L = false", containingClassFieldName, field.getName());
+        } else if (field.getTypeName().equals(TypeName.FLOAT) || field.getTypeName().equals(TypeName.FLOAT.box())) {
+            builder.addStatement("$L.$L = 0f", containingClassFieldName, field.getName());
+        } else if (field.getTypeName().equals(TypeName.INT) || field.getTypeName().equals(TypeName.INT.box())) {
+            builder.addStatement("$L.$L = 0", containingClassFieldName, field.getName());
+        } else {
+            builder.addStatement("$L.$L = null", containingClassFieldName, field.getName());
+        }
+    }
+
+    private static void createDefaultBinding(final String containingClassFieldName, final StyleableField field, final MethodSpec.Builder builder) {
         final ResourcesWriter resWriter = ResourcesWriter.writer(containingClassFieldName, RESOURCES_FIELD_NAME);
-        final PixelConverterWriter pixelWriter = PixelConverterWriter.writer(containingClassFieldName, contextFieldName);
+        final DefaultValuesWriter defaultsWriter = DefaultValuesWriter.writer(containingClassFieldName, DEFAULTS_FIELD_NAME, RESOURCES_FIELD_NAME);
         final TypeName typeName = field.getTypeName();
-        int exceptionCount = 0;
 
-        if (typeName.isBoxedPrimitive() || typeName.isPrimitive()) {
+        if (field.isLazy()) {
+            builder.addCode(resWriter.getLazy(field.getName(), field.getLazyKind(), field.hasDefaultValue() ? field.getDefaultValue() : "0",
+                    CONTEXT_FIELD_NAME));
+        } else if (typeName.isBoxedPrimitive() || typeName.isPrimitive()) {
             final TypeName unboxedTypeName = typeName.unbox();
 
             if (unboxedTypeName.equals(TypeName.BOOLEAN)) {
-                builder.addCode(resWriter.getBoolean(field.getName(), field.getDefaultValue()));
+                builder.addCode(defaultsWriter.getBoolean(field.getName(), field.getDefaultValue()));
             } else if (unboxedTypeName.equals(TypeName.INT)) {
-                // getColor(), getDimensionPixelOffset(), getDimensionPixelSize(), getInteger()
+                // getColor(), getDimensionPixelOffset(), a dp or sp dimension or based on the type of the value
                 if (field.isColorInt()) {
-                    builder.addCode(resWriter.getColor(field.getName(), field.getDefaultValue()));
+                    builder.addCode(defaultsWriter.getColor(field.getName(), field.getDefaultValue()));
                 } else if (field.isDimension()) {
                     StyleableField.DimensionUnit unit = field.getDimensionUnit();
 
                     if (unit == null || unit == StyleableField.DimensionUnit.PX) {
-                        builder.addCode(resWriter.getDimensionPixelOffset(field.getName(), field.getDefaultValue()));
+                        builder.addCode(defaultsWriter.getDimensionPixelOffset(field.getName(), field.getDefaultValue()));
                     } else if (unit == StyleableField.DimensionUnit.DP) {
-                        builder.addCode(resWriter.getDimensionPixelOffset(field.getName(), field.getDefaultValue()));
-                        builder.addCode("\n");
-                        builder.addCode(pixelWriter.convertPixelToDp(field.getName()));
+                        builder.addCode(defaultsWriter.getDimensionDp(field.getName(), field.getDefaultValue()));
                     } else if (unit == StyleableField.DimensionUnit.SP) {
-                        builder.addCode(resWriter.getDimensionPixelSize(field.getName(), field.getDefaultValue()));
-                        builder.addCode("\n");
-                        builder.addCode(pixelWriter.convertPixelToDp(field.getName()));
+                        builder.addCode(defaultsWriter.getDimensionSp(field.getName(), field.getDefaultValue()));
                     }
                 } else {
-                    builder.beginControlFlow("try");
-                    builder.addCode(resWriter.getColor(field.getName(), field.getDefaultValue()));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    exceptionCount++;
-                    builder.beginControlFlow("try");
-                    builder.addCode(resWriter.getDimensionPixelOffset(field.getName(), field.getDefaultValue()));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    builder.addCode(resWriter.getInteger(field.getName(), field.getDefaultValue()));
-                    builder.addCode("\n");
-                    builder.endControlFlow();
-                    builder.endControlFlow();
+                    builder.addCode(defaultsWriter.getInt(field.getName(), field.getDefaultValue()));
                 }
             } else if (unboxedTypeName.equals(TypeName.FLOAT)) {
                 if (field.isDimension()) {
-                    builder.addCode(resWriter.getDimension(field.getName(), field.getDefaultValue()));
+                    builder.addCode(defaultsWriter.getDimension(field.getName(), field.getDefaultValue()));
                 } else {
-                    builder.beginControlFlow("try");
-                    builder.addCode(resWriter.getDimension(field.getName(), field.getDefaultValue()));
-                    builder.addCode("\n");
-                    builder.nextControlFlow("catch (Exception e$L)", exceptionCount);
-                    builder.addCode(resWriter.getFraction(field.getName(), field.getDefaultValue(), 0, 1));
-                    builder.addCode("\n");
-                    builder.endControlFlow();
+                    builder.addCode(defaultsWriter.getFloat(field.getName(), field.getDefaultValue()));
                 }
             }
         } else if (typeName.equals(COLOR_STATE_LIST)) {
-            builder.addCode(resWriter.getColorStateList(field.getName(), field.getDefaultValue()));
+            builder.addCode(field.isShared() ? defaultsWriter.getColorStateList(field.getName(), field.getDefaultValue())
+                    : resWriter.getColorStateList(field.getName(), field.getDefaultValue()));
         } else if (typeName.equals(DRAWABLE)) {
-            builder.addCode(resWriter.getDrawable(field.getName(), field.getDefaultValue()));
+            builder.addCode(field.isShared() ? defaultsWriter.getDrawable(field.getName(), field.getDefaultValue())
+                    : resWriter.getDrawable(field.getName(), field.getDefaultValue()));
         } else if (typeName.equals(CHAR_SEQUENCE)) {
-            builder.addCode(resWriter.getText(field.getName(), field.getDefaultValue()));
+            builder.addCode(defaultsWriter.getText(field.getName(), field.getDefaultValue()));
         } else if (typeName.equals(CHAR_SEQUENCE_ARRAY)) {
-            builder.addCode(resWriter.getTextArray(field.getName(), field.getDefaultValue()));
+            builder.addCode(defaultsWriter.getTextArray(field.getName(), field.getDefaultValue()));
         } else if (typeName.equals(STRING)) {
-            builder.addCode(resWriter.getString(field.getName(), field.getDefaultValue()));
+            builder.addCode(defaultsWriter.getString(field.getName(), field.getDefaultValue()));
+        } else if (field.isEnum()) {
+            builder.addCode(defaultsWriter.getEnum(field.getName(), field.getDefaultValue(), field.getEnumLookupName(), field.getEnumFirstValue()));
         }
 
         builder.addCode("\n");
@@ -0,0 +1,80 @@
+package com.chrynan.glimpse;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.util.List;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * A model representation of a class to generate an attribute binding class for, with everything
+ * needed to generate it. The model is extracted from the compiler elements on the compiler thread,
+ * after which generating the binding class doesn't access the compiler anymore and can run on any
+ * thread. The {@link TypeElement} is only kept as the originating element of the generated file.
+ */
+class StyleableClass {
+
+    private final TypeElement typeElement;
+    private final String simpleName;
+    private final TypeName typeName;
+    private final ClassName attributeClassName;
+    private final List<StyleableField> fields;
+    private final List<StyleableDelegateField> delegates;
+    private final MergedAttributes mergedAttributes;
+    private final ClassName superBinderClassName;
+
+    /**
+     * @param typeElement          The class to bind.
+     * @param fields               The fields declared by the class.
+     * @param delegates            The delegates declared by the class.
+     * @param mergedAttributes     The single attribute array of all of the fields, or null to
+     *                             obtain the array of each styleable group.
+     * @param superBinderClassName The binder of the nearest ancestor with bindings, invoked before
+     *                             binding the fields with the shared TypedArray when it's in the
+     *                             same package, or null.
+     */
+    StyleableClass(final TypeElement typeElement, final List<StyleableField> fields, final List<StyleableDelegateField> delegates,
+                   final MergedAttributes mergedAttributes, final ClassName superBinderClassName) {
+        this.typeElement = typeElement;
+        this.simpleName = typeElement.getSimpleName().toString();
+        this.typeName = TypeName.get(typeElement.asType());
+        this.attributeClassName = StyleableAttributeClassCreator.getAttributeClassName(typeElement);
+        this.fields = fields;
+        this.delegates = delegates;
+        this.mergedAttributes = mergedAttributes;
+        this.superBinderClassName = superBinderClassName;
+    }
+
+    TypeElement getTypeElement() {
+        return typeElement;
+    }
+
+    String getSimpleName() {
+        return simpleName;
+    }
+
+    TypeName getTypeName() {
+        return typeName;
+    }
+
+    ClassName getAttributeClassName() {
+        return attributeClassName;
+    }
+
+    List<StyleableField> getFields() {
+        return fields;
+    }
+
+    List<StyleableDelegateField> getDelegates() {
+        return delegates;
+    }
+
+    MergedAttributes getMergedAttributes() {
+        return mergedAttributes;
+    }
+
+    ClassName getSuperBinderClassName() {
+        return superBinderClassName;
+    }
+}
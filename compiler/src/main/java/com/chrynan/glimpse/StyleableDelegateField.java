@@ -0,0 +1,34 @@
+package com.chrynan.glimpse;
+
+import com.squareup.javapoet.ClassName;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Represents a field annotated with {@link StyleableDelegate} along with the binder of the
+ * delegate's class, which the binder of the containing class invokes to bind the delegate.
+ */
+class StyleableDelegateField {
+
+    private final String fieldName;
+    private final ClassName binderClassName;
+
+    StyleableDelegateField(final Element element, final ClassName binderClassName) {
+        if (element == null || element.getAnnotation(StyleableDelegate.class) == null || element.getKind() != ElementKind.FIELD || element.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new IllegalArgumentException("Element parameter in StyleableDelegateField constructor must represent a non-private field annotated with the StyleableDelegate annotation");
+        }
+
+        this.fieldName = element.getSimpleName().toString();
+        this.binderClassName = binderClassName;
+    }
+
+    String getName() {
+        return fieldName;
+    }
+
+    ClassName getBinderClassName() {
+        return binderClassName;
+    }
+}
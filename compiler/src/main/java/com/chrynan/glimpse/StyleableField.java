@@ -1,8 +1,16 @@
 package com.chrynan.glimpse;
 
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
@@ -10,6 +18,9 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 
 /**
  * Created by ckeenan on 2/7/17.
@@ -20,9 +31,22 @@ class StyleableField {
     static final String VALUE_FIELD = "value";
     static final String DEFAULT_RES_FIELD = "defaultRes";
 
+    private static final ClassName DRAWABLE = ClassName.get("android.graphics.drawable", "Drawable");
+    private static final ClassName COLOR_STATE_LIST = ClassName.get("android.content.res", "ColorStateList");
+    private static final TypeName CHAR_SEQUENCE_ARRAY = ArrayTypeName.of(CharSequence.class);
+    private static final ClassName STRING = ClassName.get(String.class);
+    private static final ClassName LAZY_VALUE = ClassName.get("com.chrynan.glimpse", "LazyValue");
+
     private static final String COLOR_INT_CLASS_NAME = "ColorInt";
     private static final String DIMENSION_CLASS_NAME = "Dimension";
     private static final String DIMENSION_UNIT_FIELD_NAME = "unit";
+    private static final String ENUM_LOOKUP_SUFFIX = "_VALUES";
+
+    /**
+     * The maximum size of the lookup table of an enum field, which spans every value between the
+     * lowest and the highest attribute value of the constants.
+     */
+    private static final int MAX_ENUM_LOOKUP_SIZE = 256;
 
     private final String fieldName;
     private final TypeName typeName;
@@ -30,11 +54,16 @@ class StyleableField {
     private final RClassReference defaultReference;
     private final boolean hasDefaultValue;
     private final String styleableGroupName;
+    private final boolean shared;
+    private final String lazyKind;
 
     private boolean colorInt;
     private boolean dimension;
     private DimensionUnit dimensionUnit;
 
+    private List<String> enumConstants;
+    private int enumFirstValue;
+
     StyleableField(final Element element, final StyleableAnnotationValues annotationValues) {
         if (element == null || element.getAnnotation(Styleable.class) == null || element.getKind() != ElementKind.FIELD || element.getModifiers().contains(Modifier.PRIVATE)) {
             throw new IllegalArgumentException("Element parameter in StyleableField constructor must represent a non-private field annotated with the Styleable annotation");
@@ -48,6 +77,26 @@ class StyleableField {
         this.defaultReference = annotationValues.getDefaultValue();
         this.hasDefaultValue = annotationValues.getDefaultValue() != null;
         this.styleableGroupName = annotationValues.getStyleableValue().getRClassName().packageName() + "." + annotationValues.getStyleableValue().getGroupName();
+        this.shared = styleable.shared();
+
+        final boolean lazyValueType = typeName instanceof ParameterizedTypeName && ((ParameterizedTypeName) typeName).rawType.equals(LAZY_VALUE);
+        final TypeName valueTypeName = lazyValueType ? ((ParameterizedTypeName) typeName).typeArguments.get(0) : typeName;
+
+        if (styleable.lazy() != lazyValueType) {
+            throw new IllegalArgumentException("Lazy fields must be a LazyValue, and LazyValue fields must be lazy. Field: " + fieldName);
+        }
+
+        if (shared && !valueTypeName.equals(DRAWABLE) && !valueTypeName.equals(COLOR_STATE_LIST)) {
+            throw new IllegalArgumentException("Only Drawable and ColorStateList fields can be shared. Field: " + fieldName);
+        }
+
+        this.lazyKind = lazyValueType ? getLazyKind(valueTypeName) : null;
+
+        final TypeMirror type = element.asType();
+
+        if (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+            readEnumConstants(((DeclaredType) type).asElement());
+        }
 
         for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
             String annotationName = mirror.getAnnotationType().asElement().getSimpleName().toString();
@@ -86,6 +135,23 @@ class StyleableField {
         return styleableReference.getRClassName().packageName() + "." + styleableReference.getFullName();
     }
 
+    ClassName getStyleableRClassName() {
+        return styleableReference.getRClassName();
+    }
+
+    /**
+     * Retrieves the name of the attribute of the styleable index (ex: myAttr for
+     * R.styleable.MyView_myAttr).
+     *
+     * @return The attribute name or null if the styleable index name has no group prefix.
+     */
+    String getAttributeName() {
+        final String styleableName = styleableReference.getFullName();
+        final String groupName = styleableReference.getGroupName();
+
+        return groupName != null && styleableName.length() > groupName.length() ? styleableName.substring(groupName.length() + 1) : null;
+    }
+
     String getDefaultValue() {
         return defaultReference != null ? defaultReference.getRClassName().packageName() + "." + defaultReference.getFullName() : null;
     }
@@ -98,6 +164,24 @@ class StyleableField {
         return styleableGroupName;
     }
 
+    boolean isShared() {
+        return shared;
+    }
+
+    boolean isLazy() {
+        return lazyKind != null;
+    }
+
+    /**
+     * Retrieves the name of the LazyValue constant for the kind of value of a lazy field (ex:
+     * SHARED_DRAWABLE for a shared LazyValue&lt;Drawable&gt;).
+     *
+     * @return The name of the kind or null if the field isn't lazy.
+     */
+    String getLazyKind() {
+        return lazyKind;
+    }
+
     boolean isColorInt() {
         return colorInt;
     }
@@ -110,6 +194,112 @@ class StyleableField {
         return dimensionUnit;
     }
 
+    boolean isEnum() {
+        return enumConstants != null;
+    }
+
+    /**
+     * Retrieves the names of the constants of the lookup table of an enum field, in the order of
+     * their attribute values starting from {@link #getEnumFirstValue()}, with null for the values
+     * that have no constant.
+     *
+     * @return The lookup table or null if the field isn't an enum.
+     */
+    List<String> getEnumConstants() {
+        return enumConstants;
+    }
+
+    int getEnumFirstValue() {
+        return enumFirstValue;
+    }
+
+    /**
+     * Retrieves the name of the static lookup table of an enum field in the generated binder, which
+     * is the same for every field of the same enum (ex: SCALE_TYPE_VALUES for ScaleType).
+     */
+    String getEnumLookupName() {
+        final StringBuilder sb = new StringBuilder();
+
+        for (final String simpleName : ((ClassName) typeName).simpleNames()) {
+            if (sb.length() > 0) {
+                sb.append('_');
+            }
+
+            for (int i = 0; i < simpleName.length(); i++) {
+                final char c = simpleName.charAt(i);
+
+                if (i > 0 && Character.isUpperCase(c) && !Character.isUpperCase(simpleName.charAt(i - 1))) {
+                    sb.append('_');
+                }
+
+                sb.append(Character.toUpperCase(c));
+            }
+        }
+
+        return sb.append(ENUM_LOOKUP_SUFFIX).toString();
+    }
+
+    private String getLazyKind(final TypeName valueTypeName) {
+        if (valueTypeName.equals(DRAWABLE)) {
+            return shared ? "SHARED_DRAWABLE" : "DRAWABLE";
+        } else if (valueTypeName.equals(COLOR_STATE_LIST)) {
+            return shared ? "SHARED_COLOR_STATE_LIST" : "COLOR_STATE_LIST";
+        } else if (valueTypeName.equals(CHAR_SEQUENCE_ARRAY)) {
+            return "TEXT_ARRAY";
+        } else if (valueTypeName.equals(STRING)) {
+            return "STRING";
+        }
+
+        throw new IllegalArgumentException("Only Drawable, ColorStateList, CharSequence[] and String fields can be lazy. Field: " + fieldName);
+    }
+
+    /**
+     * Reads the attribute value of every constant of the enum, which is the value of its
+     * {@link StyleableEnumValue} annotation or else its ordinal, and builds the lookup table.
+     */
+    private void readEnumConstants(final Element enumElement) {
+        final SortedMap<Integer, String> constants = new TreeMap<>();
+        int ordinal = 0;
+
+        for (final Element enclosedElement : enumElement.getEnclosedElements()) {
+            if (enclosedElement.getKind() != ElementKind.ENUM_CONSTANT) {
+                continue;
+            }
+
+            final StyleableEnumValue enumValue = enclosedElement.getAnnotation(StyleableEnumValue.class);
+            final int value = enumValue != null ? enumValue.value() : ordinal;
+            final String name = enclosedElement.getSimpleName().toString();
+            final String existingName = constants.put(value, name);
+
+            if (existingName != null) {
+                throw new IllegalArgumentException("The enum constants " + existingName + " and " + name + " have the same attribute value " +
+                        value + ". Field: " + fieldName);
+            }
+
+            ordinal++;
+        }
+
+        if (constants.isEmpty()) {
+            throw new IllegalArgumentException("Enum fields must have an enum type with constants. Field: " + fieldName);
+        }
+
+        final long size = (long) constants.lastKey() - constants.firstKey() + 1;
+
+        if (size > MAX_ENUM_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("The attribute values of the enum constants must be within a range of " + MAX_ENUM_LOOKUP_SIZE +
+                    " values. Field: " + fieldName);
+        }
+
+        final List<String> lookup = new ArrayList<>(Collections.<String>nCopies((int) size, null));
+
+        for (final Map.Entry<Integer, String> entry : constants.entrySet()) {
+            lookup.set(entry.getKey() - constants.firstKey(), entry.getValue());
+        }
+
+        enumFirstValue = constants.firstKey();
+        enumConstants = Collections.unmodifiableList(lookup);
+    }
+
     enum DimensionUnit {
         DP,
         PX,
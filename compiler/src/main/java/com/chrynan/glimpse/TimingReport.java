@@ -0,0 +1,148 @@
+package com.chrynan.glimpse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records where the {@link GlimpseAnnotationProcessor} spends its time in every processing round,
+ * and writes it as a JSON file once processing is over. The stages are the resolution of the R
+ * class references of the annotations, the building of the models of the bound classes, excluding
+ * the resolution, the generation of the binding classes with JavaPoet and the writing of the files
+ * with the Filer. Times are wall clock milliseconds, so with parallel generation the generation
+ * time is that of the whole stage.
+ */
+class TimingReport {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final List<Round> rounds = new ArrayList<>();
+    private Round currentRound;
+
+    void startRound() {
+        currentRound = new Round(rounds.size() + 1);
+    }
+
+    void endRound() {
+        if (currentRound != null && currentRound.classes > 0) {
+            rounds.add(currentRound);
+        }
+
+        currentRound = null;
+    }
+
+    void addClass() {
+        currentRound.classes++;
+    }
+
+    void addResolution(final long nanos) {
+        currentRound.fields++;
+        currentRound.resolutionNanos += nanos;
+    }
+
+    /**
+     * Adds the time spent extracting the models of the round, which includes the resolution of the
+     * R class references, recorded separately.
+     */
+    void addExtraction(final long nanos) {
+        currentRound.modelNanos += nanos - currentRound.resolutionNanos;
+    }
+
+    void addGeneration(final long nanos) {
+        currentRound.generationNanos += nanos;
+    }
+
+    void addWrite(final long nanos) {
+        currentRound.writeNanos += nanos;
+    }
+
+    /**
+     * Retrieves a one line summary of the last recorded round, or null if there is none.
+     */
+    String getLastRoundSummary() {
+        if (rounds.isEmpty()) {
+            return null;
+        }
+
+        final Round round = rounds.get(rounds.size() - 1);
+
+        return String.format(Locale.US, "Glimpse round %d: %d classes, %d fields, resolution %.3f ms, models %.3f ms, generation %.3f ms, writes %.3f ms",
+                round.number, round.classes, round.fields, toMillis(round.resolutionNanos), toMillis(round.modelNanos), toMillis(round.generationNanos),
+                toMillis(round.writeNanos));
+    }
+
+    void writeTo(final File file, final int parallelism) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create the directory " + parent);
+        }
+
+        final Round total = new Round(0);
+        final StringBuilder json = new StringBuilder("{\n  \"parallelism\": ").append(parallelism).append(",\n  \"rounds\": [");
+
+        for (int i = 0; i < rounds.size(); i++) {
+            final Round round = rounds.get(i);
+
+            json.append(i == 0 ? "\n" : ",\n").append("    ");
+            appendRound(json, round);
+
+            total.classes += round.classes;
+            total.fields += round.fields;
+            total.resolutionNanos += round.resolutionNanos;
+            total.modelNanos += round.modelNanos;
+            total.generationNanos += round.generationNanos;
+            total.writeNanos += round.writeNanos;
+        }
+
+        json.append(rounds.isEmpty() ? "],\n  \"total\": " : "\n  ],\n  \"total\": ");
+        appendRound(json, total);
+        json.append("\n}\n");
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), UTF_8)) {
+            writer.write(json.toString());
+        }
+    }
+
+    private static void appendRound(final StringBuilder json, final Round round) {
+        if (round.number > 0) {
+            json.append("{ \"round\": ").append(round.number).append(", ");
+        } else {
+            json.append("{ ");
+        }
+
+        json.append("\"classes\": ").append(round.classes)
+                .append(", \"fields\": ").append(round.fields)
+                .append(String.format(Locale.US, ", \"resolutionMillis\": %.3f", toMillis(round.resolutionNanos)))
+                .append(String.format(Locale.US, ", \"modelMillis\": %.3f", toMillis(round.modelNanos)))
+                .append(String.format(Locale.US, ", \"generationMillis\": %.3f", toMillis(round.generationNanos)))
+                .append(String.format(Locale.US, ", \"writeMillis\": %.3f", toMillis(round.writeNanos)))
+                .append(" }");
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) NANOS_PER_MILLI;
+    }
+
+    private static final class Round {
+
+        private final int number;
+        private int classes;
+        private int fields;
+        private long resolutionNanos;
+        private long modelNanos;
+        private long generationNanos;
+        private long writeNanos;
+
+        Round(final int number) {
+            this.number = number;
+        }
+    }
+}
@@ -12,6 +12,9 @@ class TypedArrayWriter {
 
     static final ClassName CLASS_NAME = ClassName.get("android.content.res", "TypedArray");
 
+    private static final ClassName TYPED_VALUES = ClassName.get("com.chrynan.glimpse", "TypedValues");
+    private static final ClassName LAZY_VALUE = ClassName.get("com.chrynan.glimpse", "LazyValue");
+
     private final String targetFieldName;
     private final String typedArrayName;
     private final String contextName;
@@ -43,10 +46,6 @@ class TypedArrayWriter {
         return CodeBlock.of("$T $L = $L.obtainStyledAttributes($L, $L, $L, $L);", CLASS_NAME, typedArrayName, contextName, attributeSetName, attributesArrayName, defStyleAttrName, defStyleResName);
     }
 
-    CodeBlock obtainAttributes(final String attributeSetName, final String attributesArrayName) {
-        return CodeBlock.of("$T $L = $L.obtainStyledAttributes($L, $L);", CLASS_NAME, typedArrayName, contextName, attributeSetName, attributesArrayName);
-    }
-
     CodeBlock getBoolean(final String fieldName, final String indexReference, final String defValue) {
         return CodeBlock.of("$L.$L = $L.getBoolean($L, $L);", targetFieldName, fieldName, typedArrayName, indexReference, defValue);
     }
@@ -111,6 +110,40 @@ class TypedArrayWriter {
         return CodeBlock.of("$L.$L = $L.getTextArray($L);", targetFieldName, fieldName, typedArrayName, indexReference);
     }
 
+    /**
+     * Retrieves an int attribute based on the type of its value, for int fields that don't declare
+     * the kind of value they hold.
+     */
+    CodeBlock getUntypedInt(final String fieldName, final String indexReference, final String defValue, final String resourcesName) {
+        return CodeBlock.of("$L.$L = $T.getInt($L, $L, $L, $L);", targetFieldName, fieldName, TYPED_VALUES, typedArrayName, indexReference, defValue, resourcesName);
+    }
+
+    /**
+     * Retrieves a float attribute based on the type of its value, for float fields that aren't
+     * annotated as a dimension.
+     */
+    CodeBlock getUntypedFloat(final String fieldName, final String indexReference, final String defValue, final String resourcesName) {
+        return CodeBlock.of("$L.$L = $T.getFloat($L, $L, $L, $L);", targetFieldName, fieldName, TYPED_VALUES, typedArrayName, indexReference, defValue, resourcesName);
+    }
+
+    /**
+     * Retrieves an enum attribute through the provided lookup table of the generated binder.
+     */
+    CodeBlock getEnum(final String fieldName, final String indexReference, final String lookupName, final int firstValue, final CodeBlock defValue) {
+        return CodeBlock.of("$L.$L = $T.getEnum($L, $L, $L, $L, $L);", targetFieldName, fieldName, TYPED_VALUES, typedArrayName, indexReference, lookupName,
+                firstValue, defValue);
+    }
+
+    /**
+     * Captures the resource referenced by an attribute of a lazy field, which is resolved on first
+     * access with the theme of the Context. The kind is the name of one of the kind constants of
+     * LazyValue.
+     */
+    CodeBlock getLazy(final String fieldName, final String indexReference, final String kind, final String defaultRes, final String resourcesName) {
+        return CodeBlock.of("$L.$L = $T.get($L, $L, $T.$L, $L, $L, $L.getTheme());", targetFieldName, fieldName, LAZY_VALUE, typedArrayName, indexReference,
+                LAZY_VALUE, kind, defaultRes, resourcesName, contextName);
+    }
+
     CodeBlock recycle() {
         return CodeBlock.of("$L.recycle();", typedArrayName);
     }
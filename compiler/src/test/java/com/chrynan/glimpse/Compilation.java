@@ -0,0 +1,541 @@
+package com.chrynan.glimpse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the {@link GlimpseAnnotationProcessor} on test sources with the system Java compiler,
+ * keeping the generated sources and class files in memory. The sources are compiled against the
+ * class path of the tests, which contains the annotation module and the Android stubs.
+ */
+final class Compilation {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String FIXTURES_PATH = "fixtures/";
+
+    private final boolean success;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private final Map<String, String> generatedSources;
+    private final Map<String, byte[]> classFiles;
+    private final Map<String, List<String>> originatingElements;
+    private final Set<String> processorOptions;
+
+    private Compilation(final boolean success, final List<Diagnostic<? extends JavaFileObject>> diagnostics,
+                        final Map<String, String> generatedSources, final Map<String, byte[]> classFiles,
+                        final Map<String, List<String>> originatingElements, final Set<String> processorOptions) {
+        this.success = success;
+        this.diagnostics = diagnostics;
+        this.generatedSources = generatedSources;
+        this.classFiles = classFiles;
+        this.originatingElements = originatingElements;
+        this.processorOptions = processorOptions;
+    }
+
+    /**
+     * Compiles the provided sources with the annotation processor and the provided processor
+     * options.
+     */
+    static Compilation compile(final Map<String, String> options, final JavaFileObject... sources) {
+        return compile(options, null, sources);
+    }
+
+    /**
+     * Compiles the provided sources against the classes of a previous compilation, like an
+     * incremental build recompiling only the changed sources.
+     *
+     * @param previous The previous compilation, whose classes are added to the class path, or null.
+     */
+    static Compilation compile(final Map<String, String> options, final Compilation previous, final JavaFileObject... sources) {
+        return compile(options, previous, Collections.<Processor>emptyList(), sources);
+    }
+
+    /**
+     * Compiles the provided fixtures with the annotation processor and other processors, which run
+     * after it in every round, like the processors of other libraries of a module. Fails the test
+     * if the compilation doesn't succeed.
+     *
+     * @param fixtures The paths of the sources, relative to the fixtures directory.
+     */
+    static Compilation compileWithProcessorsOrFail(final Map<String, String> options, final List<Processor> otherProcessors,
+                                                   final String... fixtures) {
+        return compileOrFail(options, null, otherProcessors, fixtures);
+    }
+
+    private static Compilation compile(final Map<String, String> options, final Compilation previous, final List<Processor> otherProcessors,
+                                       final JavaFileObject... sources) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null) {
+            throw new IllegalStateException("The tests must run on a JDK.");
+        }
+
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, UTF_8);
+        final InMemoryFileManager fileManager = new InMemoryFileManager(standardFileManager,
+                previous != null ? previous.classFiles : Collections.<String, byte[]>emptyMap());
+
+        final List<String> arguments = new ArrayList<>(Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                "-source", "1.7", "-target", "1.7", "-Xlint:-options"));
+
+        for (final Map.Entry<String, String> option : options.entrySet()) {
+            arguments.add("-A" + option.getKey() + "=" + option.getValue());
+        }
+
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments, null, Arrays.asList(sources));
+        final RecordingProcessor processor = new RecordingProcessor(new GlimpseAnnotationProcessor());
+        final List<Processor> processors = new ArrayList<>();
+        processors.add(processor);
+        processors.addAll(otherProcessors);
+        task.setProcessors(processors);
+
+        final boolean success = task.call();
+
+        return new Compilation(success, diagnostics.getDiagnostics(), fileManager.generatedSources, fileManager.classFiles,
+                processor.originatingElements, processor.getSupportedOptions());
+    }
+
+    /**
+     * Compiles the provided fixtures, failing the test with the diagnostics of the compilation if it
+     * doesn't succeed.
+     *
+     * @param previous The previous compilation, whose classes are added to the class path, or null.
+     * @param fixtures The paths of the sources, relative to the fixtures directory.
+     */
+    static Compilation compileOrFail(final Map<String, String> options, final Compilation previous, final String... fixtures) {
+        return compileOrFail(options, previous, Collections.<Processor>emptyList(), fixtures);
+    }
+
+    private static Compilation compileOrFail(final Map<String, String> options, final Compilation previous,
+                                             final List<Processor> otherProcessors, final String... fixtures) {
+        final JavaFileObject[] sources = new JavaFileObject[fixtures.length];
+
+        for (int i = 0; i < fixtures.length; i++) {
+            sources[i] = fixture(fixtures[i]);
+        }
+
+        final Compilation compilation = compile(options, previous, otherProcessors, sources);
+
+        if (!compilation.isSuccess()) {
+            final StringBuilder message = new StringBuilder("Compilation failed:");
+
+            for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.getDiagnostics()) {
+                message.append('\n').append(diagnostic.getMessage(null));
+            }
+
+            fail(message.toString());
+        }
+
+        return compilation;
+    }
+
+    /**
+     * Loads a test source from the fixtures resource directory.
+     *
+     * @param path The path of the source, relative to the fixtures directory (ex:
+     *             "com/example/R.java").
+     */
+    static JavaFileObject fixture(final String path) {
+        final InputStream stream = Compilation.class.getClassLoader().getResourceAsStream(FIXTURES_PATH + path);
+
+        if (stream == null) {
+            throw new IllegalArgumentException("No fixture at path " + path);
+        }
+
+        try {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+
+            for (int read = stream.read(buffer); read != -1; read = stream.read(buffer)) {
+                output.write(buffer, 0, read);
+            }
+
+            return new SourceFile(path, new String(output.toByteArray(), UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Error reading fixture " + path, e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * Counts the non-overlapping occurrences of a text in a source.
+     */
+    static int countOccurrences(final String source, final String text) {
+        int count = 0;
+
+        for (int index = source.indexOf(text); index != -1; index = source.indexOf(text, index + text.length())) {
+            count++;
+        }
+
+        return count;
+    }
+
+    boolean isSuccess() {
+        return success;
+    }
+
+    List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Retrieves the source generated by the processor for the provided class.
+     *
+     * @return The source or null if it wasn't generated.
+     */
+    String getGeneratedSource(final String qualifiedName) {
+        return generatedSources.get(qualifiedName);
+    }
+
+    Map<String, String> getGeneratedSources() {
+        return Collections.unmodifiableMap(generatedSources);
+    }
+
+    /**
+     * Retrieves the size, in bytes, of the class files of the provided class and of its nested
+     * classes.
+     */
+    int getClassSize(final String qualifiedName) {
+        int size = 0;
+
+        for (final Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+            if (classFile.getKey().equals(qualifiedName) || classFile.getKey().startsWith(qualifiedName + "$")) {
+                size += classFile.getValue().length;
+            }
+        }
+
+        return size;
+    }
+
+    Map<String, byte[]> getClassFiles() {
+        return Collections.unmodifiableMap(classFiles);
+    }
+
+    /**
+     * Retrieves the qualified names of the originating elements the processor provided to the Filer
+     * when creating the source of the provided class.
+     *
+     * @return The names or null if the source wasn't created.
+     */
+    List<String> getOriginatingElements(final String qualifiedName) {
+        return originatingElements.get(qualifiedName);
+    }
+
+    /**
+     * Retrieves the options supported by the processor once initialized with the options of the
+     * compilation.
+     */
+    Set<String> getProcessorOptions() {
+        return processorOptions;
+    }
+
+    /**
+     * A source provided as a string.
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String content;
+
+        SourceFile(final String path, final String content) {
+            super(URI.create("string:///" + path), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+
+    /**
+     * A file written by the compiler or the processor, kept in memory.
+     */
+    private static final class OutputFile extends SimpleJavaFileObject {
+
+        private final String name;
+        private final Map<String, byte[]> classFiles;
+        private final Map<String, String> generatedSources;
+
+        OutputFile(final String name, final Kind kind, final Map<String, byte[]> classFiles, final Map<String, String> generatedSources) {
+            super(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind);
+            this.name = name;
+            this.classFiles = classFiles;
+            this.generatedSources = generatedSources;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return generatedSources.get(name);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+
+                    if (getKind() == Kind.CLASS) {
+                        classFiles.put(name, toByteArray());
+                    } else {
+                        generatedSources.put(name, new String(toByteArray(), UTF_8));
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * A class of a previous compilation, on the class path.
+     */
+    private static final class ClassPathFile extends SimpleJavaFileObject {
+
+        private final String name;
+        private final byte[] content;
+
+        ClassPathFile(final String name, final byte[] content) {
+            super(URI.create("classpath:///" + name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.name = name;
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+    private static final class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final Map<String, String> generatedSources = new TreeMap<>();
+        private final Map<String, byte[]> classFiles = new TreeMap<>();
+        private final Map<String, byte[]> classPathFiles;
+
+        InMemoryFileManager(final JavaFileManager fileManager, final Map<String, byte[]> classPathFiles) {
+            super(fileManager);
+            this.classPathFiles = classPathFiles;
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(final Location location, final String packageName, final Set<JavaFileObject.Kind> kinds,
+                                             final boolean recurse) throws IOException {
+            final Iterable<JavaFileObject> files = super.list(location, packageName, kinds, recurse);
+
+            if (location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS) || classPathFiles.isEmpty()) {
+                return files;
+            }
+
+            final List<JavaFileObject> allFiles = new ArrayList<>();
+
+            for (final JavaFileObject file : files) {
+                allFiles.add(file);
+            }
+
+            for (final Map.Entry<String, byte[]> classFile : classPathFiles.entrySet()) {
+                final String name = classFile.getKey();
+                final String filePackageName = name.lastIndexOf('.') != -1 ? name.substring(0, name.lastIndexOf('.')) : "";
+
+                if (filePackageName.equals(packageName) || (recurse && filePackageName.startsWith(packageName + "."))) {
+                    allFiles.add(new ClassPathFile(name, classFile.getValue()));
+                }
+            }
+
+            return allFiles;
+        }
+
+        @Override
+        public String inferBinaryName(final Location location, final JavaFileObject file) {
+            return file instanceof ClassPathFile ? ((ClassPathFile) file).name : super.inferBinaryName(location, file);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className, final JavaFileObject.Kind kind,
+                                                   final FileObject sibling) {
+            return new OutputFile(className, kind, classFiles, generatedSources);
+        }
+
+        @Override
+        public boolean isSameFile(final FileObject first, final FileObject second) {
+            return first.toUri().equals(second.toUri());
+        }
+    }
+
+    /**
+     * Runs the processor with a wrapped environment, the way Gradle runs incremental processors,
+     * recording the originating elements of the created sources.
+     */
+    private static final class RecordingProcessor implements Processor {
+
+        private final Processor processor;
+        private final Map<String, List<String>> originatingElements = new TreeMap<>();
+
+        RecordingProcessor(final Processor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public Set<String> getSupportedOptions() {
+            return processor.getSupportedOptions();
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return processor.getSupportedAnnotationTypes();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return processor.getSupportedSourceVersion();
+        }
+
+        @Override
+        public void init(final ProcessingEnvironment env) {
+            processor.init(new RecordingEnvironment(env, new RecordingFiler(env.getFiler(), originatingElements)));
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+            return processor.process(annotations, roundEnvironment);
+        }
+
+        @Override
+        public Iterable<? extends Completion> getCompletions(final Element element, final AnnotationMirror annotation,
+                                                             final ExecutableElement member, final String userText) {
+            return processor.getCompletions(element, annotation, member, userText);
+        }
+    }
+
+    /**
+     * A wrapped environment, named like the one of Gradle so that the processor can unwrap it.
+     */
+    private static final class RecordingEnvironment implements ProcessingEnvironment {
+
+        private final ProcessingEnvironment delegate;
+        private final Filer filer;
+
+        RecordingEnvironment(final ProcessingEnvironment delegate, final Filer filer) {
+            this.delegate = delegate;
+            this.filer = filer;
+        }
+
+        @Override
+        public Map<String, String> getOptions() {
+            return delegate.getOptions();
+        }
+
+        @Override
+        public Messager getMessager() {
+            return delegate.getMessager();
+        }
+
+        @Override
+        public Filer getFiler() {
+            return filer;
+        }
+
+        @Override
+        public Elements getElementUtils() {
+            return delegate.getElementUtils();
+        }
+
+        @Override
+        public Types getTypeUtils() {
+            return delegate.getTypeUtils();
+        }
+
+        @Override
+        public SourceVersion getSourceVersion() {
+            return delegate.getSourceVersion();
+        }
+
+        @Override
+        public Locale getLocale() {
+            return delegate.getLocale();
+        }
+    }
+
+    private static final class RecordingFiler implements Filer {
+
+        private final Filer delegate;
+        private final Map<String, List<String>> originatingElements;
+
+        RecordingFiler(final Filer delegate, final Map<String, List<String>> originatingElements) {
+            this.delegate = delegate;
+            this.originatingElements = originatingElements;
+        }
+
+        @Override
+        public JavaFileObject createSourceFile(final CharSequence name, final Element... elements) throws IOException {
+            final List<String> names = new ArrayList<>();
+
+            for (final Element element : elements) {
+                names.add(((TypeElement) element).getQualifiedName().toString());
+            }
+
+            originatingElements.put(name.toString(), names);
+
+            return delegate.createSourceFile(name, elements);
+        }
+
+        @Override
+        public JavaFileObject createClassFile(final CharSequence name, final Element... elements) throws IOException {
+            return delegate.createClassFile(name, elements);
+        }
+
+        @Override
+        public FileObject createResource(final JavaFileManager.Location location, final CharSequence packageName, final CharSequence relativeName,
+                                         final Element... elements) throws IOException {
+            return delegate.createResource(location, packageName, relativeName, elements);
+        }
+
+        @Override
+        public FileObject getResource(final JavaFileManager.Location location, final CharSequence packageName, final CharSequence relativeName)
+                throws IOException {
+            return delegate.getResource(location, packageName, relativeName);
+        }
+    }
+}
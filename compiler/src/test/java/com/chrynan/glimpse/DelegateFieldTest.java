@@ -0,0 +1,72 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the binding of delegates, which invokes the binder of the delegate's class, or of its
+ * nearest super class with bindings, so that the fields the delegate inherits are bound too.
+ */
+public class DelegateFieldTest {
+
+    private static final String BINDER_CLASS_NAME = "com.example.delegates.DelegateView_ViewStyleableAttr";
+
+    @Test
+    public void delegateWithoutFieldsIsBoundByTheBinderOfItsSuperClass() {
+        final Compilation compilation = compileFixtures();
+        final String source = compilation.getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("Helper_ViewStyleableAttr.INSTANCE.bind(delegateView.plainHelper, context, attributeSet, defStyle, " +
+                "defStyleRes, typedArray0, indexes.getDelegate(0));"));
+        assertNull(compilation.getGeneratedSource("com.example.delegates.PlainHelper_ViewStyleableAttr"));
+    }
+
+    @Test
+    public void inheritedFieldsOfDelegateAreBoundByTheBinderOfItsSuperClass() {
+        final Compilation compilation = compileFixtures();
+        final String source = compilation.getGeneratedSource(BINDER_CLASS_NAME);
+        final String delegateSource = compilation.getGeneratedSource("com.example.delegates.DetailedHelper_ViewStyleableAttr");
+
+        assertTrue(source.contains("DetailedHelper_ViewStyleableAttr.INSTANCE.bind(delegateView.detailedHelper, context, attributeSet, " +
+                "defStyle, defStyleRes, typedArray0, indexes.getDelegate(1));"));
+        assertTrue(delegateSource.contains("Helper_ViewStyleableAttr.INSTANCE.bind(detailedHelper, context, attributeSet, defStyle, " +
+                "defStyleRes, typedArray0, indexes.getParent());"));
+        assertFalse(source.contains("textColor"));
+    }
+
+    @Test
+    public void delegateWithoutStyleableFieldsIsAnError() {
+        final Compilation compilation = Compilation.compile(Collections.<String, String>emptyMap(),
+                Compilation.fixture("com/example/delegates/R.java"),
+                Compilation.fixture("com/example/delegates/NoFieldsView.java"));
+
+        assertFalse(compilation.isSuccess());
+
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains(
+                    "The class java.lang.StringBuilder and its super classes have no Styleable annotated fields.")) {
+                return;
+            }
+        }
+
+        fail("The delegate without Styleable fields wasn't reported.");
+    }
+
+    private static Compilation compileFixtures() {
+        return Compilation.compileOrFail(Collections.<String, String>emptyMap(), null,
+                "com/example/delegates/R.java",
+                "com/example/delegates/Helper.java",
+                "com/example/delegates/PlainHelper.java",
+                "com/example/delegates/DetailedHelper.java",
+                "com/example/delegates/DelegateView.java");
+    }
+}
@@ -0,0 +1,86 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the binding of enum fields, which maps the int value of the attribute to the constant
+ * through a static lookup table of the generated binder.
+ */
+public class EnumFieldTest {
+
+    private static final String BINDER_CLASS_NAME = "com.example.enums.EnumView_ViewStyleableAttr";
+
+    @Test
+    public void lookupTableFollowsTheAttributeValues() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        // The table starts at the lowest value, with null for the values that have no constant
+        assertTrue(source.contains("private static final EnumView.ScaleMode[] ENUM_VIEW_SCALE_MODE_VALUES = " +
+                "{ EnumView.ScaleMode.FIT, EnumView.ScaleMode.FILL, null, null, EnumView.ScaleMode.CENTER };"));
+        assertTrue(source.contains("enumView.scaleMode = TypedValues.getEnum(typedArray0, indexes.getIndex(0), ENUM_VIEW_SCALE_MODE_VALUES, 1, null);"));
+    }
+
+    @Test
+    public void fieldsOfTheSameEnumShareTheirLookupTable() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("private static final Orientation[] ORIENTATION_VALUES = { Orientation.HORIZONTAL, Orientation.VERTICAL };"));
+        assertEquals(1, Compilation.countOccurrences(source, "Orientation[] ORIENTATION_VALUES"));
+        assertFalse(source.contains("values()"));
+    }
+
+    @Test
+    public void defaultValueIsMappedThroughTheLookupTable() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("enumView.orientation = TypedValues.getEnum(ORIENTATION_VALUES, 0, " +
+                "defaults.getInt(res, com.example.enums.R.integer.def_orientation));"));
+    }
+
+    @Test
+    public void sparseAndSnapshotBindersCompile() {
+        final Map<String, String> options = new HashMap<>();
+        options.put(GlimpseOptions.OPTION_SPARSE_THRESHOLD, "1");
+        options.put(GlimpseOptions.OPTION_SNAPSHOTS, "true");
+
+        final String source = compileFixtures(options).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("snapshot.scaleMode = TypedValues.getEnum(typedArray0, index, ENUM_VIEW_SCALE_MODE_VALUES, 1, null);"));
+    }
+
+    @Test
+    public void duplicateAttributeValuesAreAnError() {
+        final Compilation compilation = Compilation.compile(Collections.<String, String>emptyMap(),
+                Compilation.fixture("com/example/enums/R.java"),
+                Compilation.fixture("com/example/enums/DuplicateValueView.java"));
+
+        assertFalse(compilation.isSuccess());
+
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains("FIRST and SECOND have the same attribute value 1")) {
+                return;
+            }
+        }
+
+        fail("The duplicate attribute value wasn't reported.");
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options) {
+        return Compilation.compileOrFail(options, null,
+                "com/example/enums/R.java",
+                "com/example/enums/Orientation.java",
+                "com/example/enums/EnumView.java");
+    }
+}
@@ -0,0 +1,62 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the size of the generated binding classes against a budget, so that changes to the code
+ * generation that increase the dex size and verification time of every bound view are noticed.
+ * The budgets are for the javac output of the SizeView fixture, which binds ten attributes of
+ * different types. When a change intentionally increases the size, update the budget.
+ */
+public class GeneratedCodeSizeTest {
+
+    private static final String BINDER_CLASS_NAME = "com.example.SizeView_ViewStyleableAttr";
+
+    private static final int BINDER_BUDGET_BYTES = 4400;
+    private static final int SNAPSHOT_BINDER_BUDGET_BYTES = 6700;
+    private static final int SPARSE_BINDER_BUDGET_BYTES = 5100;
+
+    @Test
+    public void binderIsWithinBudget() {
+        assertWithinBudget(Collections.<String, String>emptyMap(), BINDER_BUDGET_BYTES);
+    }
+
+    @Test
+    public void snapshotBinderIsWithinBudget() {
+        assertWithinBudget(Collections.singletonMap(GlimpseOptions.OPTION_SNAPSHOTS, "true"), SNAPSHOT_BINDER_BUDGET_BYTES);
+    }
+
+    @Test
+    public void sparseBinderIsWithinBudget() {
+        assertWithinBudget(Collections.singletonMap(GlimpseOptions.OPTION_SPARSE_THRESHOLD, "1"), SPARSE_BINDER_BUDGET_BYTES);
+    }
+
+    @Test
+    public void attributesAreObtainedOnlyOnce() {
+        final Compilation compilation = compileFixtures(new HashMap<String, String>());
+        final String source = compilation.getGeneratedSource(BINDER_CLASS_NAME);
+
+        // The bind method without a style delegates to the one with a style
+        assertEquals(1, Compilation.countOccurrences(source, "obtainStyledAttributes("));
+    }
+
+    private static void assertWithinBudget(final Map<String, String> options, final int budgetBytes) {
+        final int size = compileFixtures(options).getClassSize(BINDER_CLASS_NAME);
+
+        assertTrue("The generated binder with options " + options + " is " + size + " bytes, over its budget of " + budgetBytes + " bytes",
+                size <= budgetBytes);
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options) {
+        return Compilation.compileOrFail(options, null,
+                "com/example/R.java",
+                "com/example/SizeView.java");
+    }
+}
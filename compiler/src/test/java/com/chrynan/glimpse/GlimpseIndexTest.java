@@ -0,0 +1,108 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the generated index, which must look up a binder without initializing the binders of the
+ * other classes, and must contain the classes generated by other processors.
+ */
+public class GlimpseIndexTest {
+
+    private static final String INDEX = "com.example.incremental.TestIndex";
+    private static final Map<String, String> OPTIONS = Collections.singletonMap(GlimpseOptions.OPTION_INDEX, INDEX);
+
+    @Test
+    public void bindersAreLookedUpByClassName() {
+        final String source = compileFixtures(Collections.<Processor>emptyList()).getGeneratedSource(INDEX);
+
+        assertTrue(source.contains("switch (targetClass.getName())"));
+        assertTrue(source.contains("case \"com.example.incremental.BaseView\":\n" +
+                "        return targetClass == BaseView.class ? BaseView_ViewStyleableAttr.INSTANCE : null;"));
+    }
+
+    @Test
+    public void creatingTheIndexDoesntInitializeBinders() {
+        final String source = compileFixtures(Collections.<Processor>emptyList()).getGeneratedSource(INDEX);
+
+        assertFalse(source.contains("static {"));
+        assertFalse(source.contains("static final"));
+    }
+
+    @Test
+    public void classesGeneratedInLaterRoundsAreIndexed() {
+        final Compilation compilation = compileFixtures(Collections.<Processor>singletonList(new GeneratingProcessor()));
+        final String source = compilation.getGeneratedSource(INDEX);
+
+        assertTrue(source.contains("case \"com.example.incremental.GeneratedView\":"));
+        assertTrue(source.contains("case \"com.example.incremental.OtherView\":"));
+    }
+
+    private static Compilation compileFixtures(final List<Processor> otherProcessors) {
+        return Compilation.compileWithProcessorsOrFail(OPTIONS, otherProcessors,
+                "com/example/incremental/R.java",
+                "com/example/incremental/BaseView.java",
+                "com/example/incremental/ChildView.java",
+                "com/example/incremental/OtherView.java");
+    }
+
+    /**
+     * Generates a class with a {@link Styleable} field in the first round, which Glimpse only sees
+     * in the second round.
+     */
+    private static final class GeneratingProcessor extends AbstractProcessor {
+
+        private boolean generated;
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return Collections.singleton("*");
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+            if (generated) {
+                return false;
+            }
+
+            generated = true;
+
+            try {
+                final JavaFileObject file = processingEnv.getFiler().createSourceFile("com.example.incremental.GeneratedView");
+
+                try (Writer writer = file.openWriter()) {
+                    writer.write("package com.example.incremental;\n\n" +
+                            "public class GeneratedView {\n" +
+                            "    @com.chrynan.glimpse.Styleable(R.styleable.OtherView_textSize)\n" +
+                            "    float textSize;\n" +
+                            "}\n");
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+
+            return false;
+        }
+    }
+}
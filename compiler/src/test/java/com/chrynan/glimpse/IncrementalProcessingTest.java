@@ -0,0 +1,130 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the processor follows the contract of Gradle incremental annotation processing.
+ * Every binder must originate from its class only, so that Gradle regenerates only the binders of
+ * the recompiled classes, and a binder generated while recompiling a single class must bind the
+ * same values as the one generated by a full build.
+ */
+public class IncrementalProcessingTest {
+
+    private static final String BASE_BINDER = "com.example.incremental.BaseView_ViewStyleableAttr";
+    private static final String CHILD_BINDER = "com.example.incremental.ChildView_ViewStyleableAttr";
+    private static final String OTHER_BINDER = "com.example.incremental.OtherView_ViewStyleableAttr";
+    private static final String HOST_BINDER = "com.example.incremental.HostView_ViewStyleableAttr";
+    private static final String INDEX = "com.example.incremental.TestIndex";
+
+    @Test
+    public void processorIsIsolatingWithoutIndex() {
+        final Compilation compilation = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+
+        assertTrue(compilation.getProcessorOptions().contains("org.gradle.annotation.processing.isolating"));
+        assertFalse(compilation.getProcessorOptions().contains("org.gradle.annotation.processing.aggregating"));
+    }
+
+    @Test
+    public void processorIsAggregatingWithIndex() {
+        final Compilation compilation = compileFixtures(Collections.singletonMap(GlimpseOptions.OPTION_INDEX, INDEX), null,
+                "R", "BaseView", "ChildView", "OtherView");
+
+        assertTrue(compilation.getProcessorOptions().contains("org.gradle.annotation.processing.aggregating"));
+        assertFalse(compilation.getProcessorOptions().contains("org.gradle.annotation.processing.isolating"));
+    }
+
+    @Test
+    public void bindersOriginateFromTheirClassOnly() {
+        final Compilation compilation = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+
+        assertEquals(Collections.singletonList("com.example.incremental.BaseView"), compilation.getOriginatingElements(BASE_BINDER));
+        assertEquals(Collections.singletonList("com.example.incremental.ChildView"), compilation.getOriginatingElements(CHILD_BINDER));
+        assertEquals(Collections.singletonList("com.example.incremental.OtherView"), compilation.getOriginatingElements(OTHER_BINDER));
+    }
+
+    @Test
+    public void indexOriginatesFromEveryBoundClass() {
+        final Compilation compilation = compileFixtures(Collections.singletonMap(GlimpseOptions.OPTION_INDEX, INDEX), null,
+                "R", "BaseView", "ChildView", "OtherView");
+
+        assertEquals(Arrays.asList("com.example.incremental.BaseView", "com.example.incremental.ChildView", "com.example.incremental.OtherView"),
+                compilation.getOriginatingElements(INDEX));
+    }
+
+    @Test
+    public void onlyChangedViewIsRegenerated() {
+        final Compilation fullBuild = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+        final Compilation incrementalBuild = compileFixtures(Collections.<String, String>emptyMap(), fullBuild, "changed/OtherView");
+
+        assertEquals(Collections.singleton(OTHER_BINDER), incrementalBuild.getGeneratedSources().keySet());
+        assertTrue(incrementalBuild.getGeneratedSource(OTHER_BINDER).contains("otherView.textSize = "));
+    }
+
+    @Test
+    public void unchangedViewBinderIsIdenticalWhenRecompiledAlone() {
+        final Compilation fullBuild = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+        final Compilation incrementalBuild = compileFixtures(Collections.<String, String>emptyMap(), fullBuild, "OtherView");
+
+        assertEquals(fullBuild.getGeneratedSource(OTHER_BINDER), incrementalBuild.getGeneratedSource(OTHER_BINDER));
+    }
+
+    @Test
+    public void subclassBinderIsIdenticalWhenRecompiledAlone() {
+        final Compilation fullBuild = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+        final Compilation incrementalBuild = compileFixtures(Collections.<String, String>emptyMap(), fullBuild, "ChildView");
+
+        assertEquals(Collections.singleton(CHILD_BINDER), incrementalBuild.getGeneratedSources().keySet());
+        assertEquals(fullBuild.getGeneratedSource(CHILD_BINDER), incrementalBuild.getGeneratedSource(CHILD_BINDER));
+    }
+
+    @Test
+    public void subclassBinderSharesItsTypedArrayWithAncestorBinder() {
+        final Compilation compilation = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "BaseView", "ChildView", "OtherView");
+        final String source = compilation.getGeneratedSource(CHILD_BINDER);
+
+        // The ancestor's fields are bound by its binder, from the TypedArray obtained by the subclass
+        assertTrue(source.contains("BaseView_ViewStyleableAttr.INSTANCE.bind(childView, context, attributeSet, defStyle, defStyleRes, " +
+                "typedArray0, indexes.getParent());"));
+        assertTrue(source.contains("AttributeIndexes.merge(ATTRS, BaseView_ViewStyleableAttr.OBTAINED_ATTRS)"));
+        assertFalse(source.contains("showText"));
+    }
+
+    @Test
+    public void delegateHostBinderIsIdenticalWhenRecompiledAlone() {
+        final Compilation fullBuild = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "Helper", "HostView");
+        final Compilation incrementalBuild = compileFixtures(Collections.<String, String>emptyMap(), fullBuild, "HostView");
+
+        assertEquals(Collections.singleton(HOST_BINDER), incrementalBuild.getGeneratedSources().keySet());
+        assertEquals(fullBuild.getGeneratedSource(HOST_BINDER), incrementalBuild.getGeneratedSource(HOST_BINDER));
+    }
+
+    @Test
+    public void delegateHostBinderSharesItsTypedArrayWithDelegateBinder() {
+        final Compilation compilation = compileFixtures(Collections.<String, String>emptyMap(), null, "R", "Helper", "HostView");
+        final String source = compilation.getGeneratedSource(HOST_BINDER);
+
+        // The delegate's fields are bound by its binder, from the TypedArray obtained by the host
+        assertTrue(source.contains("Helper_ViewStyleableAttr.INSTANCE.bind(hostView.helper, context, attributeSet, defStyle, defStyleRes, " +
+                "typedArray0, indexes.getDelegate(0));"));
+        assertTrue(source.contains("AttributeIndexes.merge(ATTRS, Helper_ViewStyleableAttr.OBTAINED_ATTRS)"));
+        assertFalse(source.contains("textColor"));
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options, final Compilation previous, final String... names) {
+        final String[] fixtures = new String[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            fixtures[i] = "com/example/incremental/" + names[i] + ".java";
+        }
+
+        return Compilation.compileOrFail(options, previous, fixtures);
+    }
+}
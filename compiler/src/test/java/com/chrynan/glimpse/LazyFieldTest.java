@@ -0,0 +1,88 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the binding of lazy fields, which only captures the referenced resource and leaves its
+ * resolution to the first access of the LazyValue.
+ */
+public class LazyFieldTest {
+
+    private static final String BINDER_CLASS_NAME = "com.example.lazy.LazyView_ViewStyleableAttr";
+
+    @Test
+    public void bindingCapturesTheResource() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("lazyView.errorIcon = LazyValue.get(typedArray0, indexes.getIndex(0), LazyValue.DRAWABLE, " +
+                "com.example.lazy.R.drawable.def_error_icon, res, context.getTheme());"));
+        assertTrue(source.contains("lazyView.tint = LazyValue.get(typedArray0, indexes.getIndex(1), LazyValue.SHARED_COLOR_STATE_LIST, 0, res, context.getTheme());"));
+        assertTrue(source.contains("lazyView.entries = LazyValue.get(typedArray0, indexes.getIndex(2), LazyValue.TEXT_ARRAY, 0, res, context.getTheme());"));
+        assertTrue(source.contains("lazyView.emptyText = LazyValue.get(typedArray0, indexes.getIndex(3), LazyValue.STRING, 0, res, context.getTheme());"));
+    }
+
+    @Test
+    public void lazyFieldsDontReadTheDefaultValuesCache() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertFalse(source.contains("DefaultValues"));
+        assertFalse(source.contains("getDrawable("));
+    }
+
+    @Test
+    public void lazyFieldsAreNeverLeftNull() {
+        final String source = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSource(BINDER_CLASS_NAME);
+
+        // Bound without attributes, with the default resource or else an empty value
+        assertTrue(source.contains("lazyView.errorIcon = LazyValue.get(LazyValue.DRAWABLE, com.example.lazy.R.drawable.def_error_icon, res, context.getTheme());"));
+        assertTrue(source.contains("lazyView.emptyText = LazyValue.get(LazyValue.STRING, 0, res, context.getTheme());"));
+    }
+
+    @Test
+    public void sparseAndSnapshotBindersCompile() {
+        final Map<String, String> options = new HashMap<>();
+        options.put(GlimpseOptions.OPTION_SPARSE_THRESHOLD, "1");
+        options.put(GlimpseOptions.OPTION_SNAPSHOTS, "true");
+
+        final String source = compileFixtures(options).getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("snapshot.errorIcon = LazyValue.get(typedArray0, index, LazyValue.DRAWABLE, " +
+                "com.example.lazy.R.drawable.def_error_icon, res, context.getTheme());"));
+        assertTrue(source.contains("lazyView.errorIcon = Snapshots.copy(snapshot.errorIcon);"));
+        assertTrue(source.contains("Snapshots.isShareable(snapshot.errorIcon)"));
+    }
+
+    @Test
+    public void lazyFieldsMustBeLazyValues() {
+        final Compilation compilation = Compilation.compile(Collections.<String, String>emptyMap(),
+                Compilation.fixture("com/example/lazy/R.java"),
+                Compilation.fixture("com/example/lazy/EagerLazyView.java"));
+
+        assertFalse(compilation.isSuccess());
+
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains("Lazy fields must be a LazyValue")) {
+                return;
+            }
+        }
+
+        fail("The lazy field that isn't a LazyValue wasn't reported.");
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options) {
+        return Compilation.compileOrFail(options, null,
+                "com/example/lazy/R.java",
+                "com/example/lazy/LazyView.java");
+    }
+}
@@ -0,0 +1,43 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a class binding the attributes of several styleable groups obtains them from a
+ * single merged attribute array when the R.attr ids are constants, and falls back to one array per
+ * styleable group when they aren't.
+ */
+public class MergedAttributesTest {
+
+    @Test
+    public void groupsAreMergedIntoOneSortedArray() {
+        final String source = compileFixtures("merged").getGeneratedSource("com.example.merged.MergedView_ViewStyleableAttr");
+
+        assertTrue(source.contains("ATTRS = { com.example.merged.R.attr.showText, com.example.merged.R.attr.title, "
+                + "com.example.merged.R.attr.textColor, com.example.merged.R.attr.textSize }"));
+        assertEquals(1, Compilation.countOccurrences(source, "obtainStyledAttributes("));
+        assertTrue(source.contains("mergedView.textColor = TypedValues.getInt(typedArray0, indexes.getIndex(2), 0, res)"));
+        assertTrue(source.contains("mergedView.title = typedArray0.getText(indexes.getIndex(1))"));
+    }
+
+    @Test
+    public void nonConstantAttributesFallBackToGroupArrays() {
+        final String source = compileFixtures("library").getGeneratedSource("com.example.library.MergedView_ViewStyleableAttr");
+
+        assertFalse(source.contains(" ATTRS = "));
+        assertEquals(2, Compilation.countOccurrences(source, "obtainStyledAttributes("));
+        assertTrue(source.contains("mergedView.title = typedArray1.getText(com.example.library.R.styleable.Text_title)"));
+    }
+
+    private static Compilation compileFixtures(final String packageName) {
+        return Compilation.compileOrFail(Collections.<String, String>emptyMap(), null,
+                "com/example/" + packageName + "/R.java",
+                "com/example/" + packageName + "/MergedView.java");
+    }
+}
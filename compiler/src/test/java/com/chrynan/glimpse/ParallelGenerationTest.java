@@ -0,0 +1,50 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that generating the binding classes on several threads writes the same files, with the
+ * same content, as generating them on the compiler thread.
+ */
+public class ParallelGenerationTest {
+
+    @Test
+    public void parallelOutputIsIdenticalToSerialOutput() {
+        final Map<String, String> serial = compileFixtures(Collections.<String, String>emptyMap()).getGeneratedSources();
+        final Map<String, String> parallel = compileFixtures(Collections.singletonMap(GlimpseOptions.OPTION_PARALLELISM, "4")).getGeneratedSources();
+
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    public void parallelOutputIsIdenticalWithAllOptions() {
+        final Map<String, String> options = new HashMap<>();
+        options.put(GlimpseOptions.OPTION_INDEX, "com.example.TestIndex");
+        options.put(GlimpseOptions.OPTION_SNAPSHOTS, "true");
+        options.put(GlimpseOptions.OPTION_SPARSE_THRESHOLD, "2");
+
+        final Map<String, String> serial = compileFixtures(options).getGeneratedSources();
+
+        options.put(GlimpseOptions.OPTION_PARALLELISM, "4");
+
+        assertEquals(serial, compileFixtures(options).getGeneratedSources());
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options) {
+        return Compilation.compileOrFail(options, null,
+                "com/example/R.java",
+                "com/example/SizeView.java",
+                "com/example/merged/R.java",
+                "com/example/merged/MergedView.java",
+                "com/example/incremental/R.java",
+                "com/example/incremental/BaseView.java",
+                "com/example/incremental/ChildView.java",
+                "com/example/incremental/OtherView.java");
+    }
+}
@@ -0,0 +1,40 @@
+package com.chrynan.glimpse;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the R class fields referenced by the annotations are resolved from the symbol index
+ * whatever the form of the reference, and that styleable indexes sharing a value are told apart.
+ */
+public class RClassIndexTest {
+
+    private static final String BINDER_CLASS_NAME = "com.example.symbols.SymbolView_ViewStyleableAttr";
+
+    @Test
+    public void staticallyImportedReferenceIsResolved() {
+        final String source = compileFixtures().getGeneratedSource(BINDER_CLASS_NAME);
+
+        assertTrue(source.contains("com.example.symbols.R.styleable.SymbolView, "));
+        assertTrue(source.contains("typedArray0.getText(com.example.symbols.R.styleable.SymbolView_title)"));
+    }
+
+    @Test
+    public void styleableIndexesWithTheSameValueAreToldApart() {
+        final String source = compileFixtures().getGeneratedSource(BINDER_CLASS_NAME);
+
+        // Both indexes are zero, the qualified reference must still resolve to the Text group
+        assertTrue(source.contains("com.example.symbols.R.styleable.Text, "));
+        assertTrue(source.contains("com.example.symbols.R.styleable.Text_textColor, "));
+        assertTrue(source.contains("com.example.symbols.R.color.default_text_color"));
+    }
+
+    private static Compilation compileFixtures() {
+        return Compilation.compileOrFail(Collections.<String, String>emptyMap(), null,
+                "com/example/symbols/R.java",
+                "com/example/symbols/SymbolView.java");
+    }
+}
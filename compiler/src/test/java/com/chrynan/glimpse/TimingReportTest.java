@@ -0,0 +1,81 @@
+package com.chrynan.glimpse;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the diagnostics output of the processor, which is quiet by default, and the timing report
+ * written when it's requested.
+ */
+public class TimingReportTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void noNotesByDefault() {
+        assertEquals(0, countNotes(compileFixtures(Collections.<String, String>emptyMap())));
+    }
+
+    @Test
+    public void notesWhenVerbose() {
+        final Compilation compilation = compileFixtures(Collections.singletonMap(GlimpseOptions.OPTION_VERBOSE, "true"));
+
+        assertTrue(countNotes(compilation) > 0);
+    }
+
+    @Test
+    public void reportIsWrittenWithEveryStage() throws IOException {
+        final File report = new File(temporaryFolder.getRoot(), "reports/glimpse/timing.json");
+        final Map<String, String> options = new HashMap<>();
+        options.put(GlimpseOptions.OPTION_TIMING_REPORT, report.getPath());
+        options.put(GlimpseOptions.OPTION_PARALLELISM, "2");
+
+        compileFixtures(options);
+
+        final String json = new String(Files.readAllBytes(report.toPath()), Charset.forName("UTF-8"));
+
+        assertTrue(json.contains("\"parallelism\": 2"));
+        assertTrue(json.contains("{ \"round\": 1, \"classes\": 3, \"fields\": 3, "));
+        assertTrue(json.contains("\"total\": { \"classes\": 3, \"fields\": 3, "));
+
+        for (final String stage : new String[]{"resolutionMillis", "modelMillis", "generationMillis", "writeMillis"}) {
+            assertTrue(stage, json.contains("\"" + stage + "\": "));
+        }
+    }
+
+    private static int countNotes(final Compilation compilation) {
+        int count = 0;
+
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static Compilation compileFixtures(final Map<String, String> options) {
+        return Compilation.compileOrFail(options, null,
+                "com/example/incremental/R.java",
+                "com/example/incremental/BaseView.java",
+                "com/example/incremental/ChildView.java",
+                "com/example/incremental/OtherView.java");
+    }
+}
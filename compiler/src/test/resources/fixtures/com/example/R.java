@@ -0,0 +1,50 @@
+package com.example;
+
+public final class R {
+
+    public static final class attr {
+        public static final int showText = 0x7f010000;
+        public static final int textColor = 0x7f010001;
+        public static final int size = 0x7f010002;
+        public static final int padding = 0x7f010003;
+        public static final int count = 0x7f010004;
+        public static final int ratio = 0x7f010005;
+        public static final int icon = 0x7f010006;
+        public static final int label = 0x7f010007;
+        public static final int title = 0x7f010008;
+        public static final int tint = 0x7f010009;
+    }
+
+    public static final class styleable {
+        public static final int[] SizeView = {
+                0x7f010000, 0x7f010001, 0x7f010002, 0x7f010003, 0x7f010004,
+                0x7f010005, 0x7f010006, 0x7f010007, 0x7f010008, 0x7f010009
+        };
+        public static final int SizeView_showText = 0;
+        public static final int SizeView_textColor = 1;
+        public static final int SizeView_size = 2;
+        public static final int SizeView_padding = 3;
+        public static final int SizeView_count = 4;
+        public static final int SizeView_ratio = 5;
+        public static final int SizeView_icon = 6;
+        public static final int SizeView_label = 7;
+        public static final int SizeView_title = 8;
+        public static final int SizeView_tint = 9;
+    }
+
+    public static final class color {
+        public static final int default_text_color = 0x7f020000;
+    }
+
+    public static final class dimen {
+        public static final int default_size = 0x7f030000;
+    }
+
+    public static final class drawable {
+        public static final int default_icon = 0x7f040000;
+    }
+
+    public static final class string {
+        public static final int default_label = 0x7f050000;
+    }
+}
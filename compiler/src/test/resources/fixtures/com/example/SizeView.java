@@ -0,0 +1,44 @@
+package com.example;
+
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.ColorInt;
+import android.support.annotation.Dimension;
+
+import com.chrynan.glimpse.Styleable;
+
+public class SizeView {
+
+    @Styleable(R.styleable.SizeView_showText)
+    boolean showText;
+
+    @ColorInt
+    @Styleable(value = R.styleable.SizeView_textColor, defaultRes = R.color.default_text_color)
+    int textColor;
+
+    @Dimension(unit = Dimension.DP)
+    @Styleable(value = R.styleable.SizeView_size, defaultRes = R.dimen.default_size)
+    int size;
+
+    @Dimension
+    @Styleable(R.styleable.SizeView_padding)
+    int padding;
+
+    @Styleable(R.styleable.SizeView_count)
+    int count;
+
+    @Styleable(R.styleable.SizeView_ratio)
+    float ratio;
+
+    @Styleable(value = R.styleable.SizeView_icon, defaultRes = R.drawable.default_icon)
+    Drawable icon;
+
+    @Styleable(value = R.styleable.SizeView_label, defaultRes = R.string.default_label)
+    String label;
+
+    @Styleable(R.styleable.SizeView_title)
+    CharSequence title;
+
+    @Styleable(R.styleable.SizeView_tint)
+    ColorStateList tint;
+}
@@ -0,0 +1,16 @@
+package com.example.delegates;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableDelegate;
+
+public class DelegateView {
+
+    @Styleable(R.styleable.DelegateView_title)
+    CharSequence title;
+
+    @StyleableDelegate
+    PlainHelper plainHelper = new PlainHelper();
+
+    @StyleableDelegate
+    DetailedHelper detailedHelper = new DetailedHelper();
+}
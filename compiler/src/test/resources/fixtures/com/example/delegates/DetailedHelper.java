@@ -0,0 +1,9 @@
+package com.example.delegates;
+
+import com.chrynan.glimpse.Styleable;
+
+public class DetailedHelper extends Helper {
+
+    @Styleable(R.styleable.DetailedHelper_textSize)
+    int textSize;
+}
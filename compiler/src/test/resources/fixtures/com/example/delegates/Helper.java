@@ -0,0 +1,9 @@
+package com.example.delegates;
+
+import com.chrynan.glimpse.Styleable;
+
+public class Helper {
+
+    @Styleable(R.styleable.Helper_textColor)
+    int textColor;
+}
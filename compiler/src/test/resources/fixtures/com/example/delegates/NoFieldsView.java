@@ -0,0 +1,9 @@
+package com.example.delegates;
+
+import com.chrynan.glimpse.StyleableDelegate;
+
+public class NoFieldsView {
+
+    @StyleableDelegate
+    StringBuilder builder = new StringBuilder();
+}
@@ -0,0 +1,6 @@
+package com.example.delegates;
+
+public class PlainHelper extends Helper {
+
+    boolean visible;
+}
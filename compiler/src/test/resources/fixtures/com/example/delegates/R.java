@@ -0,0 +1,19 @@
+package com.example.delegates;
+
+public final class R {
+
+    public static final class attr {
+        public static final int title = 0x7f010000;
+        public static final int textColor = 0x7f010001;
+        public static final int textSize = 0x7f010002;
+    }
+
+    public static final class styleable {
+        public static final int[] DelegateView = {0x7f010000};
+        public static final int DelegateView_title = 0;
+        public static final int[] Helper = {0x7f010001};
+        public static final int Helper_textColor = 0;
+        public static final int[] DetailedHelper = {0x7f010002};
+        public static final int DetailedHelper_textSize = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.enums;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableEnumValue;
+
+public class DuplicateValueView {
+
+    @Styleable(R.styleable.EnumView_scaleMode)
+    Mode mode;
+
+    public enum Mode {
+        @StyleableEnumValue(1)
+        FIRST,
+        SECOND
+    }
+}
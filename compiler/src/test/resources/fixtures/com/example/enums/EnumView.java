@@ -0,0 +1,25 @@
+package com.example.enums;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableEnumValue;
+
+public class EnumView {
+
+    @Styleable(R.styleable.EnumView_scaleMode)
+    ScaleMode scaleMode;
+
+    @Styleable(value = R.styleable.EnumView_orientation, defaultRes = R.integer.def_orientation)
+    Orientation orientation;
+
+    @Styleable(R.styleable.EnumView_labelOrientation)
+    Orientation labelOrientation;
+
+    public enum ScaleMode {
+        @StyleableEnumValue(1)
+        FIT,
+        @StyleableEnumValue(2)
+        FILL,
+        @StyleableEnumValue(5)
+        CENTER
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.enums;
+
+public enum Orientation {
+    HORIZONTAL,
+    VERTICAL
+}
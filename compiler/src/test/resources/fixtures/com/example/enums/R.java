@@ -0,0 +1,21 @@
+package com.example.enums;
+
+public final class R {
+
+    public static final class attr {
+        public static final int scaleMode = 0x7f010000;
+        public static final int orientation = 0x7f010001;
+        public static final int labelOrientation = 0x7f010002;
+    }
+
+    public static final class integer {
+        public static final int def_orientation = 0x7f020000;
+    }
+
+    public static final class styleable {
+        public static final int[] EnumView = {0x7f010000, 0x7f010001, 0x7f010002};
+        public static final int EnumView_scaleMode = 0;
+        public static final int EnumView_orientation = 1;
+        public static final int EnumView_labelOrientation = 2;
+    }
+}
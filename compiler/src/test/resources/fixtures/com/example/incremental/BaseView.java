@@ -0,0 +1,9 @@
+package com.example.incremental;
+
+import com.chrynan.glimpse.Styleable;
+
+public class BaseView {
+
+    @Styleable(R.styleable.BaseView_showText)
+    boolean showText;
+}
@@ -0,0 +1,9 @@
+package com.example.incremental;
+
+import com.chrynan.glimpse.Styleable;
+
+public class ChildView extends BaseView {
+
+    @Styleable(R.styleable.ChildView_title)
+    CharSequence title;
+}
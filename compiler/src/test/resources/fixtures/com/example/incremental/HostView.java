@@ -0,0 +1,13 @@
+package com.example.incremental;
+
+import com.chrynan.glimpse.Styleable;
+import com.chrynan.glimpse.StyleableDelegate;
+
+public class HostView {
+
+    @Styleable(R.styleable.HostView_title)
+    CharSequence title;
+
+    @StyleableDelegate
+    Helper helper = new Helper();
+}
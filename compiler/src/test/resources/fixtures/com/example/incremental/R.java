@@ -0,0 +1,25 @@
+package com.example.incremental;
+
+public final class R {
+
+    public static final class attr {
+        public static final int showText = 0x7f010000;
+        public static final int title = 0x7f010001;
+        public static final int textColor = 0x7f010002;
+        public static final int textSize = 0x7f010003;
+    }
+
+    public static final class styleable {
+        public static final int[] BaseView = {0x7f010000};
+        public static final int BaseView_showText = 0;
+        public static final int[] ChildView = {0x7f010001};
+        public static final int ChildView_title = 0;
+        public static final int[] OtherView = {0x7f010002, 0x7f010003};
+        public static final int OtherView_textColor = 0;
+        public static final int OtherView_textSize = 1;
+        public static final int[] HostView = {0x7f010001};
+        public static final int HostView_title = 0;
+        public static final int[] Helper = {0x7f010002};
+        public static final int Helper_textColor = 0;
+    }
+}
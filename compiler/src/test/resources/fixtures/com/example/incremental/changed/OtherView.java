@@ -0,0 +1,12 @@
+package com.example.incremental;
+
+import com.chrynan.glimpse.Styleable;
+
+public class OtherView {
+
+    @Styleable(R.styleable.OtherView_textColor)
+    int textColor;
+
+    @Styleable(R.styleable.OtherView_textSize)
+    float textSize;
+}
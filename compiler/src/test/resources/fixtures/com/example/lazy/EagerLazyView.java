@@ -0,0 +1,11 @@
+package com.example.lazy;
+
+import android.graphics.drawable.Drawable;
+
+import com.chrynan.glimpse.Styleable;
+
+public class EagerLazyView {
+
+    @Styleable(value = R.styleable.LazyView_errorIcon, lazy = true)
+    Drawable errorIcon;
+}
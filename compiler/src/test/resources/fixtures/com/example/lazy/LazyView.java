@@ -0,0 +1,22 @@
+package com.example.lazy;
+
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+
+import com.chrynan.glimpse.LazyValue;
+import com.chrynan.glimpse.Styleable;
+
+public class LazyView {
+
+    @Styleable(value = R.styleable.LazyView_errorIcon, defaultRes = R.drawable.def_error_icon, lazy = true)
+    LazyValue<Drawable> errorIcon;
+
+    @Styleable(value = R.styleable.LazyView_tint, shared = true, lazy = true)
+    LazyValue<ColorStateList> tint;
+
+    @Styleable(value = R.styleable.LazyView_entries, lazy = true)
+    LazyValue<CharSequence[]> entries;
+
+    @Styleable(value = R.styleable.LazyView_emptyText, lazy = true)
+    LazyValue<String> emptyText;
+}
@@ -0,0 +1,23 @@
+package com.example.lazy;
+
+public final class R {
+
+    public static final class attr {
+        public static final int errorIcon = 0x7f010000;
+        public static final int tint = 0x7f010001;
+        public static final int entries = 0x7f010002;
+        public static final int emptyText = 0x7f010003;
+    }
+
+    public static final class drawable {
+        public static final int def_error_icon = 0x7f020000;
+    }
+
+    public static final class styleable {
+        public static final int[] LazyView = {0x7f010000, 0x7f010001, 0x7f010002, 0x7f010003};
+        public static final int LazyView_errorIcon = 0;
+        public static final int LazyView_tint = 1;
+        public static final int LazyView_entries = 2;
+        public static final int LazyView_emptyText = 3;
+    }
+}
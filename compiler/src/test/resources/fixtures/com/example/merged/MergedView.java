@@ -0,0 +1,18 @@
+package com.example.merged;
+
+import com.chrynan.glimpse.Styleable;
+
+public class MergedView {
+
+    @Styleable(R.styleable.MergedView_showText)
+    boolean showText;
+
+    @Styleable(R.styleable.MergedView_textColor)
+    int textColor;
+
+    @Styleable(R.styleable.Text_title)
+    CharSequence title;
+
+    @Styleable(R.styleable.Text_textSize)
+    float textSize;
+}
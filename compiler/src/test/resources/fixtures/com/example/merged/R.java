@@ -0,0 +1,20 @@
+package com.example.merged;
+
+public final class R {
+
+    public static final class attr {
+        public static final int showText = 0x7f010000;
+        public static final int title = 0x7f010001;
+        public static final int textColor = 0x7f010002;
+        public static final int textSize = 0x7f010003;
+    }
+
+    public static final class styleable {
+        public static final int[] MergedView = {0x7f010000, 0x7f010002};
+        public static final int MergedView_showText = 0;
+        public static final int MergedView_textColor = 1;
+        public static final int[] Text = {0x7f010001, 0x7f010003};
+        public static final int Text_title = 0;
+        public static final int Text_textSize = 1;
+    }
+}
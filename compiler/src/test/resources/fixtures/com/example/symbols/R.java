@@ -0,0 +1,15 @@
+package com.example.symbols;
+
+public final class R {
+
+    public static final class styleable {
+        public static final int[] SymbolView = {0x7f010000};
+        public static final int SymbolView_title = 0;
+        public static final int[] Text = {0x7f010001};
+        public static final int Text_textColor = 0;
+    }
+
+    public static final class color {
+        public static final int default_text_color = 0x7f020000;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.symbols;
+
+import com.chrynan.glimpse.Styleable;
+
+import static com.example.symbols.R.styleable.SymbolView_title;
+
+public class SymbolView {
+
+    @Styleable(SymbolView_title)
+    CharSequence title;
+
+    @Styleable(value = com.example.symbols.R.styleable.Text_textColor, defaultRes = R.color.default_text_color)
+    int textColor;
+}